@@ -0,0 +1,19 @@
+package br.com.rafael.jpdroid.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifica entidade cujos resultados de consulta podem ser mantidos no
+ * cache de consultas. Indicado para tabelas de consulta que raramente so
+ * alteradas, como estados, cidades e produtos.
+ * 
+ * @author Rafael Centenaro
+ *
+ */
+@Target({java.lang.annotation.ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable
+{
+}
\ No newline at end of file
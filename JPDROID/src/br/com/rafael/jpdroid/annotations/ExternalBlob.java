@@ -0,0 +1,25 @@
+package br.com.rafael.jpdroid.annotations;
+
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifica coluna do tipo Bitmap ou byte[] que deve ser gravada em arquivo
+ * externo quando o tamanho ultrapassar o limite configurado. No registro 
+ * mantida apenas a referncia (hash SHA-256) do contedo.
+ * 
+ * @author Rafael Centenaro
+ *
+ */
+@Target({java.lang.annotation.ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExternalBlob
+{
+	/**
+	 * Tamanho mnimo, em bytes, para que o contedo seja gravado em arquivo.
+	 * @return
+	 */
+	int threshold() default 32768;
+}
\ No newline at end of file
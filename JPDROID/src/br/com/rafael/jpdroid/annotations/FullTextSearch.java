@@ -0,0 +1,18 @@
+package br.com.rafael.jpdroid.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifica coluna do tipo texto que deve ser indexada para pesquisa textual
+ * atravs do mtodo search().
+ * 
+ * @author Rafael Centenaro
+ *
+ */
+@Target({java.lang.annotation.ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FullTextSearch
+{
+}
\ No newline at end of file
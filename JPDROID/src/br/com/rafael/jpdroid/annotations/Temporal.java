@@ -0,0 +1,21 @@
+package br.com.rafael.jpdroid.annotations;
+
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import br.com.rafael.jpdroid.enums.TemporalStorage;
+
+/**
+ * Define a forma de armazenamento de atributos do tipo Date ou Calendar.
+ * 
+ * @author Rafael Centenaro
+ *
+ */
+@Target({java.lang.annotation.ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Temporal
+{
+	TemporalStorage storage() default TemporalStorage.TEXT;
+}
\ No newline at end of file
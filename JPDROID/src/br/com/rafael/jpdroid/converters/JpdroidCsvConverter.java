@@ -1,17 +1,15 @@
 package br.com.rafael.jpdroid.converters;
 
-import java.lang.reflect.Field;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Arrays;
-import java.util.Collections;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import android.database.Cursor;
 import android.util.Log;
-import br.com.rafael.jpdroid.annotations.Entity;
-import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.core.JpdroidEntityIterator;
 import br.com.rafael.jpdroid.enums.StringFormat;
 
 /**
@@ -21,73 +19,14 @@ import br.com.rafael.jpdroid.enums.StringFormat;
  */
 public class JpdroidCsvConverter {
 
-	private static StringBuilder arquivo = null;
-
 	public static String toCsv(Object entity) throws Exception {
-		arquivo = new StringBuilder();
 		return getCsv(entity);
 	}
 
 	public static String getCsv(Object entity) throws Exception {
-		Object[] element = null;
-		String linha = "";
-		String cabecalho = "";
-		arquivo.append(cabecalho);
-
-		if (entity instanceof List) {
-			element = ((List<?>) entity).toArray(new Object[((List<?>) entity)
-					.size()]);
-
-		} else {
-			element = new Object[1];
-			element[0] = entity;
-		}
-
-		for (Object item : element) {
-			linha = "";
-			cabecalho = "";
-
-			Class<?> classe = item.getClass();
-			Field[] declaredFields = classe.getDeclaredFields();
-			Collections.reverse(Arrays.asList(declaredFields));
-			for (Field field : declaredFields) {
-				field.setAccessible(true);
-				Object child = field.get(item);
-				if (child != null) {
-					if (!(child instanceof List || child.getClass()
-							.getAnnotation(Entity.class) != null)) {
-						if (cabecalho.length() == 0) {
-							cabecalho = field.getName();
-						} else {
-							cabecalho += ";" + field.getName();
-						}
-						if (linha.length() == 0) {
-							linha = child.toString();
-						} else {
-							linha += ";" + child.toString();
-						}
-					}
-				} else {
-					if (field.getAnnotation(RelationClass.class) == null) {
-						if (cabecalho.length() == 0) {
-							cabecalho = field.getName();
-						} else {
-							cabecalho += ";" + field.getName();
-						}
-						if (linha.length() == 0) {
-							linha = "null";
-						} else {
-							linha += ";null";
-						}
-					}
-				}
-			}
-			arquivo.append("\n");
-			arquivo.append(linha);
-		}
-
-		arquivo.insert(0, cabecalho);
-		return arquivo.toString();
+		StringWriter writer = new StringWriter();
+		new JpdroidCsvWriter(writer).entities(iterator(entity));
+		return writer.toString();
 	}
 
 	public static String toCsv(Cursor cursor) throws Exception {
@@ -96,7 +35,6 @@ public class JpdroidCsvConverter {
 
 	public static String toCsv(Cursor cursor, Map< String,StringFormat> formatString)
 			throws Exception {
-		arquivo = new StringBuilder();
 		return getCsv(cursor,formatString);
 	}
 
@@ -105,81 +43,64 @@ public class JpdroidCsvConverter {
 	}
 
 	public static String getCsv(Cursor cursor, Map<String,StringFormat> formatString) {
-		String linha = "";
-		String cabecalho = "";
-		arquivo.append(cabecalho);
-
-		cursor.moveToFirst();
-		while (cursor.isAfterLast() == false) {
-			linha = "";
-			cabecalho = "";
-			int totalColumn = cursor.getColumnCount();
-
-			for (int i = 0; i < totalColumn; i++) {
-				if (cursor.getColumnName(i) != null) {
-					if (cabecalho.length() == 0) {
-						cabecalho = cursor.getColumnName(i);
-					} else {
-						cabecalho += ";" + cursor.getColumnName(i);
-					}
-					try {
-
-						if (cursor.getString(i) != null) {
-							if (linha.length() == 0) {
-								linha = formatString(cursor, i, formatString);
-							} else {
-								linha += ";" + formatString(cursor, i, formatString);
-							}
-						} else {
-							if (linha.length() == 0) {
-								linha = "null";
-							} else {
-								linha += ";null";
-							}
-						}
-					} catch (Exception e) {
-						Log.d("TAG_NAME", e.getMessage());
-					}
-				}
-
-			}
-			arquivo.append("\n");
-			arquivo.append(linha);
-			cursor.moveToNext();
+		StringWriter writer = new StringWriter();
+		try {
+			new JpdroidCsvWriter(writer, formatString).cursor(cursor);
+		} catch (IOException e) {
+			Log.e("Erro getCsv()", e.getMessage());
 		}
-
-		arquivo.insert(0, cabecalho);
-		return arquivo.toString();
+		return writer.toString();
 	}
 
-	private static String formatString(Cursor cursor, int i,
-			Map<String, StringFormat> formatString) {
-
-		if (formatString == null) {
-			return cursor.getString(i);
-		} else {
-
-			String columnName = cursor.getColumnName(i);
-			StringFormat format = formatString.get(columnName);
-			if(format == StringFormat.Numeric){
-				DecimalFormatSymbols symbols = new DecimalFormatSymbols();
-				symbols.setGroupingSeparator('.');
-				symbols.setDecimalSeparator(',');
+	/**
+	 * Escreve as linhas do cursor no OutputStream, no formato CSV.
+	 * 
+	 * @param cursor
+	 * @param formatString
+	 * @param out
+	 * @return Quantidade de linhas escritas.
+	 * @throws Exception
+	 */
+	public static int write(Cursor cursor,
+			Map<String, StringFormat> formatString, OutputStream out)
+			throws Exception {
+		JpdroidCsvWriter writer = new JpdroidCsvWriter(out, formatString);
+		int count = writer.cursor(cursor);
+		writer.flush();
+		return count;
+	}
 
-				DecimalFormat decimalFormat = new DecimalFormat("#,###.00", symbols);
-				return decimalFormat.format(cursor.getDouble(i));
+	/**
+	 * Escreve o objeto, a lista ou os objetos retornados pelo iterador no
+	 * OutputStream, no formato CSV. <br>
+	 * Quando for um JpdroidEntityIterator, o cursor  fechado ao final.
+	 * 
+	 * @param entity
+	 * @param out
+	 * @return Quantidade de objetos escritos.
+	 * @throws Exception
+	 */
+	public static int write(Object entity, OutputStream out) throws Exception {
+		try {
+			JpdroidCsvWriter writer = new JpdroidCsvWriter(out, null);
+			int count = writer.entities(iterator(entity));
+			writer.flush();
+			return count;
+		} finally {
+			if (entity instanceof JpdroidEntityIterator) {
+				((JpdroidEntityIterator<?>) entity).close();
 			}
-			if(format == StringFormat.R$){
-				DecimalFormatSymbols symbols = new DecimalFormatSymbols();
-				symbols.setGroupingSeparator('.');
-				symbols.setDecimalSeparator(',');
+		}
+	}
 
-				DecimalFormat decimalFormat = new DecimalFormat("R$ #,###.00", symbols);
-				return decimalFormat.format(cursor.getDouble(i));
-			}
-			return cursor.getString(i);
-			
+	private static Iterator<?> iterator(Object entity) {
+		if (entity instanceof Iterator) {
+			return (Iterator<?>) entity;
+		}
+		if (entity instanceof List) {
+			return ((List<?>) entity).iterator();
 		}
+		return java.util.Collections.singletonList(entity).iterator();
 	}
 
 }
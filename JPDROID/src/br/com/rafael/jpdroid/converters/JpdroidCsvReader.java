@@ -0,0 +1,139 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+
+/**
+ * L registros no formato CSV, onde a primeira linha contm o nome das
+ * colunas. <br>
+ * Valores entre aspas podem conter o separador, aspas duplicadas e quebras de
+ * linha (RFC 4180). O valor null, escrito pela exportao,  lido como nulo.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidCsvReader implements IRecordReader {
+
+	private final Reader in;
+
+	private final char delimiter;
+
+	private final char[] buffer = new char[8192];
+
+	private int position;
+
+	private int limit;
+
+	private String[] header;
+
+	private final StringBuilder value = new StringBuilder();
+
+	public JpdroidCsvReader(Reader in) {
+		this(in, JpdroidCsvWriter.DELIMITER);
+	}
+
+	public JpdroidCsvReader(Reader in, char delimiter) {
+		this.in = in;
+		this.delimiter = delimiter;
+	}
+
+	@Override
+	public Map<String, Object> nextRecord() throws IOException {
+		if (header == null) {
+			header = readRecord();
+			if (header == null) {
+				return null;
+			}
+			for (int i = 0; i < header.length; i++) {
+				header[i] = header[i] == null ? "" : header[i].trim();
+			}
+		}
+		String[] values = readRecord();
+		while (values != null && values.length == 1 && values[0].length() == 0) {
+			// Linhas em branco.
+			values = readRecord();
+		}
+		if (values == null) {
+			return null;
+		}
+		Map<String, Object> record = new HashMap<String, Object>(
+				header.length * 2);
+		for (int i = 0; i < header.length && i < values.length; i++) {
+			record.put(header[i], "null".equals(values[i]) ? null : values[i]);
+		}
+		return record;
+	}
+
+	/**
+	 * L os valores da prxima linha do arquivo.
+	 *
+	 * @return String[] ou null no final do arquivo.
+	 * @throws IOException
+	 */
+	public String[] readRecord() throws IOException {
+		int c = read();
+		if (c < 0) {
+			return null;
+		}
+		List<String> values = new ArrayList<String>();
+		value.setLength(0);
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c < 0) {
+					throw new IOException("Aspas no finalizadas no arquivo CSV.");
+				}
+				if (c == '"') {
+					c = read();
+					if (c == '"') {
+						value.append('"');
+					} else {
+						quoted = false;
+						continue;
+					}
+				} else {
+					value.append((char) c);
+				}
+			} else if (c == '"' && value.length() == 0) {
+				quoted = true;
+			} else if (c == delimiter) {
+				values.add(value.toString());
+				value.setLength(0);
+			} else if (c == '\r' || c == '\n' || c < 0) {
+				if (c == '\r') {
+					c = read();
+					if (c != '\n' && c >= 0) {
+						position--;
+					}
+				}
+				values.add(value.toString());
+				return values.toArray(new String[values.size()]);
+			} else {
+				value.append((char) c);
+			}
+			c = read();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+}
@@ -0,0 +1,277 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import android.database.Cursor;
+import br.com.rafael.jpdroid.annotations.Entity;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.enums.StringFormat;
+
+/**
+ * Escreve registros no formato CSV diretamente em um Writer, separados por
+ * ponto e vrgula. <br>
+ * Os valores que possuem separador, aspas ou quebra de linha so escritos
+ * entre aspas (RFC 4180). Cada instncia deve ser utilizada por uma nica
+ * exportao.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidCsvWriter {
+
+	public static final char DELIMITER = ';';
+
+	private static final String LINE_END = "\r\n";
+
+	private static final String NULL = "null";
+
+	private static final HashMap<Class<?>, Field[]> columns = new HashMap<Class<?>, Field[]>();
+
+	private final Writer out;
+
+	private final Map<String, StringFormat> formatString;
+
+	private final HashMap<StringFormat, DecimalFormat> formats = new HashMap<StringFormat, DecimalFormat>();
+
+	public JpdroidCsvWriter(OutputStream out,
+			Map<String, StringFormat> formatString) throws IOException {
+		this(new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), 8192),
+				formatString);
+	}
+
+	public JpdroidCsvWriter(Writer out) {
+		this(out, null);
+	}
+
+	/**
+	 * @param out
+	 * @param formatString
+	 *            - Formato das colunas numricas, pelo nome da coluna.
+	 */
+	public JpdroidCsvWriter(Writer out, Map<String, StringFormat> formatString) {
+		this.out = out;
+		this.formatString = formatString;
+	}
+
+	/**
+	 * Escreve um registro com os valores informados.
+	 *
+	 * @param values
+	 * @throws IOException
+	 */
+	public void writeRecord(String... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				out.write(DELIMITER);
+			}
+			field(values[i]);
+		}
+		out.write(LINE_END);
+	}
+
+	/**
+	 * Escreve o cabealho e as linhas do cursor.
+	 *
+	 * @param cursor
+	 * @return Quantidade de linhas escritas.
+	 * @throws IOException
+	 */
+	public int cursor(Cursor cursor) throws IOException {
+		int totalColumn = cursor.getColumnCount();
+		List<Integer> indexes = new ArrayList<Integer>();
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < totalColumn; i++) {
+			String name = cursor.getColumnName(i);
+			if (name != null) {
+				indexes.add(i);
+				names.add(name);
+			}
+		}
+		int[] columnIndexes = new int[indexes.size()];
+		DecimalFormat[] columnFormats = new DecimalFormat[indexes.size()];
+		for (int i = 0; i < columnIndexes.length; i++) {
+			columnIndexes[i] = indexes.get(i);
+			columnFormats[i] = getFormat(names.get(i));
+		}
+		writeRecord(names.toArray(new String[names.size()]));
+
+		int count = 0;
+		if (cursor.moveToFirst()) {
+			do {
+				for (int i = 0; i < columnIndexes.length; i++) {
+					if (i > 0) {
+						out.write(DELIMITER);
+					}
+					int index = columnIndexes[i];
+					if (cursor.isNull(index)) {
+						out.write(NULL);
+					} else if (columnFormats[i] != null) {
+						field(columnFormats[i].format(cursor.getDouble(index)));
+					} else {
+						try {
+							field(cursor.getString(index));
+						} catch (Exception e) {
+							// Colunas que no podem ser lidas como texto (BLOB).
+						}
+					}
+				}
+				out.write(LINE_END);
+				count++;
+			} while (cursor.moveToNext());
+		}
+		return count;
+	}
+
+	/**
+	 * Escreve o cabealho e as colunas das entidades retornadas pelo iterador.
+	 * As classes relacionadas e listas no so exportadas.
+	 *
+	 * @param entities
+	 * @return Quantidade de entidades escritas.
+	 * @throws Exception
+	 */
+	public int entities(Iterator<?> entities) throws Exception {
+		int count = 0;
+		Class<?> entity = null;
+		Field[] fields = null;
+		DecimalFormat[] fieldFormats = null;
+		while (entities.hasNext()) {
+			Object item = entities.next();
+			if (item.getClass() != entity) {
+				entity = item.getClass();
+				fields = getColumns(entity);
+				fieldFormats = new DecimalFormat[fields.length];
+				String[] header = new String[fields.length];
+				for (int i = 0; i < fields.length; i++) {
+					header[i] = fields[i].getName();
+					fieldFormats[i] = getFormat(header[i]);
+				}
+				if (count == 0) {
+					writeRecord(header);
+				}
+			}
+			for (int i = 0; i < fields.length; i++) {
+				if (i > 0) {
+					out.write(DELIMITER);
+				}
+				Object value = fields[i].get(item);
+				if (value == null) {
+					out.write(NULL);
+				} else if (fieldFormats[i] != null && value instanceof Number) {
+					field(fieldFormats[i].format(((Number) value).doubleValue()));
+				} else if ((value instanceof Date) || (value instanceof Calendar)) {
+					field(JpdroidDateUtil.format(value));
+				} else {
+					field(value.toString());
+				}
+			}
+			out.write(LINE_END);
+			count++;
+		}
+		return count;
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private void field(String value) throws IOException {
+		if (value == null) {
+			out.write(NULL);
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == DELIMITER || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		int last = 0;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == '"') {
+				out.write(value, last, i + 1 - last);
+				out.write('"');
+				last = i + 1;
+			}
+		}
+		out.write(value, last, value.length() - last);
+		out.write('"');
+	}
+
+	/**
+	 * Retorna o formato da coluna, criado uma nica vez por exportao.
+	 */
+	private DecimalFormat getFormat(String columnName) {
+		if (formatString == null) {
+			return null;
+		}
+		StringFormat format = formatString.get(columnName);
+		if (format == null) {
+			return null;
+		}
+		DecimalFormat decimalFormat = formats.get(format);
+		if (decimalFormat == null) {
+			DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+			symbols.setGroupingSeparator('.');
+			symbols.setDecimalSeparator(',');
+			decimalFormat = new DecimalFormat(
+					format == StringFormat.R$ ? "R$ #,###.00" : "#,###.00",
+					symbols);
+			formats.put(format, decimalFormat);
+		}
+		return decimalFormat;
+	}
+
+	/**
+	 * Retorna os campos exportados da entidade, na ordem inversa da declarao
+	 * (como nas verses anteriores), sem as classes relacionadas e listas.
+	 */
+	private static Field[] getColumns(Class<?> entity) {
+		synchronized (columns) {
+			Field[] entityColumns = columns.get(entity);
+			if (entityColumns == null) {
+				Field[] declaredFields = entity.getDeclaredFields();
+				List<Field> list = new ArrayList<Field>();
+				for (int i = declaredFields.length - 1; i >= 0; i--) {
+					Field field = declaredFields[i];
+					Class<?> type = field.getType();
+					if (Modifier.isStatic(field.getModifiers())
+							|| field.isSynthetic()
+							|| field.getAnnotation(RelationClass.class) != null
+							|| Collection.class.isAssignableFrom(type)
+							|| type.getAnnotation(Entity.class) != null) {
+						continue;
+					}
+					field.setAccessible(true);
+					list.add(field);
+				}
+				entityColumns = list.toArray(new Field[list.size()]);
+				columns.put(entity, entityColumns);
+			}
+			return entityColumns;
+		}
+	}
+}
@@ -1,34 +1,36 @@
 package br.com.rafael.jpdroid.converters;
 
+import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Date;
 
 import android.annotation.SuppressLint;
+import br.com.rafael.jpdroid.annotations.Temporal;
+import br.com.rafael.jpdroid.enums.TemporalStorage;
 
 public class JpdroidDateUtil {
 
-	@SuppressLint("SimpleDateFormat")
-	@SuppressWarnings("unchecked")
+	public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+	/**
+	 * SimpleDateFormat no  thread-safe, portanto cada thread mantm a sua
+	 * instncia.
+	 */
+	private static final ThreadLocal<SimpleDateFormat> dateFormat = new ThreadLocal<SimpleDateFormat>() {
+		@SuppressLint("SimpleDateFormat")
+		@Override
+		protected SimpleDateFormat initialValue() {
+			return new SimpleDateFormat(PATTERN);
+		}
+	};
+
 	public static <T> T convert(String string, Class<T> type) {
 		try {
 			if(string == null || string.trim().length() == 0){
 				return null;
 			}
-			if (type.getName().equals("java.util.Date")) {
-				SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-				return (T) dateFormat.parse(string);
-
-			}
-			if (type.getName().equals("java.sql.Date")) {
-				return (T) new java.sql.Date(java.sql.Date.parse(string));
-			}
-			if (type.getSimpleName().equals("Calendar")) {
-				SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-				Calendar calendar = Calendar.getInstance();
-				calendar.setTime(dateFormat.parse(string));
-				return (T) calendar;
-			}
+			return convert(dateFormat.get().parse(string).getTime(), type);
 		} catch (Exception e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -36,4 +38,65 @@ public class JpdroidDateUtil {
 		return null;
 	}
 
+	/**
+	 * Converte os milissegundos para o tipo informado.
+	 * 
+	 * @param millis
+	 * @param type
+	 * @return Date, java.sql.Date ou Calendar
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T convert(long millis, Class<T> type) {
+		if (type.getName().equals("java.util.Date")) {
+			return (T) new Date(millis);
+		}
+		if (type.getName().equals("java.sql.Date")) {
+			return (T) new java.sql.Date(millis);
+		}
+		if (type.getSimpleName().equals("Calendar")) {
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTimeInMillis(millis);
+			return (T) calendar;
+		}
+		return null;
+	}
+
+	/**
+	 * Formata a data (Date ou Calendar) no padro yyyy-MM-dd HH:mm:ss.
+	 * 
+	 * @param date
+	 * @return String
+	 */
+	public static String format(Object date) {
+		if (date instanceof Calendar) {
+			date = ((Calendar) date).getTime();
+		}
+		return dateFormat.get().format(date);
+	}
+
+	/**
+	 * Retorna os milissegundos da data (Date ou Calendar).
+	 * 
+	 * @param date
+	 * @return long
+	 */
+	public static long toMillis(Object date) {
+		if (date instanceof Calendar) {
+			return ((Calendar) date).getTimeInMillis();
+		}
+		return ((Date) date).getTime();
+	}
+
+	/**
+	 * Indica se o atributo  armazenado em milissegundos.
+	 * 
+	 * @param field
+	 * @return boolean
+	 */
+	public static boolean isEpochMillis(Field field) {
+		Temporal temporal = field.getAnnotation(Temporal.class);
+		return temporal != null
+				&& temporal.storage() == TemporalStorage.EPOCH_MILLIS;
+	}
+
 }
@@ -0,0 +1,228 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import br.com.rafael.jpdroid.annotations.Dto;
+import br.com.rafael.jpdroid.annotations.DtoField;
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+
+/**
+ * Plano de converso entre uma classe de origem e uma classe de destino. <br>
+ * Os atributos anotados com DtoField, os atributos correspondentes na origem
+ * e no destino, e o tipo dos elementos das listas so resolvidos uma nica vez
+ * por par de classes, e o plano  mantido em cache.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidDtoMappingPlan {
+
+	private static final HashMap<Class<?>, HashMap<Class<?>, JpdroidDtoMappingPlan>> plans = new HashMap<Class<?>, HashMap<Class<?>, JpdroidDtoMappingPlan>>();
+
+	private static final HashMap<Class<?>, Boolean> dtoClasses = new HashMap<Class<?>, Boolean>();
+
+	private final Class<?> source;
+
+	private final Class<?> destination;
+
+	private final Constructor<?> constructor;
+
+	private final Property[] properties;
+
+	/**
+	 * Atributo da origem, atributo do destino e a forma de cpia do valor.
+	 */
+	private static class Property {
+		final Field source;
+		final Field destination;
+		/**
+		 * Tipo dos elementos, quando o atributo  uma lista.
+		 */
+		final Class<?> elementType;
+
+		/**
+		 * ltimo plano utilizado, evitando consultar o cache quando os valores
+		 * so sempre da mesma classe.
+		 */
+		private volatile JpdroidDtoMappingPlan lastPlan;
+
+		Property(Field source, Field destination, Class<?> elementType) {
+			this.source = source;
+			this.destination = destination;
+			this.elementType = elementType;
+		}
+
+		void copy(Object orig, Object dest) throws Exception {
+			Object value = source.get(orig);
+			if (value == null) {
+				return;
+			}
+			if (elementType != null) {
+				List<?> items = (List<?>) value;
+				List<Object> valores = new ArrayList<Object>(items.size());
+				for (Object item : items) {
+					valores.add(item == null ? null : value(item, elementType));
+				}
+				destination.set(dest, valores);
+			} else {
+				destination.set(dest, value(value, destination.getType()));
+			}
+		}
+
+		private Object value(Object value, Class<?> type) throws Exception {
+			Class<?> valueClass = value.getClass();
+			if (type.isPrimitive()) {
+				return value;
+			}
+			if (type.isInstance(value)) {
+				if (isDto(valueClass)) {
+					// Cpia do DTO.
+					return plan(valueClass, valueClass).convert(value);
+				}
+				return value;
+			}
+			// Entidade relacionada convertida para o DTO (ou o inverso).
+			return plan(valueClass, type).convert(value);
+		}
+
+		private JpdroidDtoMappingPlan plan(Class<?> valueClass, Class<?> type)
+				throws JpdroidException {
+			JpdroidDtoMappingPlan plan = lastPlan;
+			if (plan == null || plan.source != valueClass
+					|| plan.destination != type) {
+				plan = get(valueClass, type);
+				lastPlan = plan;
+			}
+			return plan;
+		}
+	}
+
+	/**
+	 * Retorna o plano de converso entre as classes, criando-o quando
+	 * necessrio.
+	 *
+	 * @param source
+	 * @param destination
+	 * @return JpdroidDtoMappingPlan
+	 * @throws JpdroidException
+	 */
+	public static JpdroidDtoMappingPlan get(Class<?> source,
+			Class<?> destination) throws JpdroidException {
+		synchronized (plans) {
+			HashMap<Class<?>, JpdroidDtoMappingPlan> bySource = plans
+					.get(source);
+			if (bySource == null) {
+				bySource = new HashMap<Class<?>, JpdroidDtoMappingPlan>();
+				plans.put(source, bySource);
+			}
+			JpdroidDtoMappingPlan plan = bySource.get(destination);
+			if (plan == null) {
+				plan = new JpdroidDtoMappingPlan(source, destination);
+				bySource.put(destination, plan);
+			}
+			return plan;
+		}
+	}
+
+	private JpdroidDtoMappingPlan(Class<?> source, Class<?> destination)
+			throws JpdroidException {
+		this.source = source;
+		this.destination = destination;
+		try {
+			constructor = destination.getDeclaredConstructor();
+			constructor.setAccessible(true);
+		} catch (NoSuchMethodException e) {
+			throw new JpdroidException("A classe "
+					+ destination.getSimpleName()
+					+ " no possui construtor sem parmetros.");
+		}
+
+		// A classe DTO define os atributos convertidos.
+		Class<?> dto = isDto(source) ? source : destination;
+		List<Property> list = new ArrayList<Property>();
+		for (Class<?> c = dto; c != null && c != Object.class; c = c
+				.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (field.getAnnotation(DtoField.class) == null) {
+					continue;
+				}
+				Field fieldOrigem = getField(source, field.getName());
+				Field fieldDestino = getField(destination, field.getName());
+				Class<?> elementType = null;
+				if (fieldOrigem.getType().isAssignableFrom(List.class)) {
+					elementType = getElementType(fieldDestino);
+				}
+				list.add(new Property(fieldOrigem, fieldDestino, elementType));
+			}
+		}
+		properties = list.toArray(new Property[list.size()]);
+	}
+
+	public Class<?> getSource() {
+		return source;
+	}
+
+	public Class<?> getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Cria o objeto de destino e copia os atributos do objeto de origem.
+	 *
+	 * @param orig
+	 * @return Object
+	 * @throws Exception
+	 */
+	public Object convert(Object orig) throws Exception {
+		Object dest = constructor.newInstance();
+		for (Property property : properties) {
+			property.copy(orig, dest);
+		}
+		return dest;
+	}
+
+	private static boolean isDto(Class<?> type) {
+		synchronized (dtoClasses) {
+			Boolean dto = dtoClasses.get(type);
+			if (dto == null) {
+				dto = type.getAnnotation(Dto.class) != null;
+				dtoClasses.put(type, dto);
+			}
+			return dto;
+		}
+	}
+
+	private static Field getField(Class<?> type, String name)
+			throws JpdroidException {
+		for (Class<?> c = type; c != null && c != Object.class; c = c
+				.getSuperclass()) {
+			try {
+				Field field = c.getDeclaredField(name);
+				field.setAccessible(true);
+				return field;
+			} catch (NoSuchFieldException e) {
+				// Procura na classe ancestral.
+			}
+		}
+		throw new JpdroidException("Atributo " + name
+				+ " no encontrado na classe " + type.getSimpleName() + ".");
+	}
+
+	private static Class<?> getElementType(Field field) throws JpdroidException {
+		Type genericType = field.getGenericType();
+		if (genericType instanceof ParameterizedType) {
+			Type element = ((ParameterizedType) genericType)
+					.getActualTypeArguments()[0];
+			if (element instanceof Class) {
+				return (Class<?>) element;
+			}
+		}
+		throw new JpdroidException("No foi possvel identificar o tipo dos elementos da lista "
+				+ field.getName() + ".");
+	}
+}
@@ -0,0 +1,206 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import android.database.AbstractCursor;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.Ignorable;
+import br.com.rafael.jpdroid.core.JpdroidObjectMap;
+
+/**
+ * Cursor sobre uma lista de entidades, sem copiar os dados. <br>
+ * Os valores so lidos diretamente dos objetos da lista quando solicitados,
+ * atravs dos atributos da entidade mantidos em cache por classe. <br>
+ * Ex: SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this,
+ * R.layout.activity_simple_list, new JpdroidEntityListCursor<Pessoa>(pessoas,
+ * Pessoa.class), columns, to, 0);
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidEntityListCursor<T> extends AbstractCursor {
+
+	private static final HashMap<Class<?>, Field[]> columnFields = new HashMap<Class<?>, Field[]>();
+
+	private static final HashMap<Class<?>, Field[]> allFields = new HashMap<Class<?>, Field[]>();
+
+	private static final HashMap<Class<?>, String[]> columnNames = new HashMap<Class<?>, String[]>();
+
+	private static final HashMap<Class<?>, String[]> allNames = new HashMap<Class<?>, String[]>();
+
+	private final List<T> entities;
+
+	private final Field[] fields;
+
+	private final String[] columns;
+
+	public JpdroidEntityListCursor(List<T> entities, Class<T> entity) {
+		this(entities, entity, true);
+	}
+
+	/**
+	 * @param entities
+	 *            - Lista de entidades. A lista no  copiada, portanto no deve
+	 *            ser alterada enquanto o cursor estiver em uso.
+	 * @param entity
+	 *            - Classe da entidade.
+	 * @param onlyColumn
+	 *            - Quando false, os atributos Ignorable tambm so retornados.
+	 */
+	@SuppressWarnings("unchecked")
+	public JpdroidEntityListCursor(List<T> entities, Class<T> entity,
+			boolean onlyColumn) {
+		this.entities = entities;
+		HashMap<Class<?>, Field[]> fieldCache = onlyColumn ? columnFields
+				: allFields;
+		HashMap<Class<?>, String[]> nameCache = onlyColumn ? columnNames
+				: allNames;
+		synchronized (columnFields) {
+			Field[] cachedFields = fieldCache.get(entity);
+			if (cachedFields == null) {
+				cachedFields = getFields(entity, onlyColumn);
+				fieldCache.put(entity, cachedFields);
+				nameCache.put(entity, onlyColumn ? JpdroidObjectMap
+						.getColumns(entity) : JpdroidObjectMap.getColumns(
+						entity, Column.class, Ignorable.class));
+			}
+			this.fields = cachedFields;
+			this.columns = nameCache.get(entity);
+		}
+	}
+
+	/**
+	 * Retorna os atributos na mesma ordem das colunas de
+	 * JpdroidObjectMap.getColumns: primeiro as colunas e, quando onlyColumn
+	 * for false, os atributos Ignorable.
+	 */
+	private static Field[] getFields(Class<?> entity, boolean onlyColumn) {
+		List<Field> list = new ArrayList<Field>();
+		Field[] declaredFields = entity.getDeclaredFields();
+		addFields(list, declaredFields, Column.class);
+		if (!onlyColumn) {
+			addFields(list, declaredFields, Ignorable.class);
+		}
+		return list.toArray(new Field[list.size()]);
+	}
+
+	private static void addFields(List<Field> list, Field[] declaredFields,
+			Class<? extends Annotation> annotation) {
+		for (Field field : declaredFields) {
+			if (field.getAnnotation(annotation) != null) {
+				field.setAccessible(true);
+				list.add(field);
+			}
+		}
+	}
+
+	/**
+	 * Retorna a entidade da posio atual.
+	 *
+	 * @return T
+	 */
+	public T getEntity() {
+		checkPosition();
+		return entities.get(mPos);
+	}
+
+	private Object getValue(int column) {
+		checkPosition();
+		if (column < 0 || column >= fields.length) {
+			throw new IndexOutOfBoundsException("Coluna " + column
+					+ " inexistente.");
+		}
+		try {
+			return fields[column].get(entities.get(mPos));
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+
+	@Override
+	public int getCount() {
+		return entities.size();
+	}
+
+	@Override
+	public String[] getColumnNames() {
+		return columns;
+	}
+
+	@Override
+	public String getString(int column) {
+		Object value = getValue(column);
+		return value == null ? null : value.toString();
+	}
+
+	@Override
+	public short getShort(int column) {
+		return (short) getLong(column);
+	}
+
+	@Override
+	public int getInt(int column) {
+		return (int) getLong(column);
+	}
+
+	@Override
+	public long getLong(int column) {
+		Object value = getValue(column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1 : 0;
+		}
+		if (value instanceof Date) {
+			return ((Date) value).getTime();
+		}
+		if (value instanceof Calendar) {
+			return ((Calendar) value).getTimeInMillis();
+		}
+		return Long.parseLong(value.toString());
+	}
+
+	@Override
+	public float getFloat(int column) {
+		return (float) getDouble(column);
+	}
+
+	@Override
+	public double getDouble(int column) {
+		Object value = getValue(column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1 : 0;
+		}
+		return Double.parseDouble(value.toString());
+	}
+
+	@Override
+	public byte[] getBlob(int column) {
+		Object value = getValue(column);
+		if (value == null || value instanceof byte[]) {
+			return (byte[]) value;
+		}
+		throw new ClassCastException("A coluna " + columns[column]
+				+ " no  do tipo byte[].");
+	}
+
+	@Override
+	public boolean isNull(int column) {
+		return getValue(column) == null;
+	}
+}
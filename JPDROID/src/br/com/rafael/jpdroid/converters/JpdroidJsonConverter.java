@@ -1,14 +1,16 @@
 package br.com.rafael.jpdroid.converters;
 
+import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.util.Iterator;
 import java.util.List;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import android.database.Cursor;
-import android.util.Log;
 import br.com.rafael.jpdroid.annotations.Entity;
+import br.com.rafael.jpdroid.core.JpdroidEntityIterator;
 
 /**
  * Classe responsvel pela converso objetos para o formato JSON.
@@ -28,6 +30,67 @@ public class JpdroidJsonConverter {
 	  return getJSONArray(cursor);
   }
 
+	/**
+	 * Escreve as linhas do cursor no OutputStream, no formato JSON.
+	 * 
+	 * @param cursor
+	 * @param out
+	 * @return Quantidade de linhas escritas.
+	 * @throws Exception
+	 */
+	public static int write(Cursor cursor, OutputStream out) throws Exception {
+		JpdroidJsonWriter writer = new JpdroidJsonWriter(out);
+		int count = writer.cursor(cursor);
+		writer.flush();
+		return count;
+	}
+
+	/**
+	 * Escreve o objeto ou a lista de objetos no OutputStream, no formato JSON.
+	 * 
+	 * @param entity
+	 * @param out
+	 * @return Quantidade de objetos escritos.
+	 * @throws Exception
+	 */
+	public static int write(Object entity, OutputStream out) throws Exception {
+		if (entity instanceof Iterator) {
+			return write((Iterator<?>) entity, out);
+		}
+		if (entity instanceof List) {
+			return write(((List<?>) entity).iterator(), out);
+		}
+		JpdroidJsonWriter writer = new JpdroidJsonWriter(out);
+		writer.beginArray().entity(entity).endArray();
+		writer.flush();
+		return 1;
+	}
+
+	/**
+	 * Escreve os objetos retornados pelo iterador no OutputStream, no formato
+	 * JSON, sem manter a lista completa em memria. <br>
+	 * Quando o iterador for um JpdroidEntityIterator, o cursor  fechado ao
+	 * final.
+	 * 
+	 * @param entities
+	 * @param out
+	 * @return Quantidade de objetos escritos.
+	 * @throws Exception
+	 */
+	public static int write(Iterator<?> entities, OutputStream out)
+			throws Exception {
+		try {
+			JpdroidJsonWriter writer = new JpdroidJsonWriter(out);
+			int count = writer.entities(entities);
+			writer.flush();
+			return count;
+		} finally {
+			if (entities instanceof JpdroidEntityIterator) {
+				((JpdroidEntityIterator<?>) entities).close();
+			}
+		}
+	}
+
 	public static JSONArray getJSONArray(Object entity) throws Exception {
 		JSONArray resultSet = new JSONArray();
 		JSONObject jsonObject = null;
@@ -77,14 +140,10 @@ public class JpdroidJsonConverter {
 
 					try {
 
-						if (cursor.getString(i) != null) {
-							Log.d("TAG_NAME", cursor.getString(i));
-							rowObject.put(cursor.getColumnName(i), cursor.getString(i));
-						} else {
-							rowObject.put(cursor.getColumnName(i), "");
-						}
+						String value = cursor.getString(i);
+						rowObject.put(cursor.getColumnName(i), value != null ? value : "");
 					} catch (Exception e) {
-						Log.d("TAG_NAME", e.getMessage());
+						// Colunas que no podem ser lidas como texto (BLOB).
 					}
 				}
 
@@ -94,7 +153,6 @@ public class JpdroidJsonConverter {
 			cursor.moveToNext();
 		}
 
-		Log.d("TAG_NAME", resultSet.toString());
 		return resultSet;
 	}
 }
@@ -0,0 +1,257 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+
+/**
+ * L os objetos de um array JSON (ou um nico objeto), um de cada vez, sem
+ * carregar o documento completo em memria. <br>
+ * Apenas os valores simples de cada objeto so retornados: textos, nmeros
+ * (Long ou Double), booleanos e nulos. Objetos e arrays aninhados, como as
+ * classes relacionadas da exportao, so ignorados.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidJsonReader implements IRecordReader {
+
+	private static final Object NESTED = new Object();
+
+	private final Reader in;
+
+	private final char[] buffer = new char[8192];
+
+	private int position;
+
+	private int limit;
+
+	private boolean started;
+
+	private boolean finished;
+
+	private final StringBuilder text = new StringBuilder();
+
+	public JpdroidJsonReader(Reader in) {
+		this.in = in;
+	}
+
+	@Override
+	public Map<String, Object> nextRecord() throws IOException {
+		if (finished) {
+			return null;
+		}
+		int c = nextClean();
+		if (!started) {
+			started = true;
+			if (c == '{') {
+				finished = true;
+				return readObject();
+			}
+			if (c != '[') {
+				throw syntaxError("Esperado '[' ou '{'");
+			}
+			c = nextClean();
+			if (c == ']') {
+				finished = true;
+				return null;
+			}
+		} else if (c == ']') {
+			finished = true;
+			return null;
+		} else if (c == ',') {
+			c = nextClean();
+		} else {
+			throw syntaxError("Esperado ',' ou ']'");
+		}
+		if (c != '{') {
+			throw syntaxError("Esperado '{'");
+		}
+		return readObject();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * L o objeto cujo '{' j foi consumido.
+	 */
+	private Map<String, Object> readObject() throws IOException {
+		Map<String, Object> record = new HashMap<String, Object>();
+		int c = nextClean();
+		if (c == '}') {
+			return record;
+		}
+		while (true) {
+			if (c != '"') {
+				throw syntaxError("Esperado nome entre aspas");
+			}
+			String name = readString();
+			if (nextClean() != ':') {
+				throw syntaxError("Esperado ':'");
+			}
+			Object value = readValue(nextClean());
+			if (value != NESTED) {
+				record.put(name, value);
+			}
+			c = nextClean();
+			if (c == '}') {
+				return record;
+			}
+			if (c != ',') {
+				throw syntaxError("Esperado ',' ou '}'");
+			}
+			c = nextClean();
+		}
+	}
+
+	private Object readValue(int c) throws IOException {
+		switch (c) {
+		case '"':
+			return readString();
+		case '{':
+		case '[':
+			skipNested();
+			return NESTED;
+		case 't':
+			expect("rue");
+			return Boolean.TRUE;
+		case 'f':
+			expect("alse");
+			return Boolean.FALSE;
+		case 'n':
+			expect("ull");
+			return null;
+		default:
+			return readNumber(c);
+		}
+	}
+
+	private Object readNumber(int c) throws IOException {
+		text.setLength(0);
+		boolean decimal = false;
+		while ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.'
+				|| c == 'e' || c == 'E') {
+			decimal |= c == '.' || c == 'e' || c == 'E';
+			text.append((char) c);
+			c = read();
+		}
+		if (c >= 0) {
+			position--;
+		}
+		if (text.length() == 0) {
+			throw syntaxError("Valor invlido");
+		}
+		String number = text.toString();
+		if (!decimal && number.length() < 19) {
+			return Long.valueOf(number);
+		}
+		return Double.valueOf(number);
+	}
+
+	/**
+	 * L o texto cuja aspa inicial j foi consumida.
+	 */
+	private String readString() throws IOException {
+		text.setLength(0);
+		while (true) {
+			int c = read();
+			if (c < 0) {
+				throw syntaxError("Texto no finalizado");
+			}
+			if (c == '"') {
+				return text.toString();
+			}
+			if (c == '\\') {
+				c = read();
+				switch (c) {
+				case 'n':
+					text.append('\n');
+					break;
+				case 'r':
+					text.append('\r');
+					break;
+				case 't':
+					text.append('\t');
+					break;
+				case 'b':
+					text.append('\b');
+					break;
+				case 'f':
+					text.append('\f');
+					break;
+				case 'u':
+					int code = 0;
+					for (int i = 0; i < 4; i++) {
+						code = (code << 4) | Character.digit(read(), 16);
+					}
+					text.append((char) code);
+					break;
+				default:
+					text.append((char) c);
+				}
+			} else {
+				text.append((char) c);
+			}
+		}
+	}
+
+	/**
+	 * Ignora o objeto ou array cujo primeiro caractere j foi consumido.
+	 */
+	private void skipNested() throws IOException {
+		int depth = 1;
+		while (depth > 0) {
+			int c = read();
+			if (c < 0) {
+				throw syntaxError("Documento incompleto");
+			}
+			if (c == '"') {
+				readString();
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			}
+		}
+	}
+
+	private void expect(String rest) throws IOException {
+		for (int i = 0; i < rest.length(); i++) {
+			if (read() != rest.charAt(i)) {
+				throw syntaxError("Valor invlido");
+			}
+		}
+	}
+
+	private int nextClean() throws IOException {
+		int c = read();
+		while (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == 0xFEFF) {
+			c = read();
+		}
+		if (c < 0) {
+			throw syntaxError("Documento incompleto");
+		}
+		return c;
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+	private IOException syntaxError(String message) {
+		return new IOException("JSON invlido: " + message + ".");
+	}
+}
@@ -0,0 +1,429 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import br.com.rafael.jpdroid.annotations.Entity;
+import br.com.rafael.jpdroid.util.JpdroidBase64;
+
+/**
+ * Escreve documentos JSON diretamente em um OutputStream, sem montar o
+ * documento completo em memria. <br>
+ * Nmeros e booleanos so escritos com o seu tipo, datas no formato
+ * yyyy-MM-dd HH:mm:ss e campos binrios em Base64.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidJsonWriter {
+
+	private static final int EMPTY_ARRAY = 1;
+	private static final int NONEMPTY_ARRAY = 2;
+	private static final int EMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int NONEMPTY_OBJECT = 5;
+
+	private static final HashMap<Class<?>, Field[]> fields = new HashMap<Class<?>, Field[]>();
+
+	private final Writer out;
+
+	private int[] stack = new int[16];
+
+	private int depth = 0;
+
+	private final IdentityHashMap<Object, Object> path = new IdentityHashMap<Object, Object>();
+
+	public JpdroidJsonWriter(OutputStream out) throws IOException {
+		this(new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), 8192));
+	}
+
+	public JpdroidJsonWriter(Writer out) {
+		this.out = out;
+	}
+
+	public JpdroidJsonWriter beginArray() throws IOException {
+		beforeValue();
+		push(EMPTY_ARRAY);
+		out.write('[');
+		return this;
+	}
+
+	public JpdroidJsonWriter endArray() throws IOException {
+		return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+	}
+
+	public JpdroidJsonWriter beginObject() throws IOException {
+		beforeValue();
+		push(EMPTY_OBJECT);
+		out.write('{');
+		return this;
+	}
+
+	public JpdroidJsonWriter endObject() throws IOException {
+		return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+	}
+
+	public JpdroidJsonWriter name(String name) throws IOException {
+		int context = peek();
+		if (context == NONEMPTY_OBJECT) {
+			out.write(',');
+		} else if (context != EMPTY_OBJECT) {
+			throw new IllegalStateException("Nome fora de um objeto JSON.");
+		}
+		stack[depth - 1] = DANGLING_NAME;
+		string(name);
+		out.write(':');
+		return this;
+	}
+
+	public JpdroidJsonWriter value(String value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		beforeValue();
+		string(value);
+		return this;
+	}
+
+	public JpdroidJsonWriter value(long value) throws IOException {
+		beforeValue();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	public JpdroidJsonWriter value(double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return nullValue();
+		}
+		beforeValue();
+		if (value == (long) value && Math.abs(value) < 1e15) {
+			out.write(Long.toString((long) value));
+		} else {
+			out.write(Double.toString(value));
+		}
+		return this;
+	}
+
+	public JpdroidJsonWriter value(boolean value) throws IOException {
+		beforeValue();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	public JpdroidJsonWriter nullValue() throws IOException {
+		beforeValue();
+		out.write("null");
+		return this;
+	}
+
+	/**
+	 * Escreve o valor de acordo com o seu tipo. Entidades so escritas como
+	 * objetos e listas como arrays.
+	 *
+	 * @param value
+	 * @return JpdroidJsonWriter
+	 * @throws Exception
+	 */
+	public JpdroidJsonWriter value(Object value) throws Exception {
+		if (value == null) {
+			nullValue();
+		} else if (value instanceof String) {
+			value((String) value);
+		} else if (value instanceof Boolean) {
+			value(((Boolean) value).booleanValue());
+		} else if ((value instanceof Double) || (value instanceof Float)
+				|| (value instanceof java.math.BigDecimal)) {
+			value(((Number) value).doubleValue());
+		} else if (value instanceof Number) {
+			value(((Number) value).longValue());
+		} else if ((value instanceof Date) || (value instanceof Calendar)) {
+			value(JpdroidDateUtil.format(value));
+		} else if (value instanceof byte[]) {
+			value(JpdroidBase64.encode((byte[]) value));
+		} else if (value instanceof Bitmap) {
+			value(JpdroidBase64.encode((Bitmap) value));
+		} else if (value instanceof Enum) {
+			value(((Enum<?>) value).name());
+		} else if (value instanceof Collection) {
+			beginArray();
+			for (Object item : (Collection<?>) value) {
+				if (item == null || !path.containsKey(item)) {
+					value(item);
+				}
+			}
+			endArray();
+		} else if (value.getClass().getAnnotation(Entity.class) != null) {
+			entity(value);
+		} else {
+			value(value.toString());
+		}
+		return this;
+	}
+
+	/**
+	 * Escreve os campos preenchidos da entidade como um objeto JSON. <br>
+	 * Entidades relacionadas so escritas como um array de um elemento e
+	 * referncias circulares so ignoradas.
+	 *
+	 * @param entity
+	 * @return JpdroidJsonWriter
+	 * @throws Exception
+	 */
+	public JpdroidJsonWriter entity(Object entity) throws Exception {
+		if (path.containsKey(entity)) {
+			return nullValue();
+		}
+		path.put(entity, entity);
+		beginObject();
+		for (Field field : getFields(entity.getClass())) {
+			Object child = field.get(entity);
+			if (child == null || path.containsKey(child)) {
+				continue;
+			}
+			name(field.getName());
+			if (!(child instanceof Collection)
+					&& child.getClass().getAnnotation(Entity.class) != null) {
+				beginArray();
+				entity(child);
+				endArray();
+			} else {
+				value(child);
+			}
+		}
+		endObject();
+		path.remove(entity);
+		return this;
+	}
+
+	/**
+	 * Escreve as entidades retornadas pelo iterador como um array JSON.
+	 *
+	 * @param entities
+	 * @return Quantidade de entidades escritas.
+	 * @throws Exception
+	 */
+	public int entities(Iterator<?> entities) throws Exception {
+		int count = 0;
+		beginArray();
+		while (entities.hasNext()) {
+			entity(entities.next());
+			count++;
+		}
+		endArray();
+		return count;
+	}
+
+	/**
+	 * Escreve as linhas do cursor como um array de objetos JSON. <br>
+	 * Valores numricos em sua forma cannica so escritos como nmeros.
+	 *
+	 * @param cursor
+	 * @return Quantidade de linhas escritas.
+	 * @throws IOException
+	 */
+	public int cursor(Cursor cursor) throws IOException {
+		int count = 0;
+		int totalColumn = cursor.getColumnCount();
+		String[] columns = new String[totalColumn];
+		for (int i = 0; i < totalColumn; i++) {
+			columns[i] = cursor.getColumnName(i);
+		}
+		beginArray();
+		if (cursor.moveToFirst()) {
+			do {
+				beginObject();
+				for (int i = 0; i < totalColumn; i++) {
+					if (columns[i] != null) {
+						name(columns[i]);
+						cursorValue(cursor, i);
+					}
+				}
+				endObject();
+				count++;
+			} while (cursor.moveToNext());
+		}
+		endArray();
+		return count;
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private void cursorValue(Cursor cursor, int index) throws IOException {
+		if (cursor.isNull(index)) {
+			nullValue();
+			return;
+		}
+		String value;
+		try {
+			value = cursor.getString(index);
+		} catch (Exception e) {
+			value(JpdroidBase64.encode(cursor.getBlob(index)));
+			return;
+		}
+		if (isLong(value)) {
+			value(Long.parseLong(value));
+		} else if (isDouble(value)) {
+			beforeValue();
+			out.write(value);
+		} else {
+			value(value);
+		}
+	}
+
+	/**
+	 * Indica se o texto  um inteiro na forma cannica (sem zeros  esquerda),
+	 * para que cdigos como "00123" continuem sendo escritos como texto.
+	 */
+	private static boolean isLong(String value) {
+		int length = value.length();
+		if (length == 0 || length > 18) {
+			return false;
+		}
+		int start = value.charAt(0) == '-' ? 1 : 0;
+		if (start == length
+				|| (value.charAt(start) == '0' && length > start + 1)) {
+			return false;
+		}
+		for (int i = start; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDouble(String value) {
+		int dot = value.indexOf('.');
+		if (dot <= 0 || dot == value.length() - 1) {
+			return false;
+		}
+		String integer = value.substring(0, dot);
+		if (!isLong(integer) && !"-0".equals(integer)) {
+			return false;
+		}
+		for (int i = dot + 1; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Field[] getFields(Class<?> entity) {
+		synchronized (fields) {
+			Field[] entityFields = fields.get(entity);
+			if (entityFields == null) {
+				List<Field> list = new ArrayList<Field>();
+				for (Field field : entity.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())
+							&& !field.isSynthetic()) {
+						field.setAccessible(true);
+						list.add(field);
+					}
+				}
+				entityFields = list.toArray(new Field[list.size()]);
+				fields.put(entity, entityFields);
+			}
+			return entityFields;
+		}
+	}
+
+	private void beforeValue() throws IOException {
+		if (depth == 0) {
+			return;
+		}
+		int context = stack[depth - 1];
+		if (context == NONEMPTY_ARRAY) {
+			out.write(',');
+		} else if (context == EMPTY_ARRAY) {
+			stack[depth - 1] = NONEMPTY_ARRAY;
+		} else if (context == DANGLING_NAME) {
+			stack[depth - 1] = NONEMPTY_OBJECT;
+		} else {
+			throw new IllegalStateException("Valor sem nome dentro de um objeto JSON.");
+		}
+	}
+
+	private void push(int context) {
+		if (depth == stack.length) {
+			int[] newStack = new int[depth * 2];
+			System.arraycopy(stack, 0, newStack, 0, depth);
+			stack = newStack;
+		}
+		stack[depth++] = context;
+	}
+
+	private int peek() {
+		if (depth == 0) {
+			throw new IllegalStateException("Documento JSON no iniciado.");
+		}
+		return stack[depth - 1];
+	}
+
+	private JpdroidJsonWriter close(int empty, int nonempty, char bracket)
+			throws IOException {
+		int context = peek();
+		if (context != empty && context != nonempty) {
+			throw new IllegalStateException("Estrutura JSON invlida.");
+		}
+		depth--;
+		out.write(bracket);
+		return this;
+	}
+
+	private void string(String value) throws IOException {
+		out.write('"');
+		int length = value.length();
+		int last = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String replacement;
+			if (c == '"') {
+				replacement = "\\\"";
+			} else if (c == '\\') {
+				replacement = "\\\\";
+			} else if (c == '\n') {
+				replacement = "\\n";
+			} else if (c == '\r') {
+				replacement = "\\r";
+			} else if (c == '\t') {
+				replacement = "\\t";
+			} else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+				replacement = String.format("\\u%04x", (int) c);
+			} else {
+				continue;
+			}
+			if (last < i) {
+				out.write(value, last, i - last);
+			}
+			out.write(replacement);
+			last = i + 1;
+		}
+		if (last < length) {
+			out.write(value, last, length - last);
+		}
+		out.write('"');
+	}
+}
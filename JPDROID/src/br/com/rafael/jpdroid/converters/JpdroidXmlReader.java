@@ -0,0 +1,108 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+
+/**
+ * L os registros de um documento XML atravs de um XmlPullParser, um de cada
+ * vez. <br>
+ * Cada elemento com o nome da entidade (ou Registro, na exportao de
+ * cursores)  um registro, e seus elementos filhos simples so os valores.
+ * Elementos com filhos, como as classes relacionadas da exportao, so
+ * ignorados.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidXmlReader implements IRecordReader {
+
+	private static final String CURSOR_RECORD = "Registro";
+
+	private final InputStream in;
+
+	private final XmlPullParser parser;
+
+	private final String recordTag;
+
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * @param in
+	 * @param recordTag
+	 *            - Nome do elemento de cada registro, normalmente o nome da
+	 *            entidade.
+	 * @throws Exception
+	 */
+	public JpdroidXmlReader(InputStream in, String recordTag) throws Exception {
+		this.in = in;
+		this.recordTag = recordTag;
+		// Disponvel tambm fora do Android, com o kXML no classpath.
+		this.parser = XmlPullParserFactory.newInstance().newPullParser();
+		parser.setInput(in, "UTF-8");
+	}
+
+	@Override
+	public Map<String, Object> nextRecord() throws Exception {
+		int event = parser.getEventType();
+		while (event != XmlPullParser.END_DOCUMENT) {
+			if (event == XmlPullParser.START_TAG
+					&& (recordTag.equals(parser.getName()) || CURSOR_RECORD
+							.equals(parser.getName()))) {
+				Map<String, Object> record = readRecord();
+				parser.next();
+				return record;
+			}
+			event = parser.next();
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws Exception {
+		in.close();
+	}
+
+	/**
+	 * L os elementos filhos do registro atual, at o fechamento do registro.
+	 */
+	private Map<String, Object> readRecord() throws Exception {
+		Map<String, Object> record = new HashMap<String, Object>();
+		int recordDepth = parser.getDepth();
+		String name = null;
+		boolean nested = false;
+		while (true) {
+			int event = parser.next();
+			int depth = parser.getDepth();
+			if (event == XmlPullParser.END_DOCUMENT) {
+				throw new Exception("XML invlido: registro no finalizado.");
+			} else if (event == XmlPullParser.START_TAG) {
+				if (depth == recordDepth + 1) {
+					name = parser.getName();
+					nested = false;
+					text.setLength(0);
+				} else {
+					nested = true;
+				}
+			} else if (event == XmlPullParser.TEXT) {
+				if (depth == recordDepth + 1 && name != null) {
+					text.append(parser.getText());
+				}
+			} else if (event == XmlPullParser.END_TAG) {
+				if (depth == recordDepth) {
+					return record;
+				}
+				if (depth == recordDepth + 1) {
+					if (!nested) {
+						record.put(name, text.toString());
+					}
+					name = null;
+				}
+			}
+		}
+	}
+}
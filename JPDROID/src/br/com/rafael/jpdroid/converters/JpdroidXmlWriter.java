@@ -0,0 +1,208 @@
+package br.com.rafael.jpdroid.converters;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+import org.xmlpull.v1.XmlSerializer;
+
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.Entity;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.util.JpdroidBase64;
+
+/**
+ * Escreve documentos XML diretamente em um OutputStream atravs de um
+ * XmlSerializer prprio, permitindo exportaes simultneas sem que uma
+ * interfira na outra. <br>
+ * Cada instncia deve ser utilizada por uma nica exportao.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidXmlWriter {
+
+	private static final HashMap<Class<?>, Field[]> fields = new HashMap<Class<?>, Field[]>();
+
+	private final XmlSerializer serializer;
+
+	public JpdroidXmlWriter(OutputStream out) throws IOException {
+		serializer = newSerializer();
+		serializer.setOutput(new BufferedOutputStream(out, 8192), "UTF-8");
+	}
+
+	public JpdroidXmlWriter(Writer out) throws IOException {
+		serializer = newSerializer();
+		serializer.setOutput(out);
+	}
+
+	/**
+	 * Obtido pelo XmlPullParserFactory, disponvel tambm fora do Android.
+	 */
+	private static XmlSerializer newSerializer() throws IOException {
+		try {
+			return XmlPullParserFactory.newInstance().newSerializer();
+		} catch (XmlPullParserException e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+	public void startDocument() throws IOException {
+		serializer.startDocument("UTF-8", true);
+	}
+
+	/**
+	 * Finaliza o documento e descarrega o contedo no OutputStream.
+	 *
+	 * @throws IOException
+	 */
+	public void endDocument() throws IOException {
+		serializer.endDocument();
+		serializer.flush();
+	}
+
+	/**
+	 * Escreve as linhas do cursor como elementos Registro, dentro do elemento
+	 * Cursor quando houver mais de uma linha.
+	 *
+	 * @param cursor
+	 * @return Quantidade de linhas escritas.
+	 * @throws IOException
+	 */
+	public int cursor(Cursor cursor) throws IOException {
+		int totalColumn = cursor.getColumnCount();
+		String[] columns = new String[totalColumn];
+		for (int i = 0; i < totalColumn; i++) {
+			columns[i] = cursor.getColumnName(i);
+		}
+		int count = cursor.getCount();
+		if (count > 1) {
+			serializer.startTag("", "Cursor");
+		}
+		if (cursor.moveToFirst()) {
+			do {
+				serializer.startTag("", "Registro");
+				for (int i = 0; i < totalColumn; i++) {
+					if (columns[i] != null) {
+						String value = null;
+						try {
+							value = cursor.getString(i);
+						} catch (Exception e) {
+							value = JpdroidBase64.encode(cursor.getBlob(i));
+						}
+						serializer.startTag("", columns[i]);
+						serializer.text(value == null ? "" : value);
+						serializer.endTag("", columns[i]);
+					}
+				}
+				serializer.endTag("", "Registro");
+			} while (cursor.moveToNext());
+		}
+		if (count > 1) {
+			serializer.endTag("", "Cursor");
+		}
+		return count;
+	}
+
+	/**
+	 * Escreve as entidades retornadas pelo iterador, dentro do elemento
+	 * List_&lt;Entidade&gt; quando houver mais de uma.
+	 *
+	 * @param entities
+	 * @return Quantidade de entidades escritas.
+	 * @throws Exception
+	 */
+	public int entities(Iterator<?> entities) throws Exception {
+		if (!entities.hasNext()) {
+			return 0;
+		}
+		Object first = entities.next();
+		String listTag = null;
+		if (entities.hasNext()) {
+			listTag = "List_" + first.getClass().getSimpleName();
+			serializer.startTag("", listTag);
+		}
+		entity(first);
+		int count = 1;
+		while (entities.hasNext()) {
+			entity(entities.next());
+			count++;
+		}
+		if (listTag != null) {
+			serializer.endTag("", listTag);
+		}
+		return count;
+	}
+
+	/**
+	 * Escreve as colunas e as classes relacionadas da entidade.
+	 *
+	 * @param entity
+	 * @throws Exception
+	 */
+	public void entity(Object entity) throws Exception {
+		String tag = entity.getClass().getSimpleName();
+		serializer.startTag("", tag);
+		for (Field field : getFields(entity.getClass())) {
+			Object child = field.get(entity);
+			if (child == null) {
+				continue;
+			}
+			if (child instanceof List) {
+				entities(((List<?>) child).iterator());
+			} else if (child.getClass().getAnnotation(Entity.class) != null) {
+				entity(child);
+			} else {
+				serializer.startTag("", field.getName());
+				serializer.text(text(child));
+				serializer.endTag("", field.getName());
+			}
+		}
+		serializer.endTag("", tag);
+	}
+
+	private static String text(Object value) {
+		if ((value instanceof Date) || (value instanceof Calendar)) {
+			return JpdroidDateUtil.format(value);
+		} else if (value instanceof byte[]) {
+			return JpdroidBase64.encode((byte[]) value);
+		} else if (value instanceof Bitmap) {
+			return JpdroidBase64.encode((Bitmap) value);
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Retorna as colunas e classes relacionadas da entidade, obtidas uma nica
+	 * vez por classe.
+	 */
+	private static Field[] getFields(Class<?> entity) {
+		synchronized (fields) {
+			Field[] entityFields = fields.get(entity);
+			if (entityFields == null) {
+				List<Field> list = new ArrayList<Field>();
+				for (Field field : entity.getDeclaredFields()) {
+					if (field.getAnnotation(Column.class) != null
+							|| field.getAnnotation(RelationClass.class) != null) {
+						field.setAccessible(true);
+						list.add(field);
+					}
+				}
+				entityFields = list.toArray(new Field[list.size()]);
+				fields.put(entity, entityFields);
+			}
+			return entityFields;
+		}
+	}
+}
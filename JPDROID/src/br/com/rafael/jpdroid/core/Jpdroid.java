@@ -10,17 +10,23 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import android.annotation.SuppressLint;
 import android.content.ContentValues;
@@ -31,18 +37,28 @@ import android.database.SQLException;
 import android.database.sqlite.SQLiteCursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.database.sqlite.SQLiteStatement;
 import android.os.Environment;
 import android.util.Log;
+import br.com.rafael.jpdroid.annotations.Cacheable;
 import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ExternalBlob;
 import br.com.rafael.jpdroid.annotations.PrimaryKey;
 import br.com.rafael.jpdroid.annotations.RelationClass;
 import br.com.rafael.jpdroid.annotations.ViewColumn;
+import br.com.rafael.jpdroid.converters.JpdroidCsvReader;
 import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
+import br.com.rafael.jpdroid.converters.JpdroidJsonReader;
+import br.com.rafael.jpdroid.converters.JpdroidXmlReader;
+import br.com.rafael.jpdroid.enums.EventType;
+import br.com.rafael.jpdroid.enums.ImportMode;
 import br.com.rafael.jpdroid.enums.RelationType;
 import br.com.rafael.jpdroid.enums.ScriptPath;
 import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.IJpdroidListener;
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+import br.com.rafael.jpdroid.storage.JpdroidAndroidDatabase;
+import br.com.rafael.jpdroid.util.JpdroidLongSet;
 
 /**
  * Classe singleton, responsvel pelas operaes de banco de dados.
@@ -63,12 +79,40 @@ public class Jpdroid {
 
 	private static Jpdroid jpdroid = null;
 
+	/**
+	 * Quantidade de registros efetivados por transao na importao de
+	 * arquivos.
+	 */
+	public static final int IMPORT_BATCH_SIZE = 500;
+
+	/**
+	 * Quantidade mxima de chaves em cada clausula IN da excluso por chave
+	 * primria.
+	 */
+	public static final int DELETE_CHUNK_SIZE = 500;
+
 	private String databaseName = "JpdroidDB.db";
 
 	private CursorFactory factory;
 
 	private int databaseVersion = 1;
 
+	private JpdroidBlobStore blobStore;
+
+	private JpdroidSession session;
+
+	private JpdroidQueryCache queryCache;
+
+	private JpdroidQueryDiagnostics queryDiagnostics;
+
+	private final List<IJpdroidListener> listeners = new CopyOnWriteArrayList<IJpdroidListener>();
+
+	private JpdroidDirtyTracker dirtyTracker = new JpdroidDirtyTracker();
+
+	private HashMap<Class<?>, String> viewColumnsProjection = new HashMap<Class<?>, String>();
+
+	private String prebuiltDatabase;
+
 	/**
 	 * Retorna instncia da classe Jpdroid.
 	 * 
@@ -173,6 +217,19 @@ public class Jpdroid {
 		this.databaseVersion = databaseVersion;
 	}
 
+	/**
+	 * Banco de dados pr-gerado (JpdroidDatabaseBuilder) na pasta Assets. O
+	 * arquivo  copiado ao abrir a conexo somente quando o banco ainda no
+	 * existe, substituindo a criao das tabelas e a importao de scripts na
+	 * primeira execuo. Bancos j existentes so atualizados pelo onUpgrade.
+	 * 
+	 * @param assetName
+	 *            - Nome do arquivo na pasta Assets.
+	 */
+	public void setPrebuiltDatabase(String assetName) {
+		this.prebuiltDatabase = assetName;
+	}
+
 	/**
 	 * Retorna instncia do SQLiteDatabase.
 	 * 
@@ -182,6 +239,20 @@ public class Jpdroid {
 		return database;
 	}
 
+	/**
+	 * Retorna o repositrio de arquivos utilizado pelas colunas anotadas com
+	 * ExternalBlob. Os arquivos so gravados no diretrio interno da
+	 * aplicao.
+	 * 
+	 * @return
+	 */
+	public JpdroidBlobStore getBlobStore() {
+		if (blobStore == null) {
+			blobStore = new JpdroidBlobStore(getContext().getFilesDir());
+		}
+		return blobStore;
+	}
+
 	/**
 	 * Abre conexo com o banco de dados.
 	 * 
@@ -195,6 +266,10 @@ public class Jpdroid {
 			try {
 				validar();
 
+				if (prebuiltDatabase != null) {
+					installPrebuiltDatabase();
+				}
+
 				if (dbHelper == null) {
 					dbHelper = new JpdroidDbHelper(getContext(),
 							getDatabaseName(), factory, databaseVersion);
@@ -202,7 +277,7 @@ public class Jpdroid {
 
 				database = dbHelper.getWritableDatabase();
 
-				transaction = new JpdroidTransaction(database);
+				transaction = new JpdroidTransaction(database, this);
 
 				if (!database.isReadOnly()) {
 					database.execSQL("PRAGMA foreign_keys = ON;");
@@ -215,15 +290,305 @@ public class Jpdroid {
 		}
 	}
 
+	/**
+	 * Copia o banco pr-gerado para um arquivo temporrio e, somente se a
+	 * verso do arquivo corresponder a databaseVersion, o renomeia para o
+	 * arquivo do banco de dados. Um banco existente nunca  substitudo.
+	 */
+	private void installPrebuiltDatabase() {
+		File target = getContext().getDatabasePath(databaseName);
+		if (target.exists()) {
+			return;
+		}
+		long start = System.nanoTime();
+		String error = null;
+		File tmp = new File(target.getPath() + ".tmp");
+		try {
+			target.getParentFile().mkdirs();
+			InputStream in = getContext().getAssets().open(prebuiltDatabase);
+			try {
+				FileOutputStream out = new FileOutputStream(tmp);
+				try {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) > 0) {
+						out.write(buffer, 0, read);
+					}
+					out.getFD().sync();
+				} finally {
+					out.close();
+				}
+			} finally {
+				in.close();
+			}
+			int version = getUserVersion(tmp);
+			if (version != databaseVersion) {
+				throw new JpdroidException("O banco " + prebuiltDatabase
+						+ " possui a verso " + version + ", esperada "
+						+ databaseVersion + ".");
+			}
+			new File(target.getPath() + "-journal").delete();
+			new File(target.getPath() + "-wal").delete();
+			new File(target.getPath() + "-shm").delete();
+			if (!tmp.renameTo(target)) {
+				throw new JpdroidException("No foi possvel copiar o banco "
+						+ prebuiltDatabase + ".");
+			}
+		} catch (Exception e) {
+			error = e.getMessage();
+			Log.w("Erro installPrebuiltDatabase()", error);
+		} finally {
+			tmp.delete();
+			fire(EventType.IMPORT, prebuiltDatabase, null, start, -1, -1,
+					error);
+		}
+	}
+
+	/**
+	 * L a verso (user_version) diretamente do cabealho do arquivo, sem
+	 * abrir o banco de dados.
+	 * 
+	 * @param file
+	 * @return int - Verso ou -1 quando o arquivo no  um banco SQLite.
+	 */
+	private static int getUserVersion(File file) {
+		try {
+			RandomAccessFile header = new RandomAccessFile(file, "r");
+			try {
+				if (header.length() < 100) {
+					return -1;
+				}
+				header.seek(60);
+				return header.readInt();
+			} finally {
+				header.close();
+			}
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
 	/**
 	 * Fecha conexo com o banco de dados.
 	 */
 	public void close() {
+		if (session != null) {
+			session.close();
+		}
 		if (isOpen()) {
 			dbHelper.close();
 		}
 	}
 
+	/**
+	 * Abre uma sesso (unidade de trabalho). Enquanto a sesso estiver aberta
+	 * cada registro  representado por uma nica instncia e as classes
+	 * relacionadas j carregadas so reutilizadas. A sesso  limpa ao
+	 * efetivar a transao ou ao ser fechada.
+	 * 
+	 * @return JpdroidSession
+	 */
+	public JpdroidSession openSession() {
+		if (session != null) {
+			session.close();
+		}
+		session = new JpdroidSession(this);
+		return session;
+	}
+
+	/**
+	 * Retorna a transao da conexo aberta ou null.
+	 */
+	JpdroidTransaction getTransaction() {
+		return transaction;
+	}
+
+	/**
+	 * Retorna a sesso aberta ou null.
+	 * 
+	 * @return
+	 */
+	public JpdroidSession getSession() {
+		return session;
+	}
+
+	void closeSession(JpdroidSession closed) {
+		if (session == closed) {
+			session = null;
+		}
+	}
+
+	/**
+	 * Habilita o cache de consultas para as entidades anotadas com
+	 * Cacheable. As entradas so removidas sempre que as tabelas consultadas
+	 * forem alteradas pelo Jpdroid.
+	 * 
+	 * @param maxEntries
+	 *            - Quantidade mxima de consultas mantidas no cache.
+	 */
+	public void enableQueryCache(int maxEntries) {
+		queryCache = new JpdroidQueryCache(maxEntries);
+	}
+
+	/**
+	 * Desabilita o cache de consultas.
+	 */
+	public void disableQueryCache() {
+		queryCache = null;
+	}
+
+	/**
+	 * Retorna o cache de consultas, com as estatsticas de acertos e falhas,
+	 * ou null quando o cache no estiver habilitado.
+	 * 
+	 * @return
+	 */
+	public JpdroidQueryCache getQueryCache() {
+		return queryCache;
+	}
+
+	/**
+	 * Registra um listener para receber os eventos das consultas, gravaes,
+	 * transaes, importaes, exportaes e do cache de consultas. <br>
+	 * Ex: jpdroid.addListener(new JpdroidSlowQueryLog(100));
+	 * 
+	 * @param listener
+	 */
+	public void addListener(IJpdroidListener listener) {
+		if (!listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+	}
+
+	public void removeListener(IJpdroidListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Envia o evento aos listeners registrados. O sql  convertido para o
+	 * formato da consulta apenas quando existir algum listener.
+	 * 
+	 * @param type
+	 * @param table
+	 * @param sql
+	 * @param start
+	 *            - Incio da operao (System.nanoTime()).
+	 * @param rowsAffected
+	 * @param rowsMapped
+	 * @param error
+	 */
+	void fire(EventType type, String table, String sql, long start,
+			int rowsAffected, int rowsMapped, String error) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		JpdroidEvent event = new JpdroidEvent(type, table, sql == null ? null
+				: JpdroidQueryDiagnostics.shape(sql), System.nanoTime()
+				- start, rowsAffected, rowsMapped, error);
+		for (IJpdroidListener listener : listeners) {
+			try {
+				listener.onEvent(event);
+			} catch (Exception e) {
+				Log.e("Erro onEvent()", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Envia o evento da consulta. A quantidade de registros  obtida do
+	 * cursor apenas quando existir algum listener, executando a consulta
+	 * neste momento.
+	 */
+	private Cursor queried(Cursor cursor, String table, String sql, long start) {
+		if (!listeners.isEmpty()) {
+			fire(EventType.QUERY, table, sql, start, -1, cursor.getCount(),
+					null);
+		}
+		return cursor;
+	}
+
+	/**
+	 * Habilita o diagnstico das consultas geradas pelo retrieve, iterate,
+	 * createQuery e pelo carregamento das classes relacionadas. Cada formato
+	 * de consulta  analisado uma nica vez com EXPLAIN QUERY PLAN. <br>
+	 * Destinado a builds de depurao.
+	 * 
+	 * @param rowThreshold
+	 *            - Quantidade mnima de registros para que a varredura
+	 *            completa de uma tabela seja sinalizada.
+	 */
+	public void enableQueryDiagnostics(int rowThreshold) {
+		queryDiagnostics = new JpdroidQueryDiagnostics(rowThreshold);
+	}
+
+	/**
+	 * Desabilita o diagnstico de consultas.
+	 */
+	public void disableQueryDiagnostics() {
+		queryDiagnostics = null;
+	}
+
+	/**
+	 * Retorna o relatrio do diagnstico de consultas, com os planos de
+	 * execuo e os ndices sugeridos, ou null quando o diagnstico no
+	 * estiver habilitado. <br>
+	 * Ex: Log.d("Jpdroid", jpdroid.getQueryReport().toString());
+	 * 
+	 * @return JpdroidQueryReport
+	 */
+	public JpdroidQueryReport getQueryReport() {
+		if (queryDiagnostics == null) {
+			return null;
+		}
+		List<Class<?>> entities = new ArrayList<Class<?>>();
+		for (String className : entidades.values()) {
+			try {
+				entities.add(Class.forName(className));
+			} catch (ClassNotFoundException e) {
+				Log.e("Erro getQueryReport()", e.getMessage());
+			}
+		}
+		return queryDiagnostics.getReport(database, entities);
+	}
+
+	private void diagnose(String sql) {
+		if (queryDiagnostics != null) {
+			queryDiagnostics.analyze(database, sql);
+		}
+	}
+
+	/**
+	 * O cache no  utilizado enquanto existir uma sesso aberta, para que as
+	 * instncias da sesso no sejam compartilhadas, nem dentro de uma
+	 * transao, cujos dados ainda podem ser desfeitos.
+	 * 
+	 * @param entity
+	 * @return
+	 */
+	private boolean isCacheable(Class<?> entity) {
+		return queryCache != null && session == null
+				&& !database.inTransaction()
+				&& entity.getAnnotation(Cacheable.class) != null;
+	}
+
+	void invalidateCache(String table) {
+		if (queryCache != null) {
+			queryCache.invalidate(table);
+		}
+	}
+
+	private void invalidateCacheFor(String sql) {
+		if (queryCache != null) {
+			queryCache.invalidateFor(sql);
+		}
+	}
+
+	private void invalidateCache() {
+		if (queryCache != null) {
+			queryCache.invalidateAll();
+		}
+	}
+
 	/**
 	 * Restaura o banco de dados a partir do arquivo de backup
 	 * ("backupJpdroid.jpdroid") criado no carto sd. Ateno: Este mtodo ir
@@ -258,6 +623,7 @@ public class Jpdroid {
 			if (file.exists()) {
 
 				dbHelper.regenerateDB(database);
+				invalidateCache();
 				retorno = importSqlScript(ScriptPath.SdCard, fileName);
 				database.execSQL("PRAGMA foreign_keys = ON;");
 			}else{
@@ -279,6 +645,7 @@ public class Jpdroid {
 			dbHelper.createTable(database, entity);
 
 			dbHelper.setDropTable(false);
+			invalidateCache();
 		} catch (JpdroidException e) {
 			e.printStackTrace();
 		}
@@ -333,6 +700,14 @@ public class Jpdroid {
 	 * @return
 	 */
 	public int exportDbScript(File file) {
+		long start = System.nanoTime();
+		int retorno = writeDbScript(file);
+		fire(EventType.EXPORT, file.getName(), null, start, -1, -1,
+				retorno == 1 ? null : "Falha na exportao.");
+		return retorno;
+	}
+
+	private int writeDbScript(File file) {
 
 		try {
 			StringBuilder arquivo = new StringBuilder();
@@ -485,6 +860,7 @@ public class Jpdroid {
 				dst.transferFrom(src, 0, src.size());
 				src.close();
 				dst.close();
+				invalidateCache();
 
 			} else {
 				return 0;
@@ -516,8 +892,16 @@ public class Jpdroid {
 	 * @param backupDB
 	 * @return
 	 */
-	@SuppressWarnings("resource")
 	public int exportDbFile(File backupDB) {
+		long start = System.nanoTime();
+		int retorno = copyDbFile(backupDB);
+		fire(EventType.EXPORT, backupDB.getName(), null, start, -1, -1,
+				retorno == 1 ? null : "Falha na exportao.");
+		return retorno;
+	}
+
+	@SuppressWarnings("resource")
+	private int copyDbFile(File backupDB) {
 		try {
 
 			File data = Environment.getDataDirectory();
@@ -571,16 +955,25 @@ public class Jpdroid {
 	 */
 	public int delete(String table, String whereClause, String[] whereArgs) {
 		int retorno = 0;
+		long start = System.nanoTime();
+		String error = null;
 		try {
 			transaction.begin();
 			retorno = database.delete(table, whereClause, whereArgs);
 			transaction.commit();
+			if (session != null) {
+				session.evict(table);
+			}
+			invalidateCache(table);
 		} catch (Exception e) {
-			transaction.end();
+			error = e.getMessage();
 			Log.e("Erro Deletar", e.getMessage());
 		} finally {
 			transaction.end();
 		}
+		fire(EventType.DELETE, table, "DELETE FROM " + table
+				+ (whereClause == null || whereClause.length() == 0 ? ""
+						: " WHERE " + whereClause), start, retorno, -1, error);
 		return retorno;
 	}
 
@@ -598,6 +991,101 @@ public class Jpdroid {
 
 	}
 
+	/**
+	 * Deleta o registro da entidade pela chave primria.
+	 * 
+	 * @param entity
+	 * @param id
+	 * @return Quantidade de registros excludos ou -1 em caso de erro.
+	 */
+	public int deleteById(Class<?> entity, long id) {
+		return deleteByIds(entity, new long[] { id });
+	}
+
+	/**
+	 * Deleta os registros da entidade pelas chaves primrias, em uma nica
+	 * transao. As chaves so excludas em lotes de DELETE_CHUNK_SIZE.
+	 * 
+	 * @param entity
+	 * @param ids
+	 * @return Quantidade de registros excludos ou -1 em caso de erro.
+	 */
+	public int deleteByIds(Class<?> entity, long[] ids) {
+		if (ids == null || ids.length == 0) {
+			return 0;
+		}
+		String table = entity.getSimpleName();
+		String pk = getPrimaryKeyColumn(entity);
+		int retorno = 0;
+		long start = System.nanoTime();
+		String error = null;
+		try {
+			transaction.begin();
+			for (int i = 0; i < ids.length; i += DELETE_CHUNK_SIZE) {
+				int end = Math.min(ids.length, i + DELETE_CHUNK_SIZE);
+				StringBuilder whereClause = new StringBuilder(pk)
+						.append(" IN (");
+				for (int j = i; j < end; j++) {
+					if (j > i) {
+						whereClause.append(',');
+					}
+					whereClause.append(ids[j]);
+				}
+				whereClause.append(')');
+				retorno += database.delete(table, whereClause.toString(),
+						null);
+			}
+			transaction.commit();
+			if (session != null) {
+				session.evict(table);
+			}
+			invalidateCache(table);
+		} catch (Exception e) {
+			retorno = -1;
+			error = e.getMessage();
+			Log.e("Erro deleteByIds()", e.getMessage());
+		} finally {
+			transaction.end();
+		}
+		fire(EventType.DELETE, table, "DELETE FROM " + table + " WHERE " + pk
+				+ " IN (?)", start, retorno, -1, error);
+		return retorno;
+	}
+
+	/**
+	 * Retorna o nome da coluna chave primria da entidade.
+	 */
+	private static String getPrimaryKeyColumn(Class<?> entity) {
+		Field fieldPk = getFieldByAnnotation(entity, PrimaryKey.class);
+		if (fieldPk == null) {
+			return "_id";
+		}
+		Column column = fieldPk.getAnnotation(Column.class);
+		return column == null || "".equals(column.name()) ? fieldPk
+				.getName() : column.name();
+	}
+
+	/**
+	 * Retorna a chave primria do objeto ou do registro atual do cursor, ou 0
+	 * quando no estiver preenchida.
+	 */
+	private static long getPrimaryKeyValue(Class<?> entity, Object object)
+			throws Exception {
+		if (object instanceof Cursor) {
+			Cursor cursor = (Cursor) object;
+			int index = cursor.getColumnIndex(getPrimaryKeyColumn(entity));
+			return index < 0 || cursor.isNull(index) ? 0 : cursor
+					.getLong(index);
+		}
+		Field fieldPk = getFieldByAnnotation(entity, PrimaryKey.class);
+		if (fieldPk == null) {
+			return 0;
+		}
+		fieldPk.setAccessible(true);
+		Object value = fieldPk.get(object);
+		return value instanceof Number ? ((Number) value).longValue() : 0;
+	}
+
 	/**
 	 * Deleta registro referente a instncia do objeto.
 	 * 
@@ -606,6 +1094,42 @@ public class Jpdroid {
 	public void delete(Object entity) {
 
 		delete(entity.getClass(), entity);
+		dirtyTracker.untrack(entity);
+	}
+
+	/**
+	 * Indica se a entidade possui alteraes que ainda no foram gravadas.
+	 * Entidades que no foram carregadas ou gravadas pelo Jpdroid so sempre
+	 * consideradas alteradas.
+	 * 
+	 * @param entity
+	 * @return boolean
+	 */
+	public boolean isDirty(Object entity) {
+		return dirtyTracker.isDirty(entity);
+	}
+
+	/**
+	 * Registra os valores da entidade. Dentro de uma transao o registro s
+	 *  mantido se ela for efetivada.
+	 * 
+	 * @param entity
+	 */
+	private void track(Object entity) {
+		if (database.inTransaction()) {
+			dirtyTracker.trackPending(entity);
+		} else {
+			dirtyTracker.track(entity);
+		}
+	}
+
+	/**
+	 * Chamado pelo JpdroidTransaction ao finalizar a transao mais externa.
+	 * 
+	 * @param committed
+	 */
+	void transactionEnded(boolean committed) {
+		dirtyTracker.endTransaction(committed);
 	}
 
 	/**
@@ -613,18 +1137,38 @@ public class Jpdroid {
 	 * 
 	 * @param entity
 	 * @param object
-	 *            - Pode ser uma lista de objetos ou um cursor.
+	 *            - Pode ser uma lista de objetos ou um cursor. Quando a chave
+	 *            primria estiver preenchida a excluso  realizada apenas
+	 *            pela chave.
 	 * @return 1:Sucesso, -1:Erro, 0:Falha
 	 */
 	public int delete(Class<?> entity, Object object) {
 
 		int retorno = 0;
 		try {
+			long id;
 			if (object instanceof List) {
+				long[] ids = new long[((List<?>) object).size()];
+				int count = 0;
 				for (Object item : ((List<?>) object)) {
-					delete(item);
+					id = getPrimaryKeyValue(item.getClass(), item);
+					if (id > 0 && item.getClass() == entity) {
+						ids[count++] = id;
+						dirtyTracker.untrack(item);
+					} else {
+						delete(item);
+					}
+				}
+				if (count > 0) {
+					long[] chunk = new long[count];
+					System.arraycopy(ids, 0, chunk, 0, count);
+					if (deleteByIds(entity, chunk) < 0) {
+						return -1;
+					}
 				}
 				retorno = 1;
+			} else if ((id = getPrimaryKeyValue(entity, object)) > 0) {
+				retorno = deleteById(entity, id);
 			} else {
 				StringBuilder whereClause = new StringBuilder();
 				List<String> whereArgs = new ArrayList<String>();
@@ -671,8 +1215,16 @@ public class Jpdroid {
 								whereClause.append(columnName + " = ?");
 
 								field.setAccessible(true);
-								whereArgs
-										.add(String.valueOf(field.get(object)));
+								Object value = field.get(object);
+								if (value != null
+										&& JpdroidDateUtil.isEpochMillis(field)) {
+									whereArgs.add(String
+											.valueOf(JpdroidDateUtil
+													.toMillis(value)));
+								} else {
+									whereArgs.add(JpdroidTypeConverters
+											.toArgument(value));
+								}
 							}
 						} catch (Exception e) {
 							e.printStackTrace();
@@ -703,30 +1255,76 @@ public class Jpdroid {
 	private Long insert(Object entity) {
 
 		ContentValues values = getContentvalues(entity);
+		externalizeBlobs(entity.getClass(), values);
 
 		return insert(values, entity.getClass().getSimpleName());
 	}
 
+	/**
+	 * Substitui o contedo das colunas anotadas com ExternalBlob pela
+	 * referncia do arquivo externo, quando o tamanho ultrapassar o limite
+	 * configurado.
+	 * 
+	 * @param entity
+	 * @param values
+	 */
+	void externalizeBlobs(Class<?> entity, ContentValues values) {
+		Field[] fields = entity.getDeclaredFields();
+		for (Field field : fields) {
+			ExternalBlob externalBlob = field.getAnnotation(ExternalBlob.class);
+			Column annotationColumn = field.getAnnotation(Column.class);
+			if (externalBlob == null || annotationColumn == null) {
+				continue;
+			}
+			String columnName = "".equals(annotationColumn.name()) ? field
+					.getName() : annotationColumn.name();
+			byte[] data = values.getAsByteArray(columnName);
+			if (data != null && data.length >= externalBlob.threshold()) {
+				try {
+					values.put(columnName, getBlobStore().store(data));
+				} catch (Exception e) {
+					Log.e("Erro externalizeBlobs()", e.getMessage());
+				}
+			}
+		}
+	}
+
 	private Long insert(ContentValues values, String tableName) {
 
+		long start = System.nanoTime();
 		Long insertId = Long.valueOf(database.insert(tableName, null, values));
+		invalidateCache(tableName);
+		fire(EventType.INSERT, tableName, "INSERT INTO " + tableName, start,
+				insertId.longValue() == -1 ? 0 : 1, -1,
+				insertId.longValue() == -1 ? "Falha na incluso." : null);
 
 		return insertId;
 	}
 
 	/**
-	 * Atualiza registro no banco referente ao objeto.
+	 * Atualiza registro no banco referente ao objeto. Quando a entidade foi
+	 * carregada pelo Jpdroid, apenas as colunas alteradas so gravadas.
 	 * 
 	 * @param entity
 	 *            - Instncia da entidade.
-	 * @return 1:Sucesso, -1:Erro, 0:falhou
+	 * @return 1:Sucesso, -1:Erro, 0:falhou ou no possui alteraes
 	 */
-	private Long update(Object entity) {
+	Long update(Object entity) {
 
 		Long insertId = 0L;
 		try {
 
-			ContentValues values = getContentvalues(entity);
+			List<Field> dirtyFields = dirtyTracker.getDirtyFields(entity);
+			if (dirtyFields != null && dirtyFields.isEmpty()) {
+				return insertId;
+			}
+			ContentValues values = dirtyFields == null ? getContentvalues(entity)
+					: getContentvalues(entity,
+							dirtyFields.toArray(new Field[dirtyFields.size()]));
+			externalizeBlobs(entity.getClass(), values);
+			if (values.size() == 0) {
+				return insertId;
+			}
 
 			StringBuilder whereClause = new StringBuilder();
 			List<String> whereArgs = new ArrayList<String>();
@@ -763,9 +1361,21 @@ public class Jpdroid {
 
 			}
 
-			insertId = Long.valueOf(database.update(entity.getClass().getSimpleName(),
-					values, whereClause.toString(),
-					whereArgs.toArray(new String[whereArgs.size()])));
+			String tableName = entity.getClass().getSimpleName();
+			long start = System.nanoTime();
+			try {
+				insertId = Long.valueOf(database.update(tableName, values,
+						whereClause.toString(),
+						whereArgs.toArray(new String[whereArgs.size()])));
+			} catch (RuntimeException e) {
+				fire(EventType.UPDATE, tableName, "UPDATE " + tableName
+						+ " WHERE " + whereClause, start, 0, -1, e.getMessage());
+				throw e;
+			}
+			fire(EventType.UPDATE, tableName, "UPDATE " + tableName + " WHERE "
+					+ whereClause, start, insertId.intValue(), -1, null);
+			invalidateCache(tableName);
+			track(entity);
 
 		} catch (Exception e) {
 
@@ -802,8 +1412,38 @@ public class Jpdroid {
 			restrictions += " Order By " + orderBy;
 		}
 
-		Cursor cursor = database.rawQuery(
-				"select * from " + entity.getSimpleName() + restrictions, null);
+		String sql = "select * from " + entity.getSimpleName() + restrictions;
+		long start = System.nanoTime();
+		if (isCacheable(entity)) {
+			String cacheKey = JpdroidQueryCache.key("Q:" + sql, null);
+			JpdroidQueryCache.CursorSnapshot cached = (JpdroidQueryCache.CursorSnapshot) queryCache
+					.get(cacheKey);
+			if (cached != null) {
+				fire(EventType.CACHE_HIT, entity.getSimpleName(), sql, start,
+						-1, cached.rows.size(), null);
+				return cached.toCursor();
+			}
+			fire(EventType.CACHE_MISS, entity.getSimpleName(), sql, start, -1,
+					-1, null);
+			diagnose(sql);
+			start = System.nanoTime();
+			Cursor cursor = queried(database.rawQuery(sql, null),
+					entity.getSimpleName(), sql, start);
+			JpdroidQueryCache.CursorSnapshot snapshot = JpdroidQueryCache
+					.snapshot(cursor);
+			if (snapshot != null) {
+				cursor.close();
+				queryCache.put(cacheKey,
+						JpdroidQueryCache.getDependentTables(entity, false),
+						snapshot);
+				return snapshot.toCursor();
+			}
+			return cursor;
+		}
+		diagnose(sql);
+		start = System.nanoTime();
+		Cursor cursor = queried(database.rawQuery(sql, null),
+				entity.getSimpleName(), sql, start);
 		return cursor;
 	}
 
@@ -827,19 +1467,116 @@ public class Jpdroid {
 	}
 
 	/**
-	 * Adiciona as entidades para validao.
+	 * Pesquisa os registros pelas colunas anotadas com FullTextSearch. Cada
+	 * palavra do texto  pesquisada pelo prefixo e os registros so
+	 * ordenados pela quantidade de ocorrncias. <br>
+	 * Ex: createSearchQuery(Pessoa.class, "jo sil")
 	 * 
 	 * @param entity
+	 * @param query
+	 *            - Texto pesquisado.
+	 * @return Cursor
 	 */
-	public void addEntity(Class<?> entity) {
-		try {
-			if (dbHelper == null) {
-				dbHelper = new JpdroidDbHelper(getContext(), getDatabaseName(),
-						factory, databaseVersion);
-			}
-			dbHelper.addClass(entity);
-			entidades.put(entity.getSimpleName().toUpperCase(),
-					entity.getName());
+	public Cursor createSearchQuery(Class<?> entity, String query) {
+		String match = JpdroidFullText.getMatchExpression(query);
+		if (match == null) {
+			return createQuery(entity, "");
+		}
+		return database.rawQuery(
+				JpdroidFullText.getSearchSql(entity, entity.getSimpleName()
+						+ ".*"), new String[] { match });
+	}
+
+	/**
+	 * Pesquisa os registros pelas colunas anotadas com FullTextSearch.
+	 * 
+	 * @param entity
+	 * @param query
+	 *            - Texto pesquisado.
+	 * @return List
+	 */
+	public <T> List<T> search(Class<T> entity, String query) {
+		return search(entity, query, 0, false);
+	}
+
+	/**
+	 * Pesquisa os registros pelas colunas anotadas com FullTextSearch,
+	 * retornando as entidades na ordem de relevncia.
+	 * 
+	 * @param entity
+	 * @param query
+	 *            - Texto pesquisado.
+	 * @param limit
+	 *            - Quantidade mxima de registros, 0 para todos.
+	 * @param fillRelationClass
+	 * @return List
+	 */
+	public <T> List<T> search(Class<T> entity, String query, int limit,
+			boolean fillRelationClass) {
+		String match = JpdroidFullText.getMatchExpression(query);
+		if (match == null) {
+			return retrieve(entity, fillRelationClass);
+		}
+		String sql = JpdroidFullText.getSearchSql(entity, "busca.docid");
+		if (limit > 0) {
+			sql += " LIMIT " + limit;
+		}
+		List<Long> ids = new ArrayList<Long>();
+		Cursor cursor = database.rawQuery(sql, new String[] { match });
+		try {
+			while (cursor.moveToNext()) {
+				ids.add(cursor.getLong(0));
+			}
+		} finally {
+			cursor.close();
+		}
+
+		List<T> entityList = new ArrayList<T>(ids.size());
+		Field fieldPk = getFieldByAnnotation(entity, PrimaryKey.class);
+		if (ids.isEmpty() || fieldPk == null) {
+			return entityList;
+		}
+		fieldPk.setAccessible(true);
+
+		// Os registros so recuperados em blocos e reordenados pela relevncia.
+		HashMap<Long, T> found = new HashMap<Long, T>(ids.size() * 2);
+		for (int i = 0; i < ids.size(); i += 500) {
+			StringBuilder in = new StringBuilder();
+			for (Long id : ids.subList(i, Math.min(i + 500, ids.size()))) {
+				in.append(in.length() == 0 ? "" : ",").append(id);
+			}
+			for (T item : retrieve(entity, fieldPk.getName() + " IN (" + in
+					+ ")", fillRelationClass)) {
+				try {
+					found.put(((Number) fieldPk.get(item)).longValue(), item);
+				} catch (Exception e) {
+					Log.e("Erro search()", e.getMessage());
+				}
+			}
+		}
+		for (Long id : ids) {
+			T item = found.get(id);
+			if (item != null) {
+				entityList.add(item);
+			}
+		}
+		return entityList;
+	}
+
+	/**
+	 * Adiciona as entidades para validao.
+	 * 
+	 * @param entity
+	 */
+	public void addEntity(Class<?> entity) {
+		try {
+			if (dbHelper == null) {
+				dbHelper = new JpdroidDbHelper(getContext(), getDatabaseName(),
+						factory, databaseVersion);
+			}
+			dbHelper.addClass(entity);
+			entidades.put(entity.getSimpleName().toUpperCase(),
+					entity.getName());
 		} catch (Exception e) {
 			Log.e("Erro addEntity()", e.getMessage());
 		}
@@ -924,224 +1661,314 @@ public class Jpdroid {
 	private <T> List<T> retrieve(Class<T> entity, String restrictions,
 			String order, boolean fillRelationClass, Class<?> lastEntity) {
 
-		Object retorno = null;
-		String orderBy = order;
-
-		if (orderBy == null || orderBy.length() == 0) {
-			orderBy = getDefaultOrderBy(entity);
-		}
-
 		List<T> entityList = new ArrayList<T>();
+		Cursor cursor = null;
+		String querySql = null;
+		String error = null;
+		long start = System.nanoTime();
 		try {
-
-			if (restrictions.length() > 0) {
-				restrictions = " where " + restrictions;
-			}
-			if (orderBy != null && orderBy.length() > 0) {
-				restrictions += " Order By " + orderBy;
+			querySql = getRetrieveSql(entity, restrictions, order);
+			String cacheKey = null;
+			if (isCacheable(entity)) {
+				cacheKey = JpdroidQueryCache.key("R:" + fillRelationClass + ":"
+						+ (lastEntity == null ? "" : lastEntity.getName())
+						+ ":" + querySql, null);
+				List<?> cached = (List<?>) queryCache.get(cacheKey);
+				if (cached != null) {
+					for (Object item : JpdroidQueryCache.copy(cached)) {
+						entityList.add(entity.cast(item));
+					}
+					fire(EventType.CACHE_HIT, entity.getSimpleName(),
+							querySql, start, -1, entityList.size(), null);
+					// A consulta no foi executada.
+					querySql = null;
+					return entityList;
+				}
+				fire(EventType.CACHE_MISS, entity.getSimpleName(), querySql,
+						start, -1, -1, null);
 			}
-			String columnName;
-			Cursor cursor = database.rawQuery(
-					"select * from " + entity.getSimpleName() + restrictions,
-					null);
+			diagnose(querySql);
+			start = System.nanoTime();
+			cursor = database.rawQuery(querySql, null);
 			cursor.moveToFirst();
 			if (cursor.getCount() == 0) {
 				// entityList.add(entity.newInstance());
+				cacheResult(cacheKey, entity, fillRelationClass, entityList);
 				return entityList;
 			}
+			Field fieldPk = getFieldByAnnotation(entity, PrimaryKey.class);
+			int pkIndex = fieldPk == null ? -1 : cursor.getColumnIndex(fieldPk
+					.getName());
+			List<Field> relationFields = getRelationFields(entity,
+					fillRelationClass);
+			JpdroidRowMapper<T> mapper = new JpdroidRowMapper<T>(entity,
+					cursor, this);
 			do {
-				retorno = entity.newInstance();
+				entityList.add(readRow(entity, cursor, mapper, pkIndex,
+						relationFields, fillRelationClass, lastEntity, true));
+			} while (cursor.moveToNext());
+			cacheResult(cacheKey, entity, fillRelationClass, entityList);
+		} catch (Exception e) {
+			error = e.getMessage();
+			Log.e("Erro getObjects()", e.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			if (querySql != null) {
+				// Inclui o carregamento das classes relacionadas.
+				fire(EventType.QUERY, entity.getSimpleName(), querySql, start,
+						-1, entityList.size(), error);
+			}
+		}
 
-				Field fieldPk = getFieldByAnnotation(retorno, PrimaryKey.class);
+		return entityList;
+	}
 
-				Field[] fields = entity.getDeclaredFields();
-				for (Field field : fields) {
+	/**
+	 * Retorna um iterador que preenche os objetos  medida que so lidos do
+	 * cursor, sem manter a lista completa em memria. <br>
+	 * O iterador deve ser fechado aps o uso. Os objetos retornados no so
+	 * acompanhados pela verificao de alteraes (isDirty).
+	 * 
+	 * @param entity
+	 * @param restrictions
+	 *            - Clusula where.
+	 * @param order
+	 * @param fillRelationClass
+	 *            - Indica se deve preencher as classes relacionadas.
+	 * @return JpdroidEntityIterator
+	 */
+	public <T> JpdroidEntityIterator<T> iterate(Class<T> entity,
+			String restrictions, String order, boolean fillRelationClass) {
+		String sql = getRetrieveSql(entity, restrictions == null ? ""
+				: restrictions, order);
+		diagnose(sql);
+		long start = System.nanoTime();
+		Cursor cursor = queried(database.rawQuery(sql, null),
+				entity.getSimpleName(), sql, start);
+		return new JpdroidEntityIterator<T>(this, entity, cursor,
+				fillRelationClass);
+	}
 
-					if (fillRelationClass) {
+	/**
+	 * Retorna um iterador que preenche os objetos  medida que so lidos do
+	 * cursor.
+	 * 
+	 * @param entity
+	 * @param fillRelationClass
+	 *            - Indica se deve preencher as classes relacionadas.
+	 * @return JpdroidEntityIterator
+	 */
+	public <T> JpdroidEntityIterator<T> iterate(Class<T> entity,
+			boolean fillRelationClass) {
+		return iterate(entity, "", null, fillRelationClass);
+	}
 
-						RelationClass relationClass = field
-								.getAnnotation(RelationClass.class);
-						if (relationClass != null) {
+	private String getRetrieveSql(Class<?> entity, String restrictions,
+			String order) {
+		String orderBy = order;
+
+		if (orderBy == null || orderBy.length() == 0) {
+			orderBy = getDefaultOrderBy(entity);
+		}
+		if (restrictions.length() > 0) {
+			restrictions = " where " + restrictions;
+		}
+		if (orderBy != null && orderBy.length() > 0) {
+			restrictions += " Order By " + orderBy;
+		}
+		return "select *" + getViewColumnsProjection(entity) + " from "
+				+ entity.getSimpleName() + restrictions;
+	}
+
+	List<Field> getRelationFields(Class<?> entity, boolean fillRelationClass) {
+		List<Field> relationFields = new ArrayList<Field>();
+		if (fillRelationClass) {
+			for (Field field : entity.getDeclaredFields()) {
+				if (field.getAnnotation(RelationClass.class) != null) {
+					relationFields.add(field);
+				}
+			}
+		}
+		return relationFields;
+	}
+
+	/**
+	 * Preenche o objeto da linha atual do cursor, incluindo as classes
+	 * relacionadas. Quando existe uma sesso aberta, o objeto j carregado 
+	 * reaproveitado.
+	 * 
+	 * @param entity
+	 * @param cursor
+	 * @param mapper
+	 * @param pkIndex
+	 * @param relationFields
+	 * @param fillRelationClass
+	 * @param lastEntity
+	 * @param track
+	 *            - Indica se o objeto deve ser acompanhado pelo isDirty.
+	 * @return T
+	 * @throws Exception
+	 */
+	<T> T readRow(Class<T> entity, Cursor cursor, JpdroidRowMapper<T> mapper,
+			int pkIndex, List<Field> relationFields,
+			boolean fillRelationClass, Class<?> lastEntity, boolean track)
+			throws Exception {
+
+		Object retorno = null;
+		long id = 0;
+		if (session != null && pkIndex >= 0) {
+			id = cursor.getLong(pkIndex);
+			retorno = session.get(entity, id);
+			if (retorno != null
+					&& (!fillRelationClass || session.isFilled(retorno))) {
+				return entity.cast(retorno);
+			}
+		}
+		if (retorno == null) {
+			retorno = entity.newInstance();
+			if (session != null && pkIndex >= 0) {
+				session.put(entity, id, retorno);
+			}
+		}
+		if (session != null && fillRelationClass) {
+			session.setFilled(retorno);
+		}
 
-							Class<? extends Object> ob = field.getType();
+		mapper.map(cursor, entity.cast(retorno));
 
-							field.setAccessible(true);
+		for (Field field : relationFields) {
 
-							String sql = "";
+			RelationClass relationClass = field
+					.getAnnotation(RelationClass.class);
 
-							if (ob.isAssignableFrom(List.class)) {
+			Class<? extends Object> ob = field.getType();
 
-								ParameterizedType fieldGenericType = (ParameterizedType) field
-										.getGenericType();
-								Class<?> fieldTypeParameterType = (Class<?>) fieldGenericType
-										.getActualTypeArguments()[0];
+			field.setAccessible(true);
 
-								boolean ignoreChild = lastEntity != null
-										&& lastEntity
-												.equals(fieldTypeParameterType)
-										&& relationClass.relationType().equals(
-												RelationType.ManyToMany);
+			String sql = "";
 
-								if (relationClass.relationType().equals(
-										RelationType.ManyToMany)) {
-									sql = "_id in (SELECT _id"
-											+ fieldTypeParameterType
-													.getSimpleName()
-											+ " from "
-											+ relationClass.joinTable()
-											+ " where _id"
-											+ entity.getSimpleName()
-											+ " = "
-											+ cursor.getLong(cursor.getColumnIndex(String
-													.valueOf(fieldPk.getName())))
-											+ " )";
-								} else {
+			if (ob.isAssignableFrom(List.class)) {
 
-									sql = relationClass.joinColumn()
-											+ " = "
-											+ cursor.getLong(cursor.getColumnIndex(String
-													.valueOf(fieldPk.getName())));
-								}
+				ParameterizedType fieldGenericType = (ParameterizedType) field
+						.getGenericType();
+				Class<?> fieldTypeParameterType = (Class<?>) fieldGenericType
+						.getActualTypeArguments()[0];
 
-								if (!ignoreChild) {
-									List<?> objetos = retrieve(
-											fieldTypeParameterType, sql, null,
-											fillRelationClass, entity);
-									if (objetos.size() > 0) {
-										field.set(retorno, objetos);
-									}
-								}
+				boolean ignoreChild = lastEntity != null
+						&& lastEntity
+								.equals(fieldTypeParameterType)
+						&& relationClass.relationType().equals(
+								RelationType.ManyToMany);
 
-							} else {
-								if ((relationClass.relationType() == RelationType.OneToMany)
-										|| (relationClass.relationType() == RelationType.OneToOne)) {
-									sql = "_id = ";
-									sql += cursor.getLong(cursor
-											.getColumnIndex(String
-													.valueOf(relationClass
-															.joinColumn())));
-								} else {
-									sql = relationClass.joinColumn() + " = ";
-									sql += cursor
-											.getLong(cursor.getColumnIndex(String
-													.valueOf(fieldPk.getName())));
-								}
+				if (relationClass.relationType().equals(
+						RelationType.ManyToMany)) {
+					sql = "_id in (SELECT _id"
+							+ fieldTypeParameterType
+									.getSimpleName()
+							+ " from "
+							+ relationClass.joinTable()
+							+ " where _id"
+							+ entity.getSimpleName()
+							+ " = "
+							+ cursor.getLong(pkIndex)
+							+ " )";
+				} else {
 
-								List<?> objetos = retrieve(ob, sql,
-										fillRelationClass);
-								if (objetos.size() > 0) {
-									field.set(retorno, objetos.get(0));
-								}
-							}
+					sql = relationClass.joinColumn()
+							+ " = "
+							+ cursor.getLong(pkIndex);
+				}
 
-						}
+				if (!ignoreChild) {
+					List<?> objetos = retrieve(
+							fieldTypeParameterType, sql, null,
+							fillRelationClass, entity);
+					if (objetos.size() > 0) {
+						field.set(retorno, objetos);
 					}
-					Column annotationColumn = field.getAnnotation(Column.class);
-					if (annotationColumn != null) {
-						if ("".equals(annotationColumn.name())) {
-							columnName = field.getName();
-						} else {
-							columnName = annotationColumn.name();
-						}
-						field.setAccessible(true);
-
-						if ("String".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-
-							field.set(retorno, cursor.getString(cursor
-									.getColumnIndex(columnName)));
-
-						} else if (("java.util.Date".equals(field.getType()
-								.getName()))
-								|| ("java.sql.Date".equals(field.getType()
-										.getName()))
-								|| ("Calendar".equals(field.getType()
-										.getSimpleName())))
-							field.set(retorno, JpdroidDateUtil.convert(cursor
-									.getString(cursor
-											.getColumnIndex(columnName)), field
-									.getType()));
-
-						else if ("Boolean".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-
-							field.set(retorno, Boolean.valueOf(cursor
-									.getString(cursor
-											.getColumnIndex(columnName))));
-
-						} else if ("Double".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-
-							field.set(retorno, cursor.getDouble(cursor
-									.getColumnIndex(columnName)));
-
-						} else if ("Float".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-
-							field.set(retorno, cursor.getFloat(cursor
-									.getColumnIndex(columnName)));
-
-						} else if (("Integer".equals(field.getType()
-								.getSimpleName()))
-								|| ("int".equals(field.getType()
-										.getSimpleName()))) {
-
-							field.set(retorno, cursor.getInt(cursor
-									.getColumnIndex(columnName)));
-
-						} else if ("Long".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-							field.set(retorno, cursor.getLong(cursor
-									.getColumnIndex(columnName)));
-
-						} else if ("Short".equalsIgnoreCase(field.getType()
-								.getSimpleName())) {
-							field.set(retorno, cursor.getShort(cursor
-									.getColumnIndex(columnName)));
-						} else if (("Byte[]".equalsIgnoreCase(field.getType()
-								.getSimpleName()))
-								|| ("Bitmap".equalsIgnoreCase(field.getType()
-										.getSimpleName()))) {
-							byte[] blob = cursor.getBlob(cursor
-									.getColumnIndex(columnName));
-							if (blob != null) {
-								Bitmap bmp = BitmapFactory.decodeByteArray(
-										blob, 0, blob.length);
-								field.set(retorno, bmp);
-							}
+				}
+
+			} else {
+				if ((relationClass.relationType() == RelationType.OneToMany)
+						|| (relationClass.relationType() == RelationType.OneToOne)) {
+					long idRelation = cursor.getLong(cursor
+							.getColumnIndex(String
+									.valueOf(relationClass
+											.joinColumn())));
+					if (session != null) {
+						Object cached = session.get(ob,
+								idRelation, fillRelationClass);
+						if (cached != null) {
+							field.set(retorno, cached);
+							continue;
 						}
 					}
-					ViewColumn viewColumn = field
-							.getAnnotation(ViewColumn.class);
-					if (viewColumn != null) {
-						field.setAccessible(true);
-						field.set(
-								retorno,
-								this.rawQuery(
-										"SELECT "
-												+ viewColumn.atributo()
-												+ " FROM "
-												+ viewColumn.entity()
-														.getSimpleName()
-												+ " WHERE _id = "
-												+ cursor.getLong(cursor
-														.getColumnIndex(viewColumn
-																.foreignKey())),
-										null).getString(0));
-					}
+					sql = "_id = " + idRelation;
+				} else {
+					sql = relationClass.joinColumn() + " = ";
+					sql += cursor.getLong(pkIndex);
+				}
 
+				List<?> objetos = retrieve(ob, sql,
+						fillRelationClass);
+				if (objetos.size() > 0) {
+					field.set(retorno, objetos.get(0));
 				}
-				entityList.add(entity.cast(retorno));
-			} while (cursor.moveToNext());
-		} catch (Exception e) {
-			Log.e("Erro getObjects()", e.getMessage());
+			}
+		}
+		if (track) {
+			track(retorno);
 		}
+		return entity.cast(retorno);
+	}
 
-		return entityList;
+	/**
+	 * Retorna as colunas auxiliares (ViewColumn) da entidade como subconsultas
+	 * pela chave primria, para que sejam resolvidas na prpria consulta da
+	 * entidade ao invs de uma consulta por registro.
+	 * 
+	 * @param entity
+	 * @return String
+	 */
+	private String getViewColumnsProjection(Class<?> entity) {
+		String projection = viewColumnsProjection.get(entity);
+		if (projection == null) {
+			StringBuilder sb = new StringBuilder();
+			for (Field field : entity.getDeclaredFields()) {
+				ViewColumn viewColumn = field.getAnnotation(ViewColumn.class);
+				if (viewColumn != null) {
+					String viewTable = viewColumn.entity().getSimpleName();
+					sb.append(", (SELECT ").append(viewColumn.atributo())
+							.append(" FROM ").append(viewTable)
+							.append(" WHERE ").append(viewTable)
+							.append("._id = ").append(entity.getSimpleName())
+							.append(".").append(viewColumn.foreignKey())
+							.append(") AS ").append(field.getName());
+				}
+			}
+			projection = sb.toString();
+			viewColumnsProjection.put(entity, projection);
+		}
+		return projection;
+	}
+
+	private void cacheResult(String cacheKey, Class<?> entity,
+			boolean fillRelationClass, List<?> entityList) throws Exception {
+		if (cacheKey != null && queryCache != null) {
+			queryCache.put(cacheKey, JpdroidQueryCache.getDependentTables(
+					entity, fillRelationClass), JpdroidQueryCache
+					.copy(entityList));
+		}
 	}
 
 	/**
-	 * Persiste um objeto ou uma lista no banco de dados.
+	 * Persiste um objeto ou uma lista no banco de dados. <br>
+	 * O grafo de objetos  gravado em uma nica transao, uma tabela por
+	 * vez, na ordem das chaves estrangeiras (JpdroidGraphWriter). Quando as
+	 * entidades possuem referncias circulares os objetos so gravados
+	 * individualmente.
 	 * 
 	 * @param entity
 	 * @throws JpdroidException
@@ -1150,10 +1977,11 @@ public class Jpdroid {
 
 		try {
 			transaction.begin();
-			persistRecursivo(entity);
+			if (!new JpdroidGraphWriter(this, database).persist(entity)) {
+				persistRecursivo(entity);
+			}
 			transaction.commit();
 		} catch (Exception e) {
-			transaction.end();
 			throw new JpdroidException(e.getMessage());
 		} finally {
 			transaction.end();
@@ -1236,6 +2064,9 @@ public class Jpdroid {
 					if (fieldPk.get(entity) == null
 							|| String.valueOf(fieldPk.get(entity)).equals("0")) {
 						idMaster = insert(entity);
+						if (session != null && idMaster > 0) {
+							session.put(entity.getClass(), idMaster, entity);
+						}
 					} else {
 						idMaster = Long.parseLong(String.valueOf(fieldPk
 								.get(entity)));
@@ -1257,13 +2088,13 @@ public class Jpdroid {
 						RelationClass relationClass = fieldRelationClassManyToOne[i]
 								.getAnnotation(RelationClass.class);
 
-						List<ContentValues> values = null;
+						JpdroidLongSet values = null;
 
 						if (child != null
 								&& relationClass != null
 								&& relationClass.relationType().equals(
 										RelationType.ManyToMany)) {
-							values = new ArrayList<ContentValues>();
+							values = new JpdroidLongSet();
 						}
 						if (child != null) {
 							if (child instanceof List) {
@@ -1273,17 +2104,8 @@ public class Jpdroid {
 											&& relationClass
 													.relationType()
 													.equals(RelationType.ManyToMany)) {
-										ContentValues val = new ContentValues();
-										val.put("_id"
-												+ entity.getClass()
-														.getSimpleName(),
-												idMaster);
-										val.put("_id"
-												+ item.getClass()
-														.getSimpleName(),
-												JpdroidObjectMap.getFieldPk(
-														item).getLong(item));
-										values.add(val);
+										values.add(JpdroidObjectMap.getFieldPk(
+												item).getLong(item));
 									} else {
 										// Pode existir mais de uma coluna
 										// foreinkey
@@ -1309,11 +2131,18 @@ public class Jpdroid {
 								if (relationClass != null
 										&& relationClass.relationType().equals(
 												RelationType.ManyToMany)) {
-									persistRelationEntity(values,
+									ParameterizedType fieldGenericType = (ParameterizedType) fieldRelationClassManyToOne[i]
+											.getGenericType();
+									Class<?> childEntity = (Class<?>) fieldGenericType
+											.getActualTypeArguments()[0];
+									persistRelationEntity(
 											relationClass.joinTable(), "_id"
 													+ entity.getClass()
-															.getSimpleName()
-													+ " = " + idMaster);
+															.getSimpleName(),
+											idMaster, "_id"
+													+ childEntity
+															.getSimpleName(),
+											values);
 								}
 
 							} else {
@@ -1345,66 +2174,68 @@ public class Jpdroid {
 
 	}
 
-	private void persistRelationEntity(List<ContentValues> values,
-			String joinTable, String whereAll) {
-
-		if (!values.isEmpty()) {
-
-			List<String> chaves = new ArrayList<String>();
-			for (ContentValues contentValues : values) {
-				String where = "";
-				for (Entry<String, Object> e : contentValues.valueSet()) {
-					if (chaves.size() < 2) {
-						chaves.add(e.getKey());
-					}
-
-					where += where.length() == 0 ? e.getKey() + " = "
-							+ e.getValue().toString() : " and " + e.getKey()
-							+ " = " + e.getValue().toString();
-
-				}
+	/**
+	 * Sincroniza a tabela de relacionamento ManyToMany com as chaves
+	 * informadas. As chaves existentes so lidas uma nica vez e apenas as
+	 * diferenas so inseridas ou removidas.
+	 * 
+	 * @param joinTable
+	 * @param ownerColumn
+	 * @param ownerId
+	 * @param childColumn
+	 * @param childIds
+	 */
+	void persistRelationEntity(String joinTable, String ownerColumn,
+			long ownerId, String childColumn, JpdroidLongSet childIds) {
 
-				if (database.rawQuery(
-						"SELECT * FROM " + joinTable + " WHERE " + where, null)
-						.getCount() == 0) {
-					insert(contentValues, joinTable);
-				}
+		invalidateCache(joinTable);
 
+		JpdroidLongSet existing = new JpdroidLongSet(childIds.size());
+		Cursor registros = database.rawQuery("SELECT " + childColumn
+				+ " FROM " + joinTable + " WHERE " + ownerColumn + " = ?",
+				new String[] { String.valueOf(ownerId) });
+		try {
+			while (registros.moveToNext()) {
+				existing.add(registros.getLong(0));
 			}
+		} finally {
+			registros.close();
+		}
 
-			Cursor registros = database.rawQuery("SELECT * FROM " + joinTable
-					+ " WHERE " + whereAll, null);
-			registros.moveToFirst();
-			do {
-
-				int count = 0;
-				for (ContentValues contentValues : values) {
-					if (contentValues.getAsLong(chaves.get(0)) == registros
-							.getLong(registros.getColumnIndex(chaves.get(0)))
-							&& contentValues.getAsLong(chaves.get(1)) == registros
-									.getLong(registros.getColumnIndex(chaves
-											.get(1)))) {
-						count++;
+		SQLiteStatement delete = null;
+		SQLiteStatement insert = null;
+		try {
+			for (long childId : existing.toArray()) {
+				if (!childIds.contains(childId)) {
+					if (delete == null) {
+						delete = database.compileStatement("DELETE FROM "
+								+ joinTable + " WHERE " + ownerColumn
+								+ " = ? AND " + childColumn + " = ?");
 					}
+					delete.bindLong(1, ownerId);
+					delete.bindLong(2, childId);
+					delete.execute();
 				}
-				if (count == 0) {
-					String whereDelete = chaves.get(0)
-							+ " = "
-							+ String.valueOf(registros.getLong(registros
-									.getColumnIndex(chaves.get(0))))
-							+ " AND "
-							+ chaves.get(1)
-							+ " = "
-							+ String.valueOf(registros.getLong(registros
-									.getColumnIndex(chaves.get(1))));
-
-					database.execSQL("DELETE FROM " + joinTable + " WHERE "
-							+ whereDelete.toString());
+			}
+			for (long childId : childIds.toArray()) {
+				if (!existing.contains(childId)) {
+					if (insert == null) {
+						insert = database.compileStatement("INSERT INTO "
+								+ joinTable + " (" + ownerColumn + ", "
+								+ childColumn + ") VALUES (?, ?)");
+					}
+					insert.bindLong(1, ownerId);
+					insert.bindLong(2, childId);
+					insert.executeInsert();
 				}
-
-			} while (registros.moveToNext());
-		} else {
-			database.execSQL("DELETE FROM " + joinTable + " WHERE " + whereAll);
+			}
+		} finally {
+			if (delete != null) {
+				delete.close();
+			}
+			if (insert != null) {
+				insert.close();
+			}
 		}
 	}
 
@@ -1426,8 +2257,11 @@ public class Jpdroid {
 	public Cursor query(String table, String[] columns, String selection,
 			String[] selectionArgs, String groupBy, String having,
 			String orderBy) {
-		return database.query(table, columns, selection, selectionArgs,
-				groupBy, having, orderBy);
+		long start = System.nanoTime();
+		return queried(database.query(table, columns, selection,
+				selectionArgs, groupBy, having, orderBy), table, "SELECT FROM "
+				+ table + (selection == null ? "" : " WHERE " + selection),
+				start);
 	}
 
 	/**
@@ -1436,11 +2270,197 @@ public class Jpdroid {
 	 * @return cursor
 	 */
 	public Cursor rawQuery(String sql, String[] selectionArgs) {
-		Cursor retorno = database.rawQuery(sql, selectionArgs);
+		long start = System.nanoTime();
+		Cursor retorno = queried(database.rawQuery(sql, selectionArgs), null,
+				sql, start);
 		retorno.moveToFirst();
 		return retorno;
 	}
 
+	/**
+	 * Retorna a quantidade de registros da entidade.
+	 * 
+	 * @param entity
+	 * @param where
+	 *            - Clausula where, podendo conter parmetros (?).
+	 * @param whereArgs
+	 * @return long
+	 */
+	public long count(Class<?> entity, String where, String... whereArgs) {
+		return simpleQueryForLong(
+				aggregateSql("COUNT(*)", entity, where, null), whereArgs);
+	}
+
+	/**
+	 * Indica se existe algum registro da entidade que atenda a clausula where.
+	 * 
+	 * @param entity
+	 * @param where
+	 * @param whereArgs
+	 * @return boolean
+	 */
+	public boolean exists(Class<?> entity, String where, String... whereArgs) {
+		return simpleQueryForLong(
+				"SELECT EXISTS(" + aggregateSql("1", entity, where, null)
+						+ ")", whereArgs) == 1;
+	}
+
+	/**
+	 * Retorna a soma da coluna ou expresso. Retorna 0 quando no existirem
+	 * registros.
+	 * 
+	 * @param entity
+	 * @param column
+	 *            - Coluna ou expresso. Ex: "qtdProduto * valorUnitario"
+	 * @param where
+	 * @param whereArgs
+	 * @return double
+	 */
+	public double sum(Class<?> entity, String column, String where,
+			String... whereArgs) {
+		Double total = simpleQueryForDouble(
+				aggregateSql("TOTAL(" + column + ")", entity, where, null),
+				whereArgs);
+		return total == null ? 0 : total;
+	}
+
+	/**
+	 * Retorna a mdia da coluna ou null quando no existirem registros.
+	 * 
+	 * @param entity
+	 * @param column
+	 * @param where
+	 * @param whereArgs
+	 * @return Double
+	 */
+	public Double avg(Class<?> entity, String column, String where,
+			String... whereArgs) {
+		return simpleQueryForDouble(
+				aggregateSql("AVG(" + column + ")", entity, where, null),
+				whereArgs);
+	}
+
+	/**
+	 * Retorna o menor valor da coluna ou null quando no existirem registros.
+	 * 
+	 * @param entity
+	 * @param column
+	 * @param where
+	 * @param whereArgs
+	 * @return Double
+	 */
+	public Double min(Class<?> entity, String column, String where,
+			String... whereArgs) {
+		return simpleQueryForDouble(
+				aggregateSql("MIN(" + column + ")", entity, where, null),
+				whereArgs);
+	}
+
+	/**
+	 * Retorna o maior valor da coluna ou null quando no existirem registros.
+	 * 
+	 * @param entity
+	 * @param column
+	 * @param where
+	 * @param whereArgs
+	 * @return Double
+	 */
+	public Double max(Class<?> entity, String column, String where,
+			String... whereArgs) {
+		return simpleQueryForDouble(
+				aggregateSql("MAX(" + column + ")", entity, where, null),
+				whereArgs);
+	}
+
+	/**
+	 * Agrupa os registros da entidade pela coluna informada, retornando o
+	 * valor agregado de cada grupo. <br>
+	 * Ex: groupBy(ItensPedido.class, "idProduto", "SUM(qtdProduto)", null)
+	 * 
+	 * @param entity
+	 * @param groupColumn
+	 *            - Coluna de agrupamento.
+	 * @param aggregate
+	 *            - Funo de agregao. Ex: COUNT(*), SUM(valorTotal)
+	 * @param where
+	 * @param whereArgs
+	 * @return JpdroidGroupResult
+	 */
+	public JpdroidGroupResult groupBy(Class<?> entity, String groupColumn,
+			String aggregate, String where, String... whereArgs) {
+		long start = System.nanoTime();
+		String sql = aggregateSql(groupColumn + ", " + aggregate, entity,
+				where, groupColumn);
+		Cursor cursor = queried(database.rawQuery(sql, whereArgs),
+				entity.getSimpleName(), sql, start);
+		try {
+			String[] keys = new String[cursor.getCount()];
+			double[] values = new double[keys.length];
+			int i = 0;
+			while (cursor.moveToNext()) {
+				keys[i] = cursor.getString(0);
+				values[i] = cursor.getDouble(1);
+				i++;
+			}
+			return new JpdroidGroupResult(keys, values);
+		} finally {
+			cursor.close();
+		}
+	}
+
+	private String aggregateSql(String select, Class<?> entity, String where,
+			String groupBy) {
+		StringBuilder sql = new StringBuilder("SELECT ").append(select)
+				.append(" FROM ").append(entity.getSimpleName());
+		if (where != null && where.trim().length() > 0) {
+			sql.append(" WHERE ").append(where);
+		}
+		if (groupBy != null) {
+			sql.append(" GROUP BY ").append(groupBy).append(" ORDER BY ")
+					.append(groupBy);
+		}
+		return sql.toString();
+	}
+
+	private long simpleQueryForLong(String sql, String[] args) {
+		long start = System.nanoTime();
+		SQLiteStatement statement = database.compileStatement(sql);
+		try {
+			bindArgs(statement, args);
+			long retorno = statement.simpleQueryForLong();
+			fire(EventType.QUERY, null, sql, start, -1, 1, null);
+			return retorno;
+		} finally {
+			statement.close();
+		}
+	}
+
+	private Double simpleQueryForDouble(String sql, String[] args) {
+		long start = System.nanoTime();
+		Cursor cursor = queried(database.rawQuery(sql, args), null, sql, start);
+		try {
+			if (cursor.moveToFirst() && !cursor.isNull(0)) {
+				return cursor.getDouble(0);
+			}
+			return null;
+		} finally {
+			cursor.close();
+		}
+	}
+
+	private static void bindArgs(SQLiteStatement statement, String[] args) {
+		if (args == null) {
+			return;
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null) {
+				statement.bindNull(i + 1);
+			} else {
+				statement.bindString(i + 1, args[i]);
+			}
+		}
+	}
+
 	/**
 	 * Executa script sql.
 	 * 
@@ -1448,6 +2468,7 @@ public class Jpdroid {
 	 */
 	public void execSQL(String sql) {
 		database.execSQL(sql);
+		invalidateCacheFor(sql);
 	}
 
 	/**
@@ -1527,7 +2548,6 @@ public class Jpdroid {
 
 			transaction.commit();
 		} catch (Exception e) {
-			transaction.end();
 			Log.e("Erro Importar arquivo sql.", e.getMessage());
 			return -1;
 		} finally {
@@ -1537,6 +2557,117 @@ public class Jpdroid {
 
 	}
 
+	/**
+	 * Importa os objetos de um array JSON (como o gerado pela exportao)
+	 * diretamente para a tabela da entidade. <br>
+	 * O arquivo  lido um registro por vez e as alteraes so efetivadas a
+	 * cada IMPORT_BATCH_SIZE registros.
+	 * 
+	 * @param entity
+	 * @param in
+	 *            - Contedo em UTF-8.
+	 * @param mode
+	 * @return JpdroidImportResult
+	 * @throws JpdroidException
+	 */
+	public JpdroidImportResult importJson(Class<?> entity, InputStream in,
+			ImportMode mode) throws JpdroidException {
+		try {
+			return importRecords(entity, new JpdroidJsonReader(
+					new InputStreamReader(in, "UTF-8")), mode, IMPORT_BATCH_SIZE);
+		} catch (UnsupportedEncodingException e) {
+			throw new JpdroidException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa um arquivo CSV separado por ponto e vrgula, cuja primeira linha
+	 * contm o nome das colunas, diretamente para a tabela da entidade.
+	 * 
+	 * @param entity
+	 * @param in
+	 *            - Contedo em UTF-8.
+	 * @param mode
+	 * @return JpdroidImportResult
+	 * @throws JpdroidException
+	 */
+	public JpdroidImportResult importCsv(Class<?> entity, InputStream in,
+			ImportMode mode) throws JpdroidException {
+		try {
+			return importRecords(entity, new JpdroidCsvReader(
+					new InputStreamReader(in, "UTF-8")), mode, IMPORT_BATCH_SIZE);
+		} catch (UnsupportedEncodingException e) {
+			throw new JpdroidException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa um documento XML, onde cada elemento com o nome da entidade  um
+	 * registro, diretamente para a tabela da entidade.
+	 * 
+	 * @param entity
+	 * @param in
+	 * @param mode
+	 * @return JpdroidImportResult
+	 * @throws JpdroidException
+	 */
+	public JpdroidImportResult importXml(Class<?> entity, InputStream in,
+			ImportMode mode) throws JpdroidException {
+		try {
+			return importRecords(entity,
+					new JpdroidXmlReader(in, entity.getSimpleName()), mode,
+					IMPORT_BATCH_SIZE);
+		} catch (JpdroidException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JpdroidException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa os registros do leitor para a tabela da entidade, atravs de
+	 * comandos compilados, efetivando as alteraes em lotes. Registros
+	 * rejeitados no interrompem a importao e so informados no resultado.
+	 * <br>
+	 * Apenas as colunas da entidade so importadas, as classes relacionadas
+	 * devem ser importadas separadamente.
+	 * 
+	 * @param entity
+	 * @param reader
+	 * @param mode
+	 * @param batchSize
+	 *            - Quantidade de registros efetivados por transao.
+	 * @return JpdroidImportResult
+	 * @throws JpdroidException
+	 */
+	public JpdroidImportResult importRecords(Class<?> entity,
+			IRecordReader reader, ImportMode mode, int batchSize)
+			throws JpdroidException {
+		if (!isOpen()) {
+			throw new JpdroidException("O banco de dados no est aberto.");
+		}
+		long start = System.nanoTime();
+		JpdroidImportResult result = null;
+		try {
+			result = new JpdroidImporter(new JpdroidAndroidDatabase(database),
+					entity, mode).run(reader, Math.max(1, batchSize));
+			return result;
+		} catch (Exception e) {
+			throw new JpdroidException(e.getMessage());
+		} finally {
+			fire(EventType.IMPORT, entity.getSimpleName(), null, start,
+					result == null ? 0 : result.getInserted()
+							+ result.getUpdated(), -1, result == null ? "Falha na importao."
+							: result.hasErrors() ? result.toString() : null);
+			try {
+				reader.close();
+			} catch (Exception e) {
+				Log.e("Erro importRecords()", e.getMessage());
+			}
+			invalidateCache(entity.getSimpleName());
+		}
+	}
+
 	/**
 	 * UPSERT / UPDATE OR INSERT <br>
 	 * Mtodo responsvel por inserir novos registros ou atualizar registros
@@ -1624,6 +2755,7 @@ public class Jpdroid {
 				sqlExec = sql.replaceAll("UPSERT", "INSERT INTO");
 				sqlExec = sqlExec.replaceAll("#", " ");
 				database.execSQL(sqlExec);
+				invalidateCache(comando[1]);
 			} else {
 				sqlExec = "UPDATE " + comando[1];
 				for (int i = 0; i < colunas.length; i++) {
@@ -1639,22 +2771,144 @@ public class Jpdroid {
 				sqlExec += where;
 				sqlExec = sqlExec.replaceAll("#", " ");
 				database.execSQL(sqlExec);
+				invalidateCache(comando[1]);
 			}
 
 		} else {
 			database.execSQL(sql);
+			invalidateCacheFor(sql);
 		}
 
 	}
 
 	/**
-	 * Compacta o banco Sqlite, o tamanho do arquivo do sqlite diminuir.
+	 * Converte para milissegundos as datas gravadas em texto nas colunas
+	 * anotadas com Temporal(storage = TemporalStorage.EPOCH_MILLIS). Deve ser
+	 * executado aps anotar colunas de um banco existente. <br>
+	 * Em tabelas existentes a coluna mantm o tipo declarado (TEXT) at que a
+	 * tabela seja recriada.
+	 * 
+	 * @param entity
+	 * @return quantidade de valores convertidos.
+	 * @throws JpdroidException
+	 */
+	public int migrateTemporalToEpochMillis(Class<?> entity)
+			throws JpdroidException {
+		int total = 0;
+		String tableName = entity.getSimpleName();
+		Field fieldPk = getFieldByAnnotation(entity, PrimaryKey.class);
+		if (fieldPk == null) {
+			throw new JpdroidException("A entidade " + tableName
+					+ " no possui chave primria.");
+		}
+		try {
+			transaction.begin();
+			for (Field field : entity.getDeclaredFields()) {
+				Column annotationColumn = field.getAnnotation(Column.class);
+				if (annotationColumn == null
+						|| !JpdroidDateUtil.isEpochMillis(field)) {
+					continue;
+				}
+				String columnName = "".equals(annotationColumn.name()) ? field
+						.getName() : annotationColumn.name();
+
+				// Apenas valores no formato yyyy-MM-dd, permitindo executar a
+				// converso mais de uma vez.
+				Cursor cursor = database.rawQuery("SELECT "
+						+ fieldPk.getName() + ", " + columnName + " FROM "
+						+ tableName + " WHERE " + columnName
+						+ " LIKE '____-__-__%'", null);
+				SQLiteStatement statement = database.compileStatement("UPDATE "
+						+ tableName + " SET " + columnName + " = ? WHERE "
+						+ fieldPk.getName() + " = ?");
+				try {
+					while (cursor.moveToNext()) {
+						Date date = JpdroidDateUtil.convert(
+								cursor.getString(1), Date.class);
+						if (date == null) {
+							statement.bindNull(1);
+						} else {
+							statement.bindLong(1, date.getTime());
+						}
+						statement.bindLong(2, cursor.getLong(0));
+						statement.execute();
+						total++;
+					}
+				} finally {
+					cursor.close();
+					statement.close();
+				}
+			}
+			transaction.commit();
+		} catch (Exception e) {
+			throw new JpdroidException(e.getMessage());
+		} finally {
+			transaction.end();
+		}
+		invalidateCache(tableName);
+		return total;
+	}
+
+	/**
+	 * Compacta o banco Sqlite, o tamanho do arquivo do sqlite diminuir. Os
+	 * arquivos externos (ExternalBlob) que no so mais referenciados tambm
+	 * so removidos.
 	 */
 	public void vacuum() {
+		collectBlobGarbage();
 		database.execSQL("VACUUM");
 
 	}
 
+	/**
+	 * Remove os arquivos externos (ExternalBlob) que no so referenciados
+	 * por nenhum registro. Arquivos gravados recentemente so mantidos, pois
+	 * o registro que os referencia pode estar sendo gravado por outra thread.
+	 * 
+	 * @return quantidade de arquivos removidos.
+	 */
+	public int collectBlobGarbage() {
+		if (!getBlobStore().exists()) {
+			return 0;
+		}
+		try {
+			long scanStart = System.currentTimeMillis();
+			HashSet<String> referenced = new HashSet<String>();
+			for (Map.Entry<String, String> entry : entidades.entrySet()) {
+				Class<?> entity = Class.forName(entry.getValue());
+				Field[] fields = entity.getDeclaredFields();
+				for (Field field : fields) {
+					Column annotationColumn = field.getAnnotation(Column.class);
+					if (field.getAnnotation(ExternalBlob.class) == null
+							|| annotationColumn == null) {
+						continue;
+					}
+					String columnName = "".equals(annotationColumn.name()) ? field
+							.getName() : annotationColumn.name();
+					Cursor cursor = database.rawQuery("SELECT " + columnName
+							+ " FROM " + entity.getSimpleName() + " WHERE "
+							+ columnName + " LIKE '" + JpdroidBlobStore.PREFIX
+							+ "%'", null);
+					try {
+						while (cursor.moveToNext()) {
+							String hash = JpdroidBlobStore.getHash(cursor
+									.getString(0));
+							if (hash != null) {
+								referenced.add(hash);
+							}
+						}
+					} finally {
+						cursor.close();
+					}
+				}
+			}
+			return getBlobStore().collectGarbage(referenced, scanStart);
+		} catch (Exception e) {
+			Log.e("Erro collectBlobGarbage()", e.getMessage());
+			return -1;
+		}
+	}
+
 	/**
 	 * Indica se  a primeira execuo do programa.
 	 * 
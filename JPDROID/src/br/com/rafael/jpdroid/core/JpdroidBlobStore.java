@@ -0,0 +1,242 @@
+package br.com.rafael.jpdroid.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.util.Set;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/**
+ * Classe responsvel por armazenar colunas BLOB em arquivos externos ao banco
+ * de dados. Os arquivos so nomeados pelo hash SHA-256 do contedo, desta
+ * forma um mesmo contedo  gravado uma nica vez, independente da quantidade
+ * de registros que o referenciam.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidBlobStore {
+
+	public static final String PREFIX = "jpdroid-blob:";
+
+	private static final String DIRECTORY = "jpdroid_blobs";
+
+	private static final int HASH_LENGTH = 64;
+
+	private static final byte[] PREFIX_BYTES = PREFIX.getBytes();
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * Intervalo, em milissegundos, em que um arquivo gravado antes da leitura
+	 * das referncias ainda no  removido: o registro que o referencia 
+	 * gravado depois do arquivo, fora do bloqueio.
+	 */
+	private static final long GRACE_PERIOD = 60 * 1000L;
+
+	/**
+	 * Idade, em milissegundos, a partir da qual um arquivo temporrio 
+	 * considerado abandonado (gravao interrompida).
+	 */
+	private static final long TEMP_MAX_AGE = 60 * 60 * 1000L;
+
+	/**
+	 * Sincroniza a gravao dos arquivos com a remoo dos arquivos no
+	 * referenciados.
+	 */
+	private final Object lock = new Object();
+
+	private File directory;
+
+	public JpdroidBlobStore(File baseDir) {
+		this.directory = new File(baseDir, DIRECTORY);
+	}
+
+	/**
+	 * Grava o contedo em arquivo, caso ainda no exista, e retorna a
+	 * referncia que deve ser gravada na coluna.
+	 *
+	 * @param data
+	 * @return String
+	 * @throws IOException
+	 */
+	public String store(byte[] data) throws IOException {
+		String hash = sha256(data);
+		File file = new File(directory, hash);
+
+		synchronized (lock) {
+			if (file.exists()) {
+				// O contedo volta a ser referenciado: a data de modificao
+				// protege o arquivo da remoo at a gravao do registro.
+				file.setLastModified(System.currentTimeMillis());
+			} else {
+				if (!directory.exists()) {
+					directory.mkdirs();
+				}
+				// Grava em arquivo temporrio para que o arquivo final nunca
+				// fique incompleto.
+				File temp = new File(directory, hash + TEMP_SUFFIX);
+				FileOutputStream out = new FileOutputStream(temp);
+				try {
+					out.write(data);
+					out.getFD().sync();
+				} finally {
+					out.close();
+				}
+				if (!temp.renameTo(file)) {
+					temp.delete();
+					if (!file.exists()) {
+						throw new IOException(
+								"No foi possvel gravar o arquivo "
+										+ file.getAbsolutePath());
+					}
+				}
+			}
+		}
+		return PREFIX + hash;
+	}
+
+	/**
+	 * Indica se o valor lido da coluna  uma referncia para um arquivo
+	 * externo.
+	 *
+	 * @param value
+	 * @return boolean
+	 */
+	public static boolean isReference(byte[] value) {
+		if (value == null) {
+			return false;
+		}
+		int length = PREFIX_BYTES.length + HASH_LENGTH;
+		// Valores TEXT lidos com getBlob() podem conter o terminador nulo.
+		if (value.length != length
+				&& !(value.length == length + 1 && value[length] == 0)) {
+			return false;
+		}
+		for (int i = 0; i < PREFIX_BYTES.length; i++) {
+			if (value[i] != PREFIX_BYTES[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Retorna o hash contido na referncia.
+	 *
+	 * @param reference
+	 * @return String
+	 */
+	public static String getHash(String reference) {
+		if (reference == null || !reference.startsWith(PREFIX)
+				|| reference.length() < PREFIX.length() + HASH_LENGTH) {
+			return null;
+		}
+		return reference.substring(PREFIX.length(), PREFIX.length()
+				+ HASH_LENGTH);
+	}
+
+	public static String getHash(byte[] reference) {
+		return new String(reference, PREFIX_BYTES.length, HASH_LENGTH);
+	}
+
+	public File getFile(String hash) {
+		return new File(directory, hash);
+	}
+
+	/**
+	 * L o contedo referenciado.
+	 *
+	 * @param reference
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	public byte[] readBytes(byte[] reference) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(
+				getFile(getHash(reference)), "r");
+		try {
+			byte[] data = new byte[(int) file.length()];
+			file.readFully(data);
+			return data;
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Decodifica o Bitmap diretamente do arquivo referenciado, sem carregar o
+	 * contedo completo em um array.
+	 *
+	 * @param reference
+	 * @return Bitmap
+	 */
+	public Bitmap readBitmap(byte[] reference) {
+		File file = getFile(getHash(reference));
+		if (!file.exists()) {
+			return null;
+		}
+		return BitmapFactory.decodeFile(file.getAbsolutePath());
+	}
+
+	/**
+	 * Remove os arquivos que no so mais referenciados por nenhum registro.
+	 * Os arquivos gravados a partir do incio da leitura das referncias
+	 * (menos o intervalo de GRACE_PERIOD) so mantidos, pois o registro que
+	 * os referencia pode ainda no ter sido gravado. Os arquivos temporrios
+	 * abandonados por uma gravao interrompida tambm so removidos.
+	 *
+	 * @param referencedHashes
+	 * @param scanStart
+	 *            - Momento, em milissegundos, do incio da leitura das
+	 *            referncias.
+	 * @return quantidade de arquivos removidos.
+	 */
+	public int collectGarbage(Set<String> referencedHashes, long scanStart) {
+		int removed = 0;
+		long cutoff = scanStart - GRACE_PERIOD;
+		long tempCutoff = System.currentTimeMillis() - TEMP_MAX_AGE;
+		synchronized (lock) {
+			File[] files = directory.listFiles();
+			if (files == null) {
+				return 0;
+			}
+			for (File file : files) {
+				if (file.getName().endsWith(TEMP_SUFFIX)) {
+					if (file.lastModified() < tempCutoff && file.delete()) {
+						removed++;
+					}
+					continue;
+				}
+				if (file.lastModified() >= cutoff) {
+					continue;
+				}
+				if (!referencedHashes.contains(file.getName()) && file.delete()) {
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+
+	public boolean exists() {
+		return directory.exists();
+	}
+
+	private static String sha256(byte[] data) throws IOException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(data);
+			StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+				sb.append(Character.forDigit(b & 0xf, 16));
+			}
+			return sb.toString();
+		} catch (Exception e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+}
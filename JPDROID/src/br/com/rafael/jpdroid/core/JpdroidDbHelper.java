@@ -1,21 +1,14 @@
 package br.com.rafael.jpdroid.core;
 
+import java.io.File;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
-import br.com.rafael.jpdroid.annotations.Column;
-import br.com.rafael.jpdroid.annotations.ForeignKey;
-import br.com.rafael.jpdroid.annotations.PrimaryKey;
-import br.com.rafael.jpdroid.annotations.RelationClass;
-import br.com.rafael.jpdroid.enums.RelationType;
 import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.storage.JpdroidAndroidDatabase;
 
 /**
  * Classe responsvel pela criao, atualizao e conexo do banco de dados.
@@ -24,16 +17,16 @@ import br.com.rafael.jpdroid.exceptions.JpdroidException;
  */
 public class JpdroidDbHelper extends SQLiteOpenHelper {
 
-	private JpdroidEntityValidation dbConfiguration = new JpdroidEntityValidation();
-	private boolean dropTable = false;
+	private JpdroidSchema schema = new JpdroidSchema();
 	private boolean create = false;
+	private Context context;
 
 	public boolean isDropTable() {
-		return dropTable;
+		return schema.isDropTable();
 	}
 
 	public void setDropTable(boolean dropTable) {
-		this.dropTable = dropTable;
+		schema.setDropTable(dropTable);
 	}
 
 	public boolean isCreate() {
@@ -47,7 +40,7 @@ public class JpdroidDbHelper extends SQLiteOpenHelper {
 	public JpdroidDbHelper(Context context, String databaseName,
 			SQLiteDatabase.CursorFactory factory, int databaseVersion) {
 		super(context, databaseName, factory, databaseVersion);
-
+		this.context = context;
 	}
 
 	@Override
@@ -69,6 +62,40 @@ public class JpdroidDbHelper extends SQLiteOpenHelper {
 
 	}
 	
+	/**
+	 * Valida as entidades e cria as tabelas que ainda no existem apenas
+	 * quando a aplicao ou o modelo das entidades foi alterado.
+	 */
+	@Override
+	public void onOpen(SQLiteDatabase db) {
+		super.onOpen(db);
+		try {
+			schema.bootstrap(new JpdroidAndroidDatabase(db), getStamp());
+		} catch (Exception e) {
+			Log.e("Erro onOpen()", e.getMessage());
+		}
+	}
+
+	/**
+	 * Identifica a verso instalada da aplicao (data e tamanho do apk) e as
+	 * entidades adicionadas, sem utilizar reflexo.
+	 * 
+	 * @return String ou null quando no disponvel.
+	 */
+	private String getStamp() {
+		if (context == null || context.getApplicationInfo() == null
+				|| context.getApplicationInfo().sourceDir == null) {
+			return null;
+		}
+		File apk = new File(context.getApplicationInfo().sourceDir);
+		StringBuilder names = new StringBuilder();
+		for (Class<?> entity : schema.getEntidades()) {
+			names.append(entity.getName()).append(',');
+		}
+		return apk.lastModified() + ":" + apk.length() + ":"
+				+ Integer.toHexString(names.toString().hashCode());
+	}
+
 	 @Override
 	    public synchronized SQLiteDatabase getWritableDatabase() {
 			return super.getWritableDatabase();
@@ -76,40 +103,17 @@ public class JpdroidDbHelper extends SQLiteOpenHelper {
 	 }
 
 	protected String getSqlType(Class<?> propertyType) throws JpdroidException {
-		String value = "";
-		if ("String".equalsIgnoreCase(propertyType.getSimpleName())
-				|| ("Boolean".equalsIgnoreCase(propertyType.getSimpleName()))
-				|| ("java.util.Date".equals(propertyType.getName()))
-				|| ("java.sql.Date".equals(propertyType.getName()))
-				|| ("Calendar".equals(propertyType.getSimpleName()))) {
-			value = "TEXT";
-		} else if (("Double".equalsIgnoreCase(propertyType.getSimpleName()))
-				|| ("Float".equalsIgnoreCase(propertyType.getSimpleName()))) {
-			value = "REAL";
-		} else if (("Integer".equals(propertyType.getSimpleName()))
-				|| ("int".equals(propertyType.getSimpleName()))
-				|| ("Long".equalsIgnoreCase(propertyType.getSimpleName()))
-				|| ("Short".equalsIgnoreCase(propertyType.getSimpleName()))) {
-			value = "INTEGER";
-		} else if (("Byte[]".equalsIgnoreCase(propertyType.getSimpleName()))
-				|| ("Bitmap".equalsIgnoreCase(propertyType.getSimpleName()))) {
-			value = "BLOB";
-		} else {
-			throw new JpdroidException("O tipo " + propertyType
-					+ " no suportado por este banco de dados.");
-		}
-		return value;
+		return JpdroidTypeConverters.getSqlType(propertyType);
+	}
+
+	protected String getSqlType(Field field) throws JpdroidException {
+		return JpdroidSchema.getSqlType(field);
 	}
 
 	public void createTables(SQLiteDatabase db) {
 		try {
-			
-			List<Class<?>> entidades = dbConfiguration.getEntidades();
-			for (Class<?> entity : entidades) {
-
-					createTable(db, entidades, entity);
 
-			}
+			schema.createTables(new JpdroidAndroidDatabase(db));
 
 		} catch (Exception e) {
 			Log.e("Erro createTables()", e.getMessage());
@@ -119,142 +123,23 @@ public class JpdroidDbHelper extends SQLiteOpenHelper {
 
 	public void createTable(SQLiteDatabase db,
 			Class<?> entity) throws JpdroidException {
-		createTable(db,dbConfiguration.getEntidades(),entity);
-	}
-	private void createTable(SQLiteDatabase db, List<Class<?>> entidades,
-			Class<?> entity) throws JpdroidException {
-		
-		String tableName;
-		String columnName;
-		String columnType;
-		int count, pos = 0;
-
-		StringBuilder createTable = new StringBuilder();
-		StringBuilder createPrimaryKey = new StringBuilder();
-		StringBuilder createColuns = new StringBuilder();
-		StringBuilder createForeinKey = new StringBuilder();
-		StringBuilder createUnique = new StringBuilder();
-		tableName = entity.getSimpleName();
-
-		if (isDropTable()) {
-			db.execSQL(" DROP TABLE IF EXISTS " + tableName + "; ");
-		}
-		createTable.append(" CREATE TABLE IF NOT EXISTS ");
-
-		createTable.append(tableName + "(");
-
-		Field[] fields = entity.getDeclaredFields();
-		Collections.reverse(Arrays.asList(fields));
-		count = fields.length;
-		for (Field field : fields) {
-			pos++;
-			PrimaryKey annotationPrimaryKey = field
-					.getAnnotation(PrimaryKey.class);
-			Column annotationColumn = field.getAnnotation(Column.class);
-			ForeignKey annotationForeingKey = field
-					.getAnnotation(ForeignKey.class);
-			RelationClass annotationRelationClass = field.getAnnotation(RelationClass.class);
-
-			if (annotationColumn != null) {
-
-				if ("".equals(annotationColumn.name())) {
-					columnName = field.getName();
-				} else {
-					columnName = annotationColumn.name();
-				}
-
-				columnType = getSqlType(field.getType());
-
-				if (annotationPrimaryKey != null) {
-					createPrimaryKey.append(columnName + " " + columnType);
-					createPrimaryKey.append(" PRIMARY KEY ");
-					if (annotationPrimaryKey.autoGenerate()) {
-						createPrimaryKey.append(" AUTOINCREMENT ");
-					}
-					createPrimaryKey.append(" NOT NULL ");
-
-				} else {
-
-					createColuns.append(",");
-					createColuns.append(columnName + " " + columnType);
-					if (!annotationColumn.nullable()) {
-						createColuns.append(" NOT NULL ");
-					}
-					if (annotationColumn.unique()) {
-						if (createUnique.length() > 0) {
-							createUnique.append(",");
-						}
-						createUnique.append(columnName);
-					}
-					if (annotationForeingKey != null) {
-						createForeinKey.append(",");
-						createForeinKey.append(" FOREIGN KEY("
-								+ columnName
-								+ ") REFERENCES "
-								+ annotationForeingKey.joinEntity()
-										.getSimpleName() + "("
-								+ annotationForeingKey.joinPrimaryKey() + ") ");
-						if (annotationForeingKey.deleteCascade()) {
-							createForeinKey.append(" ON DELETE CASCADE ");
-						}
-					}
-					
-				}
-			}else if(annotationRelationClass != null && annotationRelationClass.relationType().equals(RelationType.ManyToMany)){
-				Class<? extends Object> ob = field.getType();
-
-				field.setAccessible(true);
-				
-				if (ob.isAssignableFrom(List.class)) {
-
-					ParameterizedType fieldGenericType = (ParameterizedType) field
-							.getGenericType();
-					Class<?> fieldTypeParameterType = (Class<?>) fieldGenericType
-							.getActualTypeArguments()[0];
-				
-
-					StringBuilder createRelationTable = new StringBuilder();
-					createRelationTable.append(" CREATE TABLE IF NOT EXISTS "+annotationRelationClass.joinTable());
-					createRelationTable.append("( _id"+entity.getSimpleName()+ " INTEGER,");
-					createRelationTable.append(" _id"+fieldTypeParameterType.getSimpleName()+ " INTEGER,");
-					createRelationTable.append(" FOREIGN KEY(_id"+entity.getSimpleName()+") REFERENCES "+entity.getSimpleName()+"(_id) ON DELETE CASCADE,");
-					createRelationTable.append(" FOREIGN KEY(_id"+fieldTypeParameterType.getSimpleName()+") REFERENCES "+fieldTypeParameterType.getSimpleName()+"(_id) ON DELETE CASCADE);");
-					
-					if (isDropTable()) {
-						db.execSQL(" DROP TABLE IF EXISTS " + annotationRelationClass.joinTable() + "; ");
-					}
-					db.execSQL(createRelationTable.toString());
-				}
-				else
-				{
-					throw new JpdroidException("O relacionamento ManyToMany exige que o atributo seja do tipo List<>");
-				}
-			}
-
-			if (pos == count) {
-				createTable.append(createPrimaryKey);
-				createTable.append(createColuns);
-				createTable.append(createForeinKey);
-				createTable.append("); ");
-			}
-		}
-
-		db.execSQL(createTable.toString());
-
-		if (createUnique.length() > 0) {
-			db.execSQL("CREATE UNIQUE INDEX index" + entidades.indexOf(entity)
-					+ " ON " + tableName + "(" + createUnique.toString() + ");");
+		try {
+			schema.createTable(new JpdroidAndroidDatabase(db), entity);
+		} catch (JpdroidException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JpdroidException(e.getMessage());
 		}
 	}
 
 	public void addClass(Class<?> class1) throws JpdroidException {
-		dbConfiguration.addClass(class1);
+		schema.addClass(class1);
 
 	}
 
 	public boolean isValid() {
-		if (isCreate() && dbConfiguration != null) {
-			return dbConfiguration.getEntidades().size() > 0;
+		if (isCreate() && schema != null) {
+			return schema.getEntidades().size() > 0;
 		}
 		return true;
 	}
@@ -0,0 +1,202 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * Mantm uma cpia dos valores das colunas das entidades carregadas pelo
+ * Jpdroid, permitindo identificar quais colunas foram alteradas desde a ltima
+ * leitura ou gravao. <br>
+ * As entidades so referenciadas de forma fraca, portanto instncias que no
+ * esto mais em uso so descartadas automaticamente.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidDirtyTracker {
+
+	private final HashMap<IdentityReference, Object[]> snapshots = new HashMap<IdentityReference, Object[]>();
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	/**
+	 * Entidades registradas dentro da transao em andamento.
+	 */
+	private final ArrayList<IdentityReference> pending = new ArrayList<IdentityReference>();
+
+	/**
+	 * Referncia fraca comparada pela identidade do objeto, para que entidades
+	 * que sobrescrevem equals() e hashCode() sejam tratadas corretamente.
+	 */
+	private static class IdentityReference extends WeakReference<Object> {
+		private final int hash;
+
+		IdentityReference(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof IdentityReference)) {
+				return false;
+			}
+			Object referent = get();
+			return referent != null && referent == ((IdentityReference) o).get();
+		}
+	}
+
+	/**
+	 * Registra os valores atuais das colunas da entidade.
+	 *
+	 * @param entity
+	 */
+	public synchronized void track(Object entity) {
+		expunge();
+		Field[] fields = JpdroidObjectMap.getColumnFields(entity.getClass());
+		Object[] values = new Object[fields.length];
+		try {
+			for (int i = 0; i < fields.length; i++) {
+				values[i] = normalize(fields[i].get(entity), true);
+			}
+			snapshots.put(new IdentityReference(entity, queue), values);
+		} catch (Exception e) {
+			Log.e("Erro track()", e.getMessage());
+		}
+	}
+
+	/**
+	 * Registra os valores da entidade dentro de uma transao. O registro 
+	 * descartado se a transao for desfeita, e a entidade volta a ser
+	 * considerada alterada.
+	 *
+	 * @param entity
+	 */
+	public synchronized void trackPending(Object entity) {
+		track(entity);
+		pending.add(new IdentityReference(entity, null));
+	}
+
+	/**
+	 * Finaliza a transao, descartando os registros feitos nela quando no
+	 * for efetivada.
+	 *
+	 * @param committed
+	 */
+	public synchronized void endTransaction(boolean committed) {
+		if (!committed) {
+			for (IdentityReference reference : pending) {
+				if (reference.get() != null) {
+					snapshots.remove(reference);
+				}
+			}
+		}
+		pending.clear();
+	}
+
+	/**
+	 * Retorna os campos alterados desde o ltimo registro da entidade, ou null
+	 * quando a entidade no estiver registrada.
+	 *
+	 * @param entity
+	 * @return List<Field>
+	 */
+	public synchronized List<Field> getDirtyFields(Object entity) {
+		Object[] values = snapshots.get(new IdentityReference(entity, null));
+		if (values == null) {
+			return null;
+		}
+		Field[] fields = JpdroidObjectMap.getColumnFields(entity.getClass());
+		List<Field> dirty = new ArrayList<Field>();
+		try {
+			for (int i = 0; i < fields.length; i++) {
+				if (!equalsValue(values[i], fields[i].get(entity))) {
+					dirty.add(fields[i]);
+				}
+			}
+		} catch (Exception e) {
+			Log.e("Erro getDirtyFields()", e.getMessage());
+			return null;
+		}
+		return dirty;
+	}
+
+	/**
+	 * Indica se a entidade possui alteraes no gravadas. Entidades no
+	 * registradas so consideradas alteradas.
+	 *
+	 * @param entity
+	 * @return boolean
+	 */
+	public boolean isDirty(Object entity) {
+		List<Field> dirty = getDirtyFields(entity);
+		return dirty == null || !dirty.isEmpty();
+	}
+
+	public synchronized void untrack(Object entity) {
+		snapshots.remove(new IdentityReference(entity, null));
+	}
+
+	public synchronized void clear() {
+		snapshots.clear();
+		pending.clear();
+		expunge();
+	}
+
+	public synchronized int size() {
+		expunge();
+		return snapshots.size();
+	}
+
+	private void expunge() {
+		Object reference;
+		while ((reference = queue.poll()) != null) {
+			snapshots.remove(reference);
+		}
+	}
+
+	/**
+	 * Datas so comparadas pelo valor em milissegundos e arrays pelo contedo.
+	 * Bitmaps so comparados pela referncia, evitando a converso da imagem.
+	 */
+	private static Object normalize(Object value, boolean copy) {
+		if (value instanceof Date) {
+			return ((Date) value).getTime();
+		}
+		if (value instanceof Calendar) {
+			return ((Calendar) value).getTimeInMillis();
+		}
+		if (copy && value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		return value;
+	}
+
+	private static boolean equalsValue(Object snapshot, Object current) {
+		Object value = normalize(current, false);
+		if (snapshot == null || value == null) {
+			return snapshot == value;
+		}
+		if (snapshot instanceof byte[]) {
+			return value instanceof byte[]
+					&& Arrays.equals((byte[]) snapshot, (byte[]) value);
+		}
+		return snapshot.equals(value);
+	}
+}
@@ -0,0 +1,108 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import android.database.Cursor;
+import android.util.Log;
+import br.com.rafael.jpdroid.annotations.PrimaryKey;
+
+/**
+ * Iterador que preenche os objetos da entidade  medida que as linhas so
+ * lidas do cursor, permitindo percorrer grandes consultas sem carregar a lista
+ * completa em memria. <br>
+ * O cursor  fechado ao final da iterao ou atravs do mtodo close().
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidEntityIterator<T> implements Iterator<T> {
+
+	private final Jpdroid jpdroid;
+
+	private final Class<T> entity;
+
+	private final Cursor cursor;
+
+	private final boolean fillRelationClass;
+
+	private final JpdroidRowMapper<T> mapper;
+
+	private final int pkIndex;
+
+	private final List<Field> relationFields;
+
+	private final int count;
+
+	private boolean hasNext;
+
+	JpdroidEntityIterator(Jpdroid jpdroid, Class<T> entity, Cursor cursor,
+			boolean fillRelationClass) {
+		this.jpdroid = jpdroid;
+		this.entity = entity;
+		this.cursor = cursor;
+		this.fillRelationClass = fillRelationClass;
+		this.mapper = new JpdroidRowMapper<T>(entity, cursor, jpdroid);
+		Field fieldPk = JpdroidObjectMap.getFieldByAnnotation(entity,
+				PrimaryKey.class);
+		this.pkIndex = fieldPk == null ? -1 : cursor.getColumnIndex(fieldPk
+				.getName());
+		this.relationFields = jpdroid.getRelationFields(entity,
+				fillRelationClass);
+		this.count = cursor.getCount();
+		this.hasNext = cursor.moveToFirst();
+		if (!hasNext) {
+			cursor.close();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext) {
+			throw new NoSuchElementException();
+		}
+		try {
+			T item = jpdroid.readRow(entity, cursor, mapper, pkIndex,
+					relationFields, fillRelationClass, null, false);
+			hasNext = cursor.moveToNext();
+			if (!hasNext) {
+				cursor.close();
+			}
+			return item;
+		} catch (Exception e) {
+			Log.e("Erro next()", e.getMessage());
+			close();
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Retorna a quantidade de registros da consulta.
+	 *
+	 * @return int
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Encerra a iterao e fecha o cursor.
+	 */
+	public void close() {
+		hasNext = false;
+		if (!cursor.isClosed()) {
+			cursor.close();
+		}
+	}
+}
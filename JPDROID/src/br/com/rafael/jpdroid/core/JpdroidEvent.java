@@ -0,0 +1,114 @@
+package br.com.rafael.jpdroid.core;
+
+import br.com.rafael.jpdroid.enums.EventType;
+
+/**
+ * Evento de uma operao executada pelo Jpdroid, enviado aos
+ * IJpdroidListener registrados. <br>
+ * O sql  informado no formato da consulta, com os valores literais
+ * substitudos por ?, para que as execues possam ser agrupadas.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidEvent {
+
+	private final EventType type;
+
+	private final String table;
+
+	private final String sql;
+
+	private final long durationNanos;
+
+	private final int rowsAffected;
+
+	private final int rowsMapped;
+
+	private final String error;
+
+	JpdroidEvent(EventType type, String table, String sql, long durationNanos,
+			int rowsAffected, int rowsMapped, String error) {
+		this.type = type;
+		this.table = table;
+		this.sql = sql;
+		this.durationNanos = durationNanos;
+		this.rowsAffected = rowsAffected;
+		this.rowsMapped = rowsMapped;
+		this.error = error;
+	}
+
+	public EventType getType() {
+		return type;
+	}
+
+	/**
+	 * Tabela ou arquivo da operao, quando conhecido.
+	 */
+	public String getTable() {
+		return table;
+	}
+
+	/**
+	 * Formato do sql executado, ou null quando a operao no possui sql.
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public double getDurationMillis() {
+		return durationNanos / 1000000d;
+	}
+
+	/**
+	 * Registros inseridos, alterados ou excludos, ou -1 quando no se aplica.
+	 */
+	public int getRowsAffected() {
+		return rowsAffected;
+	}
+
+	/**
+	 * Registros lidos pela consulta, ou -1 quando no se aplica.
+	 */
+	public int getRowsMapped() {
+		return rowsMapped;
+	}
+
+	/**
+	 * Mensagem do erro, ou null quando a operao foi concluda.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	public boolean isError() {
+		return error != null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder event = new StringBuilder();
+		event.append(type).append(' ')
+				.append(String.format("%.3f", getDurationMillis()))
+				.append("ms");
+		if (table != null) {
+			event.append(' ').append(table);
+		}
+		if (rowsAffected >= 0) {
+			event.append(" afetados=").append(rowsAffected);
+		}
+		if (rowsMapped >= 0) {
+			event.append(" lidos=").append(rowsMapped);
+		}
+		if (sql != null) {
+			event.append(" [").append(sql).append(']');
+		}
+		if (error != null) {
+			event.append(" erro: ").append(error);
+		}
+		return event.toString();
+	}
+}
@@ -0,0 +1,190 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.FullTextSearch;
+import br.com.rafael.jpdroid.annotations.PrimaryKey;
+import br.com.rafael.jpdroid.interfaces.IJpdroidCursor;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+
+/**
+ * Classe responsvel pela tabela de pesquisa textual (FTS3) das entidades que
+ * possuem colunas anotadas com FullTextSearch. <br>
+ * A tabela virtual &lt;Entidade&gt;_fts utiliza o _id do registro como docid e
+ *  mantida atualizada por triggers na tabela da entidade.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidFullText {
+
+	public static final String SUFFIX = "_fts";
+
+	/**
+	 * Retorna o nome da tabela de pesquisa textual da entidade.
+	 *
+	 * @param entity
+	 * @return String
+	 */
+	public static String getTableName(Class<?> entity) {
+		return entity.getSimpleName() + SUFFIX;
+	}
+
+	/**
+	 * Indica se a entidade possui colunas anotadas com FullTextSearch.
+	 *
+	 * @param entity
+	 * @return boolean
+	 */
+	public static boolean isSearchable(Class<?> entity) {
+		return getColumns(entity).length > 0;
+	}
+
+	/**
+	 * Converte o texto digitado pelo usurio em uma expresso MATCH, onde cada
+	 * palavra  pesquisada pelo prefixo. <br>
+	 * Ex: "jo sil" -> "jo* sil*"
+	 *
+	 * @param query
+	 * @return String ou null quando o texto no possuir palavras.
+	 */
+	public static String getMatchExpression(String query) {
+		if (query == null) {
+			return null;
+		}
+		StringBuilder match = new StringBuilder();
+		StringBuilder term = new StringBuilder();
+		for (int i = 0; i <= query.length(); i++) {
+			char c = i < query.length() ? query.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c)) {
+				term.append(c);
+			} else if (term.length() > 0) {
+				if (match.length() > 0) {
+					match.append(' ');
+				}
+				match.append(term).append('*');
+				term.setLength(0);
+			}
+		}
+		return match.length() == 0 ? null : match.toString();
+	}
+
+	/**
+	 * Retorna a consulta dos registros que atendem a expresso MATCH,
+	 * ordenados pela quantidade de ocorrncias dos termos pesquisados.
+	 *
+	 * @param entity
+	 * @param select
+	 *            - Colunas retornadas da tabela da entidade.
+	 * @return String
+	 */
+	static String getSearchSql(Class<?> entity, String select) {
+		String table = entity.getSimpleName();
+		String fts = getTableName(entity);
+		return "SELECT " + select + " FROM " + table
+				+ " INNER JOIN (SELECT docid, length(offsets(" + fts
+				+ ")) AS rank FROM " + fts + " WHERE " + fts
+				+ " MATCH ?) AS busca ON " + table + "." + getPkColumn(entity)
+				+ " = busca.docid ORDER BY busca.rank DESC";
+	}
+
+	/**
+	 * Cria a tabela de pesquisa textual e as triggers de sincronizao, caso
+	 * ainda no existam. Quando a tabela  criada, os registros existentes so
+	 * indexados.
+	 *
+	 * @param db
+	 * @param entity
+	 * @param drop
+	 *            - Recria a tabela de pesquisa.
+	 */
+	static void create(IJpdroidDatabase db, Class<?> entity, boolean drop)
+			throws Exception {
+		String[] columns = getColumns(entity);
+		if (columns.length == 0) {
+			return;
+		}
+		String table = entity.getSimpleName();
+		String fts = getTableName(entity);
+		String pk = getPkColumn(entity);
+
+		if (drop) {
+			db.execSQL("DROP TABLE IF EXISTS " + fts + ";");
+		}
+		if (exists(db, fts)) {
+			return;
+		}
+
+		String ftsColumns = join(columns, "");
+		String newColumns = join(columns, "new.");
+
+		db.execSQL("CREATE VIRTUAL TABLE " + fts + " USING fts3("
+				+ ftsColumns + ");");
+		db.execSQL("INSERT INTO " + fts + "(docid, " + ftsColumns
+				+ ") SELECT " + pk + ", " + ftsColumns + " FROM " + table
+				+ ";");
+
+		db.execSQL("DROP TRIGGER IF EXISTS " + fts + "_ai;");
+		db.execSQL("DROP TRIGGER IF EXISTS " + fts + "_au;");
+		db.execSQL("DROP TRIGGER IF EXISTS " + fts + "_ad;");
+		db.execSQL("CREATE TRIGGER " + fts + "_ai AFTER INSERT ON " + table
+				+ " BEGIN INSERT INTO " + fts + "(docid, " + ftsColumns
+				+ ") VALUES (new." + pk + ", " + newColumns + "); END;");
+		db.execSQL("CREATE TRIGGER " + fts + "_au AFTER UPDATE ON " + table
+				+ " BEGIN DELETE FROM " + fts + " WHERE docid = old." + pk
+				+ "; INSERT INTO " + fts + "(docid, " + ftsColumns
+				+ ") VALUES (new." + pk + ", " + newColumns + "); END;");
+		db.execSQL("CREATE TRIGGER " + fts + "_ad AFTER DELETE ON " + table
+				+ " BEGIN DELETE FROM " + fts + " WHERE docid = old." + pk
+				+ "; END;");
+	}
+
+	private static boolean exists(IJpdroidDatabase db, String table)
+			throws Exception {
+		IJpdroidCursor cursor = db.rawQuery(
+				"SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?",
+				new String[] { table });
+		try {
+			return cursor.moveToNext();
+		} finally {
+			cursor.close();
+		}
+	}
+
+	static String[] getColumns(Class<?> entity) {
+		List<String> columns = new ArrayList<String>();
+		for (Field field : entity.getDeclaredFields()) {
+			Column column = field.getAnnotation(Column.class);
+			if (column != null
+					&& field.getAnnotation(FullTextSearch.class) != null) {
+				columns.add("".equals(column.name()) ? field.getName()
+						: column.name());
+			}
+		}
+		return columns.toArray(new String[columns.size()]);
+	}
+
+	private static String getPkColumn(Class<?> entity) {
+		for (Field field : entity.getDeclaredFields()) {
+			if (field.getAnnotation(PrimaryKey.class) != null) {
+				Column column = field.getAnnotation(Column.class);
+				return column == null || "".equals(column.name()) ? field
+						.getName() : column.name();
+			}
+		}
+		return "_id";
+	}
+
+	private static String join(String[] columns, String prefix) {
+		StringBuilder sb = new StringBuilder();
+		for (String column : columns) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(prefix).append(column);
+		}
+		return sb.toString();
+	}
+}
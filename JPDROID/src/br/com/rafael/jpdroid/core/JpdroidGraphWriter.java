@@ -0,0 +1,409 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.content.ContentValues;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ForeignKey;
+import br.com.rafael.jpdroid.annotations.PrimaryKey;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.enums.EventType;
+import br.com.rafael.jpdroid.enums.RelationType;
+import br.com.rafael.jpdroid.util.JpdroidLongSet;
+
+/**
+ * Persiste um grafo de entidades em passagens por tabela. <br>
+ * Os objetos do grafo so coletados uma nica vez, as tabelas so ordenadas
+ * pelas dependncias das chaves estrangeiras (ForeignKey) e cada tabela 
+ * gravada com um nico comando de incluso compilado. As chaves geradas so
+ * propagadas para as chaves estrangeiras dos objetos dependentes antes da
+ * gravao da tabela seguinte. <br>
+ * Os relacionamentos e chaves estrangeiras de cada classe so obtidos por
+ * reflexo apenas na primeira utilizao.
+ *
+ * @author Rafael Centenaro
+ */
+class JpdroidGraphWriter {
+
+	/**
+	 * Relacionamentos, chaves estrangeiras e comando de incluso da entidade.
+	 */
+	private static class EntityPlan {
+		final Class<?> entity;
+		final String table;
+		final Field pk;
+		final Field[] columnFields;
+		final String[] columns;
+		final String insertSql;
+		/** Classes relacionadas gravadas antes da entidade (OneToMany). */
+		final Field[] parents;
+		/** Classes relacionadas gravadas aps a entidade (ManyToOne). */
+		final Field[] children;
+		final Field[] manyToMany;
+		/** Chaves estrangeiras agrupadas pelo nome da entidade referenciada. */
+		final HashMap<String, Field[]> foreignKeys = new HashMap<String, Field[]>();
+		final List<Class<?>> references = new ArrayList<Class<?>>();
+
+		EntityPlan(Class<?> entity) {
+			this.entity = entity;
+			this.table = entity.getSimpleName();
+
+			Field pkField = null;
+			List<Field> parentList = new ArrayList<Field>();
+			List<Field> childList = new ArrayList<Field>();
+			List<Field> manyToManyList = new ArrayList<Field>();
+			HashMap<String, List<Field>> fkList = new HashMap<String, List<Field>>();
+			for (Field field : entity.getDeclaredFields()) {
+				if (field.getAnnotation(PrimaryKey.class) != null) {
+					field.setAccessible(true);
+					pkField = field;
+				}
+				ForeignKey foreignKey = field.getAnnotation(ForeignKey.class);
+				if (foreignKey != null) {
+					field.setAccessible(true);
+					String name = foreignKey.joinEntity().getSimpleName();
+					List<Field> list = fkList.get(name);
+					if (list == null) {
+						list = new ArrayList<Field>();
+						fkList.put(name, list);
+					}
+					list.add(field);
+					if (!references.contains(foreignKey.joinEntity())) {
+						references.add(foreignKey.joinEntity());
+					}
+				}
+				RelationClass relation = field
+						.getAnnotation(RelationClass.class);
+				if (relation == null || relation.Transient()) {
+					continue;
+				}
+				field.setAccessible(true);
+				RelationType type = relation.relationType();
+				if (type == RelationType.OneToMany
+						|| type == RelationType.OneToOne) {
+					parentList.add(field);
+				} else if (type == RelationType.ManyToMany
+						&& List.class.isAssignableFrom(field.getType())) {
+					manyToManyList.add(field);
+				} else {
+					childList.add(field);
+				}
+			}
+			for (Map.Entry<String, List<Field>> entry : fkList.entrySet()) {
+				foreignKeys.put(entry.getKey(), entry.getValue().toArray(
+						new Field[entry.getValue().size()]));
+			}
+			this.pk = pkField;
+			this.parents = parentList.toArray(new Field[parentList.size()]);
+			this.children = childList.toArray(new Field[childList.size()]);
+			this.manyToMany = manyToManyList.toArray(new Field[manyToManyList
+					.size()]);
+
+			this.columnFields = JpdroidObjectMap.getColumnFields(entity);
+			this.columns = new String[columnFields.length];
+			StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+					.append(" (");
+			StringBuilder params = new StringBuilder();
+			for (int i = 0; i < columnFields.length; i++) {
+				Column column = columnFields[i].getAnnotation(Column.class);
+				columns[i] = "".equals(column.name()) ? columnFields[i]
+						.getName() : column.name();
+				if (i > 0) {
+					sql.append(", ");
+					params.append(", ");
+				}
+				sql.append(columns[i]);
+				params.append('?');
+			}
+			if (columns.length == 0) {
+				sql.append(pkField == null ? "_id" : pkField.getName());
+				params.append("NULL");
+			}
+			this.insertSql = sql.append(") VALUES (").append(params)
+					.append(')').toString();
+		}
+
+		Field[] getForeignKeys(Class<?> reference) {
+			Field[] fields = foreignKeys.get(reference.getSimpleName());
+			return fields == null ? new Field[0] : fields;
+		}
+	}
+
+	/**
+	 * Objeto do grafo e as chaves recebidas dos objetos gravados antes dele.
+	 */
+	private static class Node {
+		final Object object;
+		final EntityPlan plan;
+		final List<Node> sources = new ArrayList<Node>();
+		final List<Field[]> targets = new ArrayList<Field[]>();
+		long id;
+
+		Node(Object object, EntityPlan plan) {
+			this.object = object;
+			this.plan = plan;
+		}
+	}
+
+	/**
+	 * Vnculos ManyToMany gravados aps as entidades.
+	 */
+	private static class Relation {
+		final Node owner;
+		final String joinTable;
+		final String ownerColumn;
+		final String childColumn;
+		final JpdroidLongSet childIds;
+
+		Relation(Node owner, String joinTable, String ownerColumn,
+				String childColumn, JpdroidLongSet childIds) {
+			this.owner = owner;
+			this.joinTable = joinTable;
+			this.ownerColumn = ownerColumn;
+			this.childColumn = childColumn;
+			this.childIds = childIds;
+		}
+	}
+
+	private static final HashMap<Class<?>, EntityPlan> plans = new HashMap<Class<?>, EntityPlan>();
+
+	private final Jpdroid jpdroid;
+
+	private final SQLiteDatabase database;
+
+	private final IdentityHashMap<Object, Node> nodes = new IdentityHashMap<Object, Node>();
+
+	private final LinkedHashMap<Class<?>, List<Node>> tables = new LinkedHashMap<Class<?>, List<Node>>();
+
+	private final List<Relation> relations = new ArrayList<Relation>();
+
+	JpdroidGraphWriter(Jpdroid jpdroid, SQLiteDatabase database) {
+		this.jpdroid = jpdroid;
+		this.database = database;
+	}
+
+	private static EntityPlan getPlan(Class<?> entity) {
+		synchronized (plans) {
+			EntityPlan plan = plans.get(entity);
+			if (plan == null) {
+				plan = new EntityPlan(entity);
+				plans.put(entity, plan);
+			}
+			return plan;
+		}
+	}
+
+	/**
+	 * Persiste o objeto ou a lista de objetos e as classes relacionadas. Deve
+	 * ser executado dentro de uma transao.
+	 *
+	 * @param entity
+	 * @return false quando as dependncias entre as tabelas possuem ciclos e
+	 *         nada foi gravado.
+	 * @throws Exception
+	 */
+	boolean persist(Object entity) throws Exception {
+		if (entity instanceof List) {
+			for (Object item : (List<?>) entity) {
+				collect(item);
+			}
+		} else {
+			collect(entity);
+		}
+		List<Class<?>> order = sort();
+		if (order == null) {
+			return false;
+		}
+		for (Class<?> table : order) {
+			write(tables.get(table));
+		}
+		for (Relation relation : relations) {
+			jpdroid.persistRelationEntity(relation.joinTable,
+					relation.ownerColumn, relation.owner.id,
+					relation.childColumn, relation.childIds);
+		}
+		return true;
+	}
+
+	private Node collect(Object object) throws Exception {
+		Node node = nodes.get(object);
+		if (node != null) {
+			return node;
+		}
+		EntityPlan plan = getPlan(object.getClass());
+		node = new Node(object, plan);
+		nodes.put(object, node);
+		List<Node> list = tables.get(plan.entity);
+		if (list == null) {
+			list = new ArrayList<Node>();
+			tables.put(plan.entity, list);
+		}
+		list.add(node);
+
+		for (Field field : plan.parents) {
+			for (Object parent : items(field.get(object))) {
+				Node parentNode = collect(parent);
+				node.sources.add(parentNode);
+				node.targets.add(plan.getForeignKeys(parent.getClass()));
+			}
+		}
+		for (Field field : plan.children) {
+			for (Object child : items(field.get(object))) {
+				Node childNode = collect(child);
+				childNode.sources.add(node);
+				childNode.targets.add(childNode.plan
+						.getForeignKeys(plan.entity));
+			}
+		}
+		for (Field field : plan.manyToMany) {
+			Object value = field.get(object);
+			if (value == null) {
+				continue;
+			}
+			JpdroidLongSet childIds = new JpdroidLongSet();
+			for (Object item : (List<?>) value) {
+				childIds.add(JpdroidObjectMap.getFieldPk(item).getLong(item));
+			}
+			Class<?> childEntity = (Class<?>) ((ParameterizedType) field
+					.getGenericType()).getActualTypeArguments()[0];
+			relations.add(new Relation(node, field.getAnnotation(
+					RelationClass.class).joinTable(), "_id" + plan.table, "_id"
+					+ childEntity.getSimpleName(), childIds));
+		}
+		return node;
+	}
+
+	private static List<?> items(Object value) {
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (value instanceof List) {
+			return (List<?>) value;
+		}
+		return Collections.singletonList(value);
+	}
+
+	/**
+	 * Ordena as tabelas do grafo de forma que as tabelas referenciadas por
+	 * chaves estrangeiras sejam gravadas antes das tabelas que as referenciam.
+	 *
+	 * @return List ou null quando existir ciclo.
+	 */
+	private List<Class<?>> sort() {
+		List<Class<?>> order = new ArrayList<Class<?>>(tables.size());
+		HashMap<Class<?>, Integer> pending = new HashMap<Class<?>, Integer>();
+		for (Class<?> entity : tables.keySet()) {
+			int count = 0;
+			for (Class<?> reference : getPlan(entity).references) {
+				if (tables.containsKey(reference)) {
+					count++;
+				}
+			}
+			pending.put(entity, count);
+		}
+		while (order.size() < tables.size()) {
+			Class<?> next = null;
+			for (Class<?> entity : tables.keySet()) {
+				if (pending.get(entity) == 0 && !order.contains(entity)) {
+					next = entity;
+					break;
+				}
+			}
+			if (next == null) {
+				return null;
+			}
+			order.add(next);
+			for (Class<?> entity : tables.keySet()) {
+				if (getPlan(entity).references.contains(next)) {
+					pending.put(entity, pending.get(entity) - 1);
+				}
+			}
+		}
+		return order;
+	}
+
+	private void write(List<Node> list) throws Exception {
+		EntityPlan plan = list.get(0).plan;
+		SQLiteStatement insert = null;
+		int inserted = 0;
+		String error = null;
+		long start = System.nanoTime();
+		JpdroidSession session = jpdroid.getSession();
+		try {
+			for (Node node : list) {
+				for (int i = 0; i < node.sources.size(); i++) {
+					Long id = Long.valueOf(node.sources.get(i).id);
+					for (Field field : node.targets.get(i)) {
+						field.set(node.object, id);
+					}
+				}
+				if (plan.pk == null) {
+					continue;
+				}
+				Object pk = plan.pk.get(node.object);
+				if (pk != null && !"0".equals(String.valueOf(pk))) {
+					node.id = Long.parseLong(String.valueOf(pk));
+					jpdroid.update(node.object);
+					continue;
+				}
+				ContentValues values = JpdroidObjectMap.getContentvalues(
+						node.object, plan.columnFields);
+				jpdroid.externalizeBlobs(plan.entity, values);
+				if (insert == null) {
+					insert = database.compileStatement(plan.insertSql);
+				} else {
+					insert.clearBindings();
+				}
+				for (int i = 0; i < plan.columns.length; i++) {
+					bind(insert, i + 1, values.get(plan.columns[i]));
+				}
+				try {
+					node.id = insert.executeInsert();
+					inserted++;
+				} catch (SQLException e) {
+					node.id = -1;
+					error = e.getMessage();
+					Log.e("Erro insert()", e.getMessage());
+				}
+				if (session != null && node.id > 0) {
+					session.put(plan.entity, node.id, node.object);
+				}
+			}
+		} finally {
+			if (insert != null) {
+				insert.close();
+				jpdroid.invalidateCache(plan.table);
+				jpdroid.fire(EventType.INSERT, plan.table, plan.insertSql,
+						start, inserted, -1, error);
+			}
+		}
+	}
+
+	private static void bind(SQLiteStatement statement, int index, Object value) {
+		if (value == null) {
+			statement.bindNull(index);
+		} else if (value instanceof byte[]) {
+			statement.bindBlob(index, (byte[]) value);
+		} else if (value instanceof Double || value instanceof Float) {
+			statement.bindDouble(index, ((Number) value).doubleValue());
+		} else if (value instanceof Number) {
+			statement.bindLong(index, ((Number) value).longValue());
+		} else if (value instanceof Boolean) {
+			statement.bindLong(index, ((Boolean) value).booleanValue() ? 1 : 0);
+		} else {
+			statement.bindString(index, value.toString());
+		}
+	}
+}
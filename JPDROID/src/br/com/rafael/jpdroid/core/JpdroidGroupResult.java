@@ -0,0 +1,83 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.HashMap;
+
+/**
+ * Resultado de uma consulta agrupada (GROUP BY), contendo o valor agregado de
+ * cada grupo na ordem retornada pela consulta.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidGroupResult {
+
+	private final String[] keys;
+
+	private final double[] values;
+
+	private HashMap<String, Integer> index;
+
+	JpdroidGroupResult(String[] keys, double[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	public String getKey(int position) {
+		return keys[position];
+	}
+
+	public double getValue(int position) {
+		return values[position];
+	}
+
+	public String[] getKeys() {
+		return keys.clone();
+	}
+
+	public double[] getValues() {
+		return values.clone();
+	}
+
+	public boolean containsKey(String key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Retorna o valor agregado do grupo ou o valor padro quando o grupo no
+	 * existir.
+	 *
+	 * @param key
+	 * @param defaultValue
+	 * @return double
+	 */
+	public double get(String key, double defaultValue) {
+		int position = indexOf(key);
+		return position < 0 ? defaultValue : values[position];
+	}
+
+	private int indexOf(String key) {
+		if (index == null) {
+			index = new HashMap<String, Integer>(keys.length * 2);
+			for (int i = 0; i < keys.length; i++) {
+				index.put(keys[i], i);
+			}
+		}
+		Integer position = index.get(key);
+		return position == null ? -1 : position;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(keys[i]).append('=').append(values[i]);
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,93 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado da importao de registros, com as quantidades de registros
+ * inseridos, atualizados e rejeitados e o erro de cada registro rejeitado.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidImportResult {
+
+	/**
+	 * Quantidade mxima de mensagens de erro mantidas em memria.
+	 */
+	public static final int MAX_ERRORS = 1000;
+
+	private int inserted;
+
+	private int updated;
+
+	private int failed;
+
+	private boolean complete = true;
+
+	private final List<String> errors = new ArrayList<String>();
+
+	void inserted() {
+		inserted++;
+	}
+
+	void updated() {
+		updated++;
+	}
+
+	void failed(int record, String message) {
+		failed++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add("Registro " + record + ": " + message);
+		}
+	}
+
+	void interrupted(int record, String message) {
+		complete = false;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add("Leitura interrompida no registro " + record + ": "
+					+ message);
+		}
+	}
+
+	public int getInserted() {
+		return inserted;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Indica se o arquivo foi lido at o final. Quando o arquivo possui um erro
+	 * de formato, os registros anteriores ao erro permanecem importados.
+	 *
+	 * @return boolean
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public boolean hasErrors() {
+		return failed > 0 || !complete;
+	}
+
+	/**
+	 * Retorna as mensagens de erro, limitadas a MAX_ERRORS.
+	 *
+	 * @return List<String>
+	 */
+	public List<String> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+
+	@Override
+	public String toString() {
+		return "Inseridos: " + inserted + ", atualizados: " + updated
+				+ ", rejeitados: " + failed + (complete ? "" : " (incompleta)");
+	}
+}
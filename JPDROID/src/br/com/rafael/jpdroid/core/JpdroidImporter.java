@@ -0,0 +1,418 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import android.graphics.Bitmap;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ForeignKey;
+import br.com.rafael.jpdroid.annotations.PrimaryKey;
+import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
+import br.com.rafael.jpdroid.enums.ImportMode;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+import br.com.rafael.jpdroid.interfaces.IJpdroidStatement;
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+import br.com.rafael.jpdroid.interfaces.ITypeConverter;
+import br.com.rafael.jpdroid.util.JpdroidBase64;
+
+/**
+ * Importa os registros lidos de um IRecordReader diretamente para a tabela
+ * da entidade, atravs de comandos compilados. <br>
+ * Os comandos so compilados uma nica vez para cada conjunto de colunas
+ * presentes nos registros, e as alteraes so efetivadas em lotes. <br>
+ * Pode ser utilizado fora do Android atravs do JpdroidJdbcDatabase.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidImporter {
+
+	/**
+	 * Coluna da entidade e a forma de converso do valor lido.
+	 */
+	private static class ImportColumn {
+		final String name;
+		final Class<?> type;
+		final boolean primaryKey;
+		final boolean foreignKey;
+		final boolean epochMillis;
+
+		ImportColumn(Field field, String name) {
+			this.name = name;
+			this.type = field.getType();
+			this.primaryKey = field.getAnnotation(PrimaryKey.class) != null;
+			this.foreignKey = field.getAnnotation(ForeignKey.class) != null;
+			this.epochMillis = JpdroidDateUtil.isEpochMillis(field);
+		}
+	}
+
+	private final IJpdroidDatabase database;
+
+	private final String tableName;
+
+	private final ImportMode mode;
+
+	private final ImportColumn[] columns;
+
+	private final HashMap<String, Integer> columnIndex = new HashMap<String, Integer>();
+
+	private final BitSet keys = new BitSet();
+
+	private final HashMap<BitSet, IJpdroidStatement> inserts = new HashMap<BitSet, IJpdroidStatement>();
+
+	private final HashMap<BitSet, IJpdroidStatement> updates = new HashMap<BitSet, IJpdroidStatement>();
+
+	private IJpdroidStatement exists;
+
+	public JpdroidImporter(IJpdroidDatabase database, Class<?> entity, ImportMode mode) {
+		this.database = database;
+		this.tableName = entity.getSimpleName();
+		this.mode = mode;
+
+		List<ImportColumn> list = new ArrayList<ImportColumn>();
+		int pk = -1;
+		for (Field field : entity.getDeclaredFields()) {
+			Column column = field.getAnnotation(Column.class);
+			if (column == null) {
+				continue;
+			}
+			String name = "".equals(column.name()) ? field.getName() : column
+					.name();
+			ImportColumn importColumn = new ImportColumn(field, name);
+			int index = list.size();
+			list.add(importColumn);
+			// Aceita tanto o nome da coluna quanto o nome do atributo.
+			columnIndex.put(name, index);
+			columnIndex.put(field.getName(), index);
+			if (column.unique()) {
+				keys.set(index);
+			} else if (importColumn.primaryKey) {
+				pk = index;
+			}
+		}
+		if (keys.isEmpty() && pk >= 0) {
+			keys.set(pk);
+		}
+		columns = list.toArray(new ImportColumn[list.size()]);
+	}
+
+	/**
+	 * Importa todos os registros do leitor.
+	 *
+	 * @param reader
+	 * @param batchSize
+	 *            - Quantidade de registros efetivados por transao.
+	 * @return JpdroidImportResult
+	 * @throws Exception
+	 */
+	public JpdroidImportResult run(IRecordReader reader, int batchSize)
+			throws Exception {
+		JpdroidImportResult result = new JpdroidImportResult();
+		Object[] values = new Object[columns.length];
+		BitSet present = new BitSet(columns.length);
+		int record = 0;
+		int pending = 0;
+		database.beginTransaction();
+		try {
+			while (true) {
+				Map<String, Object> source;
+				try {
+					source = reader.nextRecord();
+				} catch (Exception e) {
+					result.interrupted(record + 1, e.getMessage());
+					break;
+				}
+				if (source == null) {
+					break;
+				}
+				record++;
+				try {
+					importRecord(source, values, present, result);
+				} catch (Exception e) {
+					result.failed(record, e.getMessage());
+				}
+				if (++pending >= batchSize) {
+					database.setTransactionSuccessful();
+					database.endTransaction();
+					database.beginTransaction();
+					pending = 0;
+				}
+			}
+			database.setTransactionSuccessful();
+		} finally {
+			database.endTransaction();
+			close();
+		}
+		return result;
+	}
+
+	private void importRecord(Map<String, Object> source, Object[] values,
+			BitSet present, JpdroidImportResult result) throws Exception {
+		present.clear();
+		for (Map.Entry<String, Object> entry : source.entrySet()) {
+			Integer index = columnIndex.get(entry.getKey());
+			if (index == null) {
+				continue;
+			}
+			ImportColumn column = columns[index];
+			Object value = convert(entry.getValue(), column);
+			if (column.primaryKey
+					&& (value == null || (value instanceof Number && ((Number) value)
+							.longValue() == 0))) {
+				// Chave gerada pelo banco.
+				continue;
+			}
+			values[index] = value;
+			present.set(index);
+		}
+		if (present.isEmpty()) {
+			throw new Exception("nenhuma coluna da entidade " + tableName
+					+ " foi encontrada.");
+		}
+
+		boolean hasKeys = !keys.isEmpty();
+		for (int i = keys.nextSetBit(0); i >= 0; i = keys.nextSetBit(i + 1)) {
+			hasKeys &= present.get(i);
+		}
+		if (mode == ImportMode.UPSERT && hasKeys && exists(values)) {
+			IJpdroidStatement update = getUpdate(present);
+			if (update != null) {
+				int position = 1;
+				for (int i = present.nextSetBit(0); i >= 0; i = present
+						.nextSetBit(i + 1)) {
+					if (!keys.get(i)) {
+						bind(update, position++, values[i], columns[i]);
+					}
+				}
+				for (int i = keys.nextSetBit(0); i >= 0; i = keys
+						.nextSetBit(i + 1)) {
+					bind(update, position++, values[i], columns[i]);
+				}
+				update.execute();
+			}
+			result.updated();
+		} else {
+			IJpdroidStatement insert = getInsert(present);
+			int position = 1;
+			for (int i = present.nextSetBit(0); i >= 0; i = present
+					.nextSetBit(i + 1)) {
+				bind(insert, position++, values[i], columns[i]);
+			}
+			insert.executeInsert();
+			result.inserted();
+		}
+	}
+
+	private boolean exists(Object[] values) throws Exception {
+		if (exists == null) {
+			StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ")
+					.append(tableName).append(" WHERE ");
+			appendKeys(sql);
+			exists = database.compileStatement(sql.toString());
+		}
+		int position = 1;
+		for (int i = keys.nextSetBit(0); i >= 0; i = keys.nextSetBit(i + 1)) {
+			bind(exists, position++, values[i], columns[i]);
+		}
+		return exists.simpleQueryForLong() > 0;
+	}
+
+	private IJpdroidStatement getInsert(BitSet present) throws Exception {
+		IJpdroidStatement statement = inserts.get(present);
+		if (statement == null) {
+			StringBuilder sql = new StringBuilder("INSERT INTO ").append(
+					tableName).append(" (");
+			StringBuilder params = new StringBuilder();
+			for (int i = present.nextSetBit(0); i >= 0; i = present
+					.nextSetBit(i + 1)) {
+				if (params.length() > 0) {
+					sql.append(", ");
+					params.append(", ");
+				}
+				sql.append(columns[i].name);
+				params.append('?');
+			}
+			sql.append(") VALUES (").append(params).append(')');
+			statement = database.compileStatement(sql.toString());
+			inserts.put((BitSet) present.clone(), statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Retorna o comando de atualizao das colunas presentes, ou null quando o
+	 * registro possui apenas as colunas chave.
+	 */
+	private IJpdroidStatement getUpdate(BitSet present) throws Exception {
+		if (updates.containsKey(present)) {
+			return updates.get(present);
+		}
+		StringBuilder sql = new StringBuilder("UPDATE ").append(tableName)
+				.append(" SET ");
+		boolean first = true;
+		for (int i = present.nextSetBit(0); i >= 0; i = present
+				.nextSetBit(i + 1)) {
+			if (!keys.get(i)) {
+				if (!first) {
+					sql.append(", ");
+				}
+				sql.append(columns[i].name).append(" = ?");
+				first = false;
+			}
+		}
+		IJpdroidStatement statement = null;
+		if (!first) {
+			sql.append(" WHERE ");
+			appendKeys(sql);
+			statement = database.compileStatement(sql.toString());
+		}
+		updates.put((BitSet) present.clone(), statement);
+		return statement;
+	}
+
+	private void appendKeys(StringBuilder sql) {
+		boolean first = true;
+		for (int i = keys.nextSetBit(0); i >= 0; i = keys.nextSetBit(i + 1)) {
+			if (!first) {
+				sql.append(" AND ");
+			}
+			sql.append(columns[i].name).append(" = ?");
+			first = false;
+		}
+	}
+
+	private static void bind(IJpdroidStatement statement, int position,
+			Object value, ImportColumn column) throws Exception {
+		if (value == null) {
+			statement.bindNull(position);
+		} else if (column.epochMillis) {
+			statement.bindLong(position, JpdroidDateUtil.toMillis(value));
+		} else if (value instanceof byte[]) {
+			statement.bindBlob(position, (byte[]) value);
+		} else {
+			JpdroidTypeConverters.bind(statement, position, value);
+		}
+	}
+
+	/**
+	 * Converte o valor lido para o tipo do atributo. Textos vazios so
+	 * considerados nulos, exceto em colunas do tipo texto. Os tipos registrados
+	 * em JpdroidTypeConverters so importados no formato da coluna (TEXT,
+	 * INTEGER, REAL ou BLOB), o mesmo gerado pela exportao.
+	 */
+	private static Object convert(Object value, ImportColumn column)
+			throws Exception {
+		Class<?> type = column.type;
+		if (value == null || type.isInstance(value)
+				&& !(column.foreignKey && value instanceof Number)) {
+			return value;
+		}
+		if (value instanceof String && type != String.class) {
+			String text = ((String) value).trim();
+			if (text.length() == 0) {
+				return null;
+			}
+			value = text;
+		}
+		String name = type.getSimpleName();
+		if (type == String.class) {
+			return value.toString();
+		} else if ("long".equalsIgnoreCase(name) || "int".equals(name)
+				|| "Integer".equals(name) || "short".equalsIgnoreCase(name)) {
+			long number = value instanceof Number ? ((Number) value)
+					.longValue() : new BigDecimal(value.toString())
+					.longValueExact();
+			if (column.foreignKey && number == 0) {
+				return null;
+			}
+			if ("long".equalsIgnoreCase(name)) {
+				return number;
+			}
+			if ("short".equalsIgnoreCase(name)) {
+				return (short) number;
+			}
+			return (int) number;
+		} else if ("double".equalsIgnoreCase(name)
+				|| "float".equalsIgnoreCase(name)) {
+			double number = value instanceof Number ? ((Number) value)
+					.doubleValue() : Double.parseDouble(value.toString()
+					.replace(',', '.'));
+			return "double".equalsIgnoreCase(name) ? (Object) number
+					: (Object) (float) number;
+		} else if ("boolean".equalsIgnoreCase(name)) {
+			if (value instanceof Number) {
+				return ((Number) value).longValue() != 0;
+			}
+			return JpdroidTypeConverters.toBoolean(value.toString());
+		} else if (type == byte[].class || type == Bitmap.class) {
+			// Bitmap  gravado com os bytes da imagem, sem decodificar.
+			return JpdroidBase64.decode(value.toString());
+		} else if (Date.class.isAssignableFrom(type)
+				|| Calendar.class.isAssignableFrom(type)) {
+			Object date = value instanceof Number ? JpdroidDateUtil.convert(
+					((Number) value).longValue(), type) : JpdroidDateUtil
+					.convert(value.toString(), type);
+			if (date == null) {
+				throw new Exception("data invlida em " + column.name + ": "
+						+ value);
+			}
+			return date;
+		} else if (type.isEnum()) {
+			for (Object constant : type.getEnumConstants()) {
+				if (((Enum<?>) constant).name().equals(value.toString())) {
+					return constant;
+				}
+			}
+			throw new Exception("valor invlido em " + column.name + ": "
+					+ value);
+		} else if (type == BigDecimal.class) {
+			return new BigDecimal(value.toString());
+		} else if (type == UUID.class) {
+			return UUID.fromString(value.toString());
+		}
+		ITypeConverter<Object> converter = JpdroidTypeConverters.get(type);
+		if (converter != null) {
+			String sqlType = converter.getSqlType();
+			if ("INTEGER".equalsIgnoreCase(sqlType)) {
+				return value instanceof Number ? ((Number) value).longValue()
+						: new BigDecimal(value.toString()).longValueExact();
+			} else if ("REAL".equalsIgnoreCase(sqlType)) {
+				return value instanceof Number ? ((Number) value)
+						.doubleValue() : Double.parseDouble(value.toString());
+			} else if ("BLOB".equalsIgnoreCase(sqlType)) {
+				return JpdroidBase64.decode(value.toString());
+			}
+			return value.toString();
+		}
+		throw new Exception("tipo " + name + " no suportado na importao ("
+				+ column.name + ").");
+	}
+
+	private void close() {
+		for (IJpdroidStatement statement : inserts.values()) {
+			close(statement);
+		}
+		for (IJpdroidStatement statement : updates.values()) {
+			close(statement);
+		}
+		close(exists);
+	}
+
+	private void close(IJpdroidStatement statement) {
+		if (statement == null) {
+			return;
+		}
+		try {
+			statement.close();
+		} catch (Exception e) {
+			database.log("Erro close()", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.enums.EventType;
+import br.com.rafael.jpdroid.interfaces.IJpdroidListener;
+
+/**
+ * Registra em memria o histograma de durao das operaes, agrupadas pelo
+ * tipo do evento e pelo formato do sql (ou pela tabela, quando no houver
+ * sql). <br>
+ * Ex: <br>
+ * JpdroidMetrics metrics = new JpdroidMetrics(); <br>
+ * jpdroid.addListener(metrics); <br>
+ * ... <br>
+ * Log.d("Jpdroid", metrics.toString());
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidMetrics implements IJpdroidListener {
+
+	/**
+	 * Limite superior, em milissegundos, de cada faixa do histograma. A ltima
+	 * faixa contm as duraes acima de 4096ms.
+	 */
+	public static final long[] BUCKETS = { 1, 2, 4, 8, 16, 32, 64, 128, 256,
+			512, 1024, 2048, 4096 };
+
+	/**
+	 * Quantidade mxima de grupos mantidos. As operaes excedentes so
+	 * agrupadas em OTHERS.
+	 */
+	public static final int MAX_KEYS = 500;
+
+	public static final String OTHERS = "outros";
+
+	/**
+	 * Estatsticas de um grupo de operaes.
+	 */
+	public static class Histogram {
+		private final EventType type;
+		private final String key;
+		private final long[] buckets = new long[BUCKETS.length + 1];
+		private long count;
+		private long errors;
+		private long totalNanos;
+		private long maxNanos;
+		private long rows;
+
+		Histogram(EventType type, String key) {
+			this.type = type;
+			this.key = key;
+		}
+
+		Histogram(Histogram other) {
+			this(other.type, other.key);
+			System.arraycopy(other.buckets, 0, buckets, 0, buckets.length);
+			count = other.count;
+			errors = other.errors;
+			totalNanos = other.totalNanos;
+			maxNanos = other.maxNanos;
+			rows = other.rows;
+		}
+
+		void record(JpdroidEvent event) {
+			long nanos = event.getDurationNanos();
+			long millis = nanos / 1000000;
+			int bucket = 0;
+			while (bucket < BUCKETS.length && millis >= BUCKETS[bucket]) {
+				bucket++;
+			}
+			buckets[bucket]++;
+			count++;
+			totalNanos += nanos;
+			if (nanos > maxNanos) {
+				maxNanos = nanos;
+			}
+			if (event.isError()) {
+				errors++;
+			}
+			rows += Math.max(event.getRowsAffected(), 0)
+					+ Math.max(event.getRowsMapped(), 0);
+		}
+
+		public EventType getType() {
+			return type;
+		}
+
+		/**
+		 * Formato do sql ou tabela do grupo.
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public double getTotalMillis() {
+			return totalNanos / 1000000d;
+		}
+
+		public double getMaxMillis() {
+			return maxNanos / 1000000d;
+		}
+
+		public double getMeanMillis() {
+			return count == 0 ? 0 : getTotalMillis() / count;
+		}
+
+		/**
+		 * Registros afetados e lidos pelas operaes do grupo.
+		 */
+		public long getRows() {
+			return rows;
+		}
+
+		/**
+		 * Quantidade de operaes em cada faixa de BUCKETS.
+		 */
+		public long[] getBuckets() {
+			return buckets.clone();
+		}
+
+		/**
+		 * Retorna o limite superior da faixa que contm o percentual
+		 * informado, ou a maior durao quando estiver na ltima faixa.
+		 *
+		 * @param percentile
+		 *            - Entre 0 e 100.
+		 * @return double - Milissegundos.
+		 */
+		public double getPercentileMillis(double percentile) {
+			long target = (long) Math.ceil(count * percentile / 100d);
+			long total = 0;
+			for (int i = 0; i < BUCKETS.length; i++) {
+				total += buckets[i];
+				if (total >= target && total > 0) {
+					return Math.min(BUCKETS[i], getMaxMillis());
+				}
+			}
+			return getMaxMillis();
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + count + "x total="
+					+ String.format("%.1f", getTotalMillis()) + "ms mdia="
+					+ String.format("%.2f", getMeanMillis()) + "ms p95<="
+					+ String.format("%.1f", getPercentileMillis(95))
+					+ "ms max=" + String.format("%.1f", getMaxMillis())
+					+ "ms" + (errors > 0 ? " erros=" + errors : "") + " "
+					+ key;
+		}
+	}
+
+	private final LinkedHashMap<String, Histogram> histograms = new LinkedHashMap<String, Histogram>();
+
+	@Override
+	public synchronized void onEvent(JpdroidEvent event) {
+		String key = event.getSql() != null ? event.getSql() : event
+				.getTable();
+		if (key == null) {
+			key = "";
+		}
+		String mapKey = event.getType() + ":" + key;
+		Histogram histogram = histograms.get(mapKey);
+		if (histogram == null) {
+			if (histograms.size() >= MAX_KEYS) {
+				key = OTHERS;
+				mapKey = event.getType() + ":" + OTHERS;
+				histogram = histograms.get(mapKey);
+			}
+			if (histogram == null) {
+				histogram = new Histogram(event.getType(), key);
+				histograms.put(mapKey, histogram);
+			}
+		}
+		histogram.record(event);
+	}
+
+	/**
+	 * Retorna uma cpia das estatsticas, ordenadas pelo tempo total.
+	 *
+	 * @return List<Histogram>
+	 */
+	public synchronized List<Histogram> getHistograms() {
+		List<Histogram> list = new ArrayList<Histogram>(histograms.size());
+		for (Histogram histogram : histograms.values()) {
+			list.add(new Histogram(histogram));
+		}
+		Collections.sort(list, new Comparator<Histogram>() {
+			@Override
+			public int compare(Histogram h1, Histogram h2) {
+				return h1.totalNanos < h2.totalNanos ? 1
+						: h1.totalNanos > h2.totalNanos ? -1 : 0;
+			}
+		});
+		return list;
+	}
+
+	/**
+	 * Retorna as estatsticas agrupadas apenas pelo tipo do evento.
+	 *
+	 * @return Map<EventType, Histogram>
+	 */
+	public synchronized Map<EventType, Histogram> getTotals() {
+		LinkedHashMap<EventType, Histogram> totals = new LinkedHashMap<EventType, Histogram>();
+		for (Histogram histogram : histograms.values()) {
+			Histogram total = totals.get(histogram.type);
+			if (total == null) {
+				total = new Histogram(histogram.type, "");
+				totals.put(histogram.type, total);
+			}
+			for (int i = 0; i < total.buckets.length; i++) {
+				total.buckets[i] += histogram.buckets[i];
+			}
+			total.count += histogram.count;
+			total.errors += histogram.errors;
+			total.totalNanos += histogram.totalNanos;
+			total.maxNanos = Math.max(total.maxNanos, histogram.maxNanos);
+			total.rows += histogram.rows;
+		}
+		return totals;
+	}
+
+	public synchronized void reset() {
+		histograms.clear();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		for (Histogram histogram : getHistograms()) {
+			report.append(histogram).append('\n');
+		}
+		return report.toString();
+	}
+}
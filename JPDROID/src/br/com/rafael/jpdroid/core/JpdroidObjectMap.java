@@ -1,21 +1,19 @@
 package br.com.rafael.jpdroid.core;
 
-import java.io.ByteArrayOutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
-import android.annotation.SuppressLint;
 import android.content.ContentValues;
-import android.graphics.Bitmap;
 import android.util.Log;
 import br.com.rafael.jpdroid.annotations.Column;
 import br.com.rafael.jpdroid.annotations.DefaultOrder;
 import br.com.rafael.jpdroid.annotations.ForeignKey;
 import br.com.rafael.jpdroid.annotations.PrimaryKey;
 import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
 import br.com.rafael.jpdroid.enums.RelationType;
 
 /**
@@ -25,6 +23,8 @@ import br.com.rafael.jpdroid.enums.RelationType;
  */
 public class JpdroidObjectMap {
 
+	private static final HashMap<Class<?>, Field[]> columnFields = new HashMap<Class<?>, Field[]>();
+
 	/**
 	 * Retorna as chaves estrangeiras identificadas pela anotao ForeignKey
 	 * 
@@ -105,6 +105,19 @@ public class JpdroidObjectMap {
 		return null;
 	}
 
+	public static Field getFieldByAnnotation(Class<?> entity,
+			Class<? extends Annotation> annotationClass) {
+		Field[] fields = entity.getDeclaredFields();
+		for (Field field : fields) {
+
+			if (field.getAnnotation(annotationClass) != null) {
+				return field;
+			}
+
+		}
+		return null;
+	}
+
 	/**
 	 * Retorna os campos configurados pela anotao Order.
 	 * 
@@ -210,14 +223,24 @@ public class JpdroidObjectMap {
 	 *            - Instncia da entidade.
 	 * @return - ContentValues
 	 */
-	@SuppressLint("SimpleDateFormat")
 	public static ContentValues getContentvalues(Object object) {
-		Class<?> entity = object.getClass();
+		return getContentvalues(object, object.getClass().getDeclaredFields());
+	}
+
+	/**
+	 * Retorna o ContentValues contendo apenas os campos informados.
+	 * 
+	 * @param object
+	 *            - Instncia da entidade.
+	 * @param fields
+	 *            - Campos da entidade.
+	 * @return - ContentValues
+	 */
+	public static ContentValues getContentvalues(Object object, Field[] fields) {
 
 		ContentValues values = new ContentValues();
 		String columnName = null;
 
-		Field[] fields = entity.getDeclaredFields();
 		for (Field field : fields) {
 
 			PrimaryKey annotationId = field.getAnnotation(PrimaryKey.class);
@@ -236,47 +259,20 @@ public class JpdroidObjectMap {
 
 				try {
 					field.setAccessible(true);
-					if (foreignKey != null && field.get(object) == null
-							|| String.valueOf(field.get(object)).equals("0")) {
-
+					Object value = field.get(object);
+					// Chave estrangeira sem valor (null ou 0)  gravada como
+					// nula.
+					if (foreignKey != null
+							&& (value == null || (value instanceof Number && ((Number) value)
+									.longValue() == 0))) {
+						values.putNull(columnName);
 						continue;
-
 					}
-					if (("Byte[]".equalsIgnoreCase(field.getType()
-							.getSimpleName()))
-							|| ("Bitmap".equalsIgnoreCase(field.getType()
-									.getSimpleName()))) {
-						ByteArrayOutputStream baos = new ByteArrayOutputStream();
-						Bitmap foto = null;
-
-						Object valor = field.get(object);
-						if (valor != null) {
-							foto = (Bitmap) valor;
-						}
-
-						if (foto != null) {
-							foto.compress(Bitmap.CompressFormat.PNG, 100, baos);
-							byte[] photo = baos.toByteArray();
-
-							values.put(columnName, photo);
-						}
-					} else if (("java.util.Date".equals(field.getType()
-							.getName()))
-							|| ("java.sql.Date".equals(field.getName()))
-							|| ("Calendar".equals(field.getType()
-									.getSimpleName()))) {
-
-						Object dateValue = field.get(object);
-						if (dateValue != null) {
-							values.put(columnName, new SimpleDateFormat(
-									"yyyy-MM-dd HH:mm:ss").format(dateValue));
-						} else {
-							values.put(columnName, String.valueOf(dateValue));
-						}
-					} else {
-						values.put(columnName,
-								String.valueOf(field.get(object)));
+					if (value != null && JpdroidDateUtil.isEpochMillis(field)) {
+						values.put(columnName, JpdroidDateUtil.toMillis(value));
+						continue;
 					}
+					JpdroidTypeConverters.put(values, columnName, value);
 
 				} catch (Exception e) {
 					Log.e("getContentvalues", e.getMessage());
@@ -286,6 +282,31 @@ public class JpdroidObjectMap {
 		return values;
 	}
 
+	/**
+	 * Retorna os campos anotados com Column, exceto a chave primria.
+	 * 
+	 * @param entity
+	 * @return Field[]
+	 */
+	public static Field[] getColumnFields(Class<?> entity) {
+		synchronized (columnFields) {
+			Field[] fields = columnFields.get(entity);
+			if (fields == null) {
+				List<Field> list = new ArrayList<Field>();
+				for (Field field : entity.getDeclaredFields()) {
+					if (field.getAnnotation(Column.class) != null
+							&& field.getAnnotation(PrimaryKey.class) == null) {
+						field.setAccessible(true);
+						list.add(field);
+					}
+				}
+				fields = list.toArray(new Field[list.size()]);
+				columnFields.put(entity, fields);
+			}
+			return fields;
+		}
+	}
+
 	public static List<ForeignKey> getForeingKeys(Class<?> entity) {
 		List<ForeignKey> fk = new ArrayList<ForeignKey>();
 
@@ -0,0 +1,452 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import android.database.Cursor;
+import android.database.CursorWindow;
+import android.database.MatrixCursor;
+import android.database.sqlite.SQLiteCursor;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.annotations.ViewColumn;
+import br.com.rafael.jpdroid.enums.RelationType;
+
+/**
+ * Cache de resultados de consultas (segundo nvel). As entradas so
+ * identificadas pelo sql normalizado e pelos parmetros da consulta, e so
+ * invalidadas sempre que uma das tabelas consultadas for alterada. <br>
+ * Apenas entidades anotadas com Cacheable so mantidas no cache. O cache
+ * guarda uma cpia das entidades e cada consulta atendida por ele recebe uma
+ * nova cpia, de forma que alteraes feitas pelo chamador no afetam as
+ * demais consultas.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidQueryCache {
+
+	private static final Pattern WRITE_STATEMENT = Pattern
+			.compile(
+					"^\\s*(?:INSERT(?:\\s+OR\\s+\\w+)?\\s+INTO|REPLACE\\s+INTO|UPDATE(?:\\s+OR\\s+\\w+)?|DELETE\\s+FROM|UPSERT)\\s+[\"'`\\[]?(\\w+)",
+					Pattern.CASE_INSENSITIVE);
+
+	private static final int TYPE_NULL = 0;
+
+	private static final int TYPE_LONG = 1;
+
+	private static final int TYPE_FLOAT = 2;
+
+	private static final int TYPE_STRING = 3;
+
+	private static final int TYPE_BLOB = 4;
+
+	private static final HashMap<String, Set<String>> dependentTables = new HashMap<String, Set<String>>();
+
+	private final int maxEntries;
+
+	private final LinkedHashMap<String, Entry> entries;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	private long invalidationCount;
+
+	private static class Entry {
+		Set<String> tables;
+		Object value;
+
+		Entry(Set<String> tables, Object value) {
+			this.tables = tables;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Resultado de uma consulta armazenado de forma independente do cursor.
+	 */
+	static class CursorSnapshot {
+		String[] columns;
+		List<Object[]> rows;
+
+		MatrixCursor toCursor() {
+			MatrixCursor cursor = new MatrixCursor(columns, rows.size());
+			for (Object[] row : rows) {
+				cursor.addRow(row);
+			}
+			return cursor;
+		}
+	}
+
+	public JpdroidQueryCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > JpdroidQueryCache.this.maxEntries) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Retorna a chave do cache para a consulta.
+	 *
+	 * @param sql
+	 * @param args
+	 * @return String
+	 */
+	public static String key(String sql, String[] args) {
+		StringBuilder key = new StringBuilder(sql.length() + 16);
+		boolean quoted = false;
+		boolean space = false;
+		for (int i = 0; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+			}
+			if (!quoted && Character.isWhitespace(c)) {
+				space = key.length() > 0;
+				continue;
+			}
+			if (space) {
+				key.append(' ');
+				space = false;
+			}
+			key.append(c);
+		}
+		if (args != null) {
+			for (String arg : args) {
+				key.append('\u0001').append(arg);
+			}
+		}
+		return key.toString();
+	}
+
+	public synchronized Object get(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return entry.value;
+	}
+
+	public synchronized void put(String key, Set<String> tables, Object value) {
+		entries.put(key, new Entry(tables, value));
+	}
+
+	/**
+	 * Remove as entradas que dependem da tabela informada.
+	 *
+	 * @param table
+	 */
+	public synchronized void invalidate(String table) {
+		String name = table.trim().toUpperCase(Locale.US);
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			if (it.next().tables.contains(name)) {
+				it.remove();
+				invalidationCount++;
+			}
+		}
+	}
+
+	/**
+	 * Remove as entradas afetadas pelo comando sql. Quando no for possvel
+	 * identificar a tabela alterada todo o cache  removido.
+	 *
+	 * @param sql
+	 */
+	public void invalidateFor(String sql) {
+		String table = getWriteTable(sql);
+		if (table == null) {
+			if (!isReadOnly(sql)) {
+				invalidateAll();
+			}
+		} else {
+			invalidate(table);
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		invalidationCount += entries.size();
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public synchronized long getInvalidationCount() {
+		return invalidationCount;
+	}
+
+	/**
+	 * Percentual de consultas atendidas pelo cache (0 a 1).
+	 *
+	 * @return double
+	 */
+	public synchronized double getHitRatio() {
+		long total = hitCount + missCount;
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	public synchronized void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+		invalidationCount = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "JpdroidQueryCache [size=" + entries.size() + "/" + maxEntries
+				+ ", hits=" + hitCount + ", misses=" + missCount
+				+ ", evictions=" + evictionCount + ", invalidations="
+				+ invalidationCount + "]";
+	}
+
+	/**
+	 * Retorna a tabela alterada pelo comando sql ou null.
+	 *
+	 * @param sql
+	 * @return String
+	 */
+	static String getWriteTable(String sql) {
+		Matcher matcher = WRITE_STATEMENT.matcher(sql);
+		if (matcher.find()) {
+			return matcher.group(1);
+		}
+		return null;
+	}
+
+	private static boolean isReadOnly(String sql) {
+		String comando = sql.trim().toUpperCase(Locale.US);
+		return comando.length() == 0 || comando.startsWith("SELECT")
+				|| comando.startsWith("PRAGMA FOREIGN_KEYS");
+	}
+
+	/**
+	 * Retorna as tabelas consultadas ao recuperar a entidade.
+	 *
+	 * @param entity
+	 * @param fillRelationClass
+	 * @return Set<String>
+	 */
+	static Set<String> getDependentTables(Class<?> entity,
+			boolean fillRelationClass) {
+		String key = entity.getName() + fillRelationClass;
+		synchronized (dependentTables) {
+			Set<String> tables = dependentTables.get(key);
+			if (tables == null) {
+				tables = new HashSet<String>();
+				collectTables(entity, fillRelationClass, tables,
+						new ArrayList<Class<?>>());
+				dependentTables.put(key, tables);
+			}
+			return tables;
+		}
+	}
+
+	private static void collectTables(Class<?> entity,
+			boolean fillRelationClass, Set<String> tables,
+			List<Class<?>> visited) {
+		if (visited.contains(entity)) {
+			return;
+		}
+		visited.add(entity);
+		tables.add(entity.getSimpleName().toUpperCase(Locale.US));
+
+		for (Field field : entity.getDeclaredFields()) {
+			ViewColumn viewColumn = field.getAnnotation(ViewColumn.class);
+			if (viewColumn != null) {
+				tables.add(viewColumn.entity().getSimpleName()
+						.toUpperCase(Locale.US));
+			}
+			RelationClass relationClass = field
+					.getAnnotation(RelationClass.class);
+			if (relationClass == null || !fillRelationClass) {
+				continue;
+			}
+			Class<?> type = field.getType();
+			if (type.isAssignableFrom(List.class)) {
+				type = (Class<?>) ((ParameterizedType) field.getGenericType())
+						.getActualTypeArguments()[0];
+			}
+			if (relationClass.relationType() == RelationType.ManyToMany) {
+				tables.add(relationClass.joinTable().toUpperCase(Locale.US));
+			}
+			collectTables(type, fillRelationClass, tables, visited);
+		}
+	}
+
+	/**
+	 * Copia a lista de entidades, incluindo as classes relacionadas. Objetos
+	 * referenciados mais de uma vez continuam compartilhados dentro da cpia.
+	 *
+	 * @param entityList
+	 * @return List<Object>
+	 * @throws Exception
+	 */
+	static List<Object> copy(List<?> entityList) throws Exception {
+		IdentityHashMap<Object, Object> copies = new IdentityHashMap<Object, Object>();
+		List<Object> copy = new ArrayList<Object>(entityList.size());
+		for (Object item : entityList) {
+			copy.add(copyValue(item, copies));
+		}
+		return copy;
+	}
+
+	private static Object copyValue(Object value,
+			IdentityHashMap<Object, Object> copies) throws Exception {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof Date) {
+			return ((Date) value).clone();
+		}
+		if (value instanceof Calendar) {
+			return ((Calendar) value).clone();
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		Object copy = copies.get(value);
+		if (copy != null) {
+			return copy;
+		}
+		if (value instanceof List) {
+			List<Object> list = new ArrayList<Object>(((List<?>) value).size());
+			copies.put(value, list);
+			for (Object item : (List<?>) value) {
+				list.add(copyValue(item, copies));
+			}
+			return list;
+		}
+		Class<?> type = value.getClass();
+		String name = type.getName();
+		if (type.isEnum() || type.isArray() || name.startsWith("java.")
+				|| name.startsWith("android.")) {
+			// Valores imutveis (String, nmeros, enums, Bitmap).
+			return value;
+		}
+		Constructor<?> constructor = type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		copy = constructor.newInstance();
+		copies.put(value, copy);
+		for (Field field : type.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			field.set(copy, copyValue(field.get(value), copies));
+		}
+		return copy;
+	}
+
+	/**
+	 * Copia o resultado do cursor. Retorna null quando o resultado possuir
+	 * colunas BLOB, que no so mantidas no cache.
+	 *
+	 * @param cursor
+	 * @return CursorSnapshot
+	 */
+	static CursorSnapshot snapshot(Cursor cursor) {
+		CursorSnapshot snapshot = new CursorSnapshot();
+		snapshot.columns = cursor.getColumnNames();
+		snapshot.rows = new ArrayList<Object[]>(cursor.getCount());
+
+		CursorWindow window = null;
+		if (cursor instanceof SQLiteCursor) {
+			window = ((SQLiteCursor) cursor).getWindow();
+		}
+		int totalColumn = cursor.getColumnCount();
+		cursor.moveToPosition(-1);
+		while (cursor.moveToNext()) {
+			Object[] row = new Object[totalColumn];
+			int position = cursor.getPosition();
+			for (int i = 0; i < totalColumn; i++) {
+				int type = window == null ? TYPE_STRING : getType(window,
+						position, i);
+				if (type == TYPE_NULL) {
+					row[i] = null;
+				} else if (type == TYPE_BLOB) {
+					cursor.moveToPosition(-1);
+					return null;
+				} else if (type == TYPE_LONG) {
+					row[i] = cursor.getLong(i);
+				} else if (type == TYPE_FLOAT) {
+					row[i] = cursor.getDouble(i);
+				} else {
+					row[i] = cursor.getString(i);
+				}
+			}
+			snapshot.rows.add(row);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Tipo do valor da coluna na janela do cursor. Cursor.getType() s existe a
+	 * partir da API 11; na API 7 o tipo  obtido pelos mtodos is* da
+	 * CursorWindow, depreciados nas verses mais novas.
+	 *
+	 * @param window
+	 * @param position
+	 * @param column
+	 * @return int
+	 */
+	@SuppressWarnings("deprecation")
+	private static int getType(CursorWindow window, int position, int column) {
+		if (window.isNull(position, column)) {
+			return TYPE_NULL;
+		} else if (window.isBlob(position, column)) {
+			return TYPE_BLOB;
+		} else if (window.isLong(position, column)) {
+			return TYPE_LONG;
+		} else if (window.isFloat(position, column)) {
+			return TYPE_FLOAT;
+		}
+		return TYPE_STRING;
+	}
+}
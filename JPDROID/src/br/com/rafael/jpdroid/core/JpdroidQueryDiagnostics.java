@@ -0,0 +1,396 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ForeignKey;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.enums.RelationType;
+
+/**
+ * Diagnstico das consultas geradas pelo Jpdroid. <br>
+ * Cada formato de consulta (sql sem os valores literais)  analisado uma
+ * nica vez com EXPLAIN QUERY PLAN. As varreduras completas em tabelas com ao
+ * menos rowThreshold registros so sinalizadas, e as colunas filtradas nessas
+ * consultas, assim como as colunas de juno (ForeignKey e RelationClass) sem
+ * ndice, so sugeridas para indexao. <br>
+ * Destinado a builds de depurao.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidQueryDiagnostics {
+
+	private static final Pattern LITERAL = Pattern
+			.compile("'(?:[^']|'')*'|(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final Pattern FROM_WHERE = Pattern.compile(
+			"\\bfrom\\s+(\\w+)(?:\\s+(?:as\\s+)?(?!where\\b)\\w+)?\\s+where\\b",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern CLAUSE_END = Pattern.compile(
+			"\\b(?:order\\s+by|group\\s+by|limit)\\b", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern PREDICATE = Pattern
+			.compile(
+					"(\\w+)\\s*(?:=|<\\>|!=|<=|>=|<|>|\\bin\\b|\\blike\\b|\\bbetween\\b|\\bis\\b|\\bglob\\b)",
+					Pattern.CASE_INSENSITIVE);
+
+	private static final Set<String> KEYWORDS = new HashSet<String>();
+
+	static {
+		for (String keyword : new String[] { "AND", "OR", "NOT", "NULL",
+				"WHERE", "SELECT", "_ID", "ROWID" }) {
+			KEYWORDS.add(keyword);
+		}
+	}
+
+	private final int rowThreshold;
+
+	private final LinkedHashMap<String, Shape> shapes = new LinkedHashMap<String, Shape>();
+
+	private final LinkedHashMap<String, JpdroidQueryReport.IndexSuggestion> observed = new LinkedHashMap<String, JpdroidQueryReport.IndexSuggestion>();
+
+	private static class Shape {
+		String sql;
+		List<String> steps = new ArrayList<String>();
+		List<String> fullScans = new ArrayList<String>();
+		long executions;
+	}
+
+	/**
+	 * @param rowThreshold
+	 *            - Quantidade mnima de registros para que a varredura
+	 *            completa de uma tabela seja sinalizada.
+	 */
+	public JpdroidQueryDiagnostics(int rowThreshold) {
+		this.rowThreshold = rowThreshold;
+	}
+
+	public int getRowThreshold() {
+		return rowThreshold;
+	}
+
+	/**
+	 * Retorna o formato da consulta, com os valores literais substitudos por
+	 * ? e os espaos normalizados.
+	 *
+	 * @param sql
+	 * @return String
+	 */
+	public static String shape(String sql) {
+		String shape = LITERAL.matcher(sql).replaceAll("?");
+		return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Registra a execuo da consulta, analisando o plano de execuo quando
+	 * o formato ainda no foi analisado.
+	 *
+	 * @param database
+	 * @param sql
+	 */
+	public synchronized void analyze(SQLiteDatabase database, String sql) {
+		String key = shape(sql);
+		Shape shape = shapes.get(key);
+		if (shape == null) {
+			shape = new Shape();
+			shape.sql = sql;
+			shapes.put(key, shape);
+			try {
+				explain(database, shape);
+			} catch (Exception e) {
+				shape.steps.add("Erro: " + e.getMessage());
+				Log.e("Erro analyze()", e.getMessage());
+			}
+		}
+		shape.executions++;
+	}
+
+	/**
+	 * Remove os formatos analisados.
+	 */
+	public synchronized void clear() {
+		shapes.clear();
+		observed.clear();
+	}
+
+	private void explain(SQLiteDatabase database, Shape shape) {
+		Set<String> tables = getTables(database);
+		Cursor cursor = database.rawQuery("EXPLAIN QUERY PLAN " + shape.sql,
+				null);
+		try {
+			int detailIndex = cursor.getColumnIndex("detail");
+			if (detailIndex < 0) {
+				detailIndex = cursor.getColumnCount() - 1;
+			}
+			while (cursor.moveToNext()) {
+				String detail = cursor.getString(detailIndex);
+				if (detail == null) {
+					continue;
+				}
+				shape.steps.add(detail);
+				String table = getScannedTable(detail, tables);
+				if (table != null && !shape.fullScans.contains(table)
+						&& count(database, table) >= rowThreshold) {
+					shape.fullScans.add(table);
+				}
+			}
+		} finally {
+			cursor.close();
+		}
+		for (String table : shape.fullScans) {
+			for (String column : getPredicates(shape.sql, table)) {
+				String key = table.toUpperCase(Locale.US) + "."
+						+ column.toUpperCase(Locale.US);
+				if (!observed.containsKey(key)
+						&& !isIndexed(database, table, column)) {
+					observed.put(key, new JpdroidQueryReport.IndexSuggestion(
+							table, column,
+							"filtro em consulta com varredura completa"));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retorna a tabela lida por completo na linha do plano, ou null quando a
+	 * linha utiliza um ndice. Reconhece os formatos "TABLE x" (SQLite 3.6),
+	 * "SCAN TABLE x" e "SCAN x".
+	 */
+	static String getScannedTable(String detail, Set<String> tables) {
+		String[] tokens = WHITESPACE.split(detail.trim());
+		int i = 0;
+		if ("SCAN".equalsIgnoreCase(tokens[0])) {
+			i++;
+		} else if (!"TABLE".equalsIgnoreCase(tokens[0])) {
+			// SEARCH, USE TEMP B-TREE, subconsultas...
+			return null;
+		}
+		if (i < tokens.length && "TABLE".equalsIgnoreCase(tokens[i])) {
+			i++;
+		}
+		if (i >= tokens.length) {
+			return null;
+		}
+		String table = tokens[i];
+		String upper = detail.toUpperCase(Locale.US);
+		if (!tables.contains(table.toUpperCase(Locale.US))
+				|| upper.contains(" USING ") || upper.contains(" WITH INDEX")
+				|| upper.contains("PRIMARY KEY")
+				|| upper.contains("VIRTUAL TABLE")) {
+			return null;
+		}
+		return table;
+	}
+
+	/**
+	 * Retorna as colunas filtradas no where da tabela, ignorando as
+	 * subconsultas.
+	 */
+	static Set<String> getPredicates(String sql, String table) {
+		Set<String> columns = new LinkedHashSet<String>();
+		Matcher from = FROM_WHERE.matcher(sql);
+		while (from.find()) {
+			if (!from.group(1).equalsIgnoreCase(table)) {
+				continue;
+			}
+			StringBuilder clause = new StringBuilder();
+			int depth = 0;
+			for (int i = from.end(); i < sql.length(); i++) {
+				char c = sql.charAt(i);
+				if (c == '(') {
+					depth++;
+				} else if (c == ')') {
+					if (depth == 0) {
+						break;
+					}
+					depth--;
+					c = ' ';
+				}
+				clause.append(depth > 0 ? ' ' : c);
+			}
+			String where = clause.toString();
+			Matcher end = CLAUSE_END.matcher(where);
+			if (end.find()) {
+				where = where.substring(0, end.start());
+			}
+			Matcher predicate = PREDICATE.matcher(where);
+			while (predicate.find()) {
+				String column = predicate.group(1);
+				if (!Character.isDigit(column.charAt(0))
+						&& !KEYWORDS.contains(column.toUpperCase(Locale.US))) {
+					columns.add(column);
+				}
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Gera o relatrio com os planos analisados e os ndices sugeridos.
+	 *
+	 * @param database
+	 * @param entities
+	 *            - Entidades cujas colunas de juno devem ser verificadas.
+	 * @return JpdroidQueryReport
+	 */
+	public synchronized JpdroidQueryReport getReport(SQLiteDatabase database,
+			Collection<Class<?>> entities) {
+		List<JpdroidQueryReport.QueryPlan> plans = new ArrayList<JpdroidQueryReport.QueryPlan>();
+		for (Map.Entry<String, Shape> entry : shapes.entrySet()) {
+			Shape shape = entry.getValue();
+			plans.add(new JpdroidQueryReport.QueryPlan(entry.getKey(),
+					shape.sql, new ArrayList<String>(shape.steps),
+					new ArrayList<String>(shape.fullScans), shape.executions));
+		}
+
+		LinkedHashMap<String, JpdroidQueryReport.IndexSuggestion> suggestions = new LinkedHashMap<String, JpdroidQueryReport.IndexSuggestion>(
+				observed);
+		for (Class<?> entity : entities) {
+			for (String[] join : getJoinColumns(entity)) {
+				String key = join[0].toUpperCase(Locale.US) + "."
+						+ join[1].toUpperCase(Locale.US);
+				if (!suggestions.containsKey(key)) {
+					try {
+						if (!isIndexed(database, join[0], join[1])) {
+							suggestions.put(key,
+									new JpdroidQueryReport.IndexSuggestion(
+											join[0], join[1], join[2]));
+						}
+					} catch (Exception e) {
+						Log.e("Erro getReport()", e.getMessage());
+					}
+				}
+			}
+		}
+		return new JpdroidQueryReport(rowThreshold, plans,
+				new ArrayList<JpdroidQueryReport.IndexSuggestion>(
+						suggestions.values()));
+	}
+
+	/**
+	 * Retorna as colunas utilizadas nas junes da entidade, no formato
+	 * {tabela, coluna, motivo}.
+	 */
+	static List<String[]> getJoinColumns(Class<?> entity) {
+		List<String[]> joins = new ArrayList<String[]>();
+		for (Field field : entity.getDeclaredFields()) {
+			ForeignKey foreignKey = field.getAnnotation(ForeignKey.class);
+			if (foreignKey != null) {
+				Column column = field.getAnnotation(Column.class);
+				String columnName = column == null || "".equals(column.name()) ? field
+						.getName() : column.name();
+				joins.add(new String[] { entity.getSimpleName(), columnName,
+						"chave estrangeira para "
+								+ foreignKey.joinEntity().getSimpleName() });
+			}
+			RelationClass relationClass = field
+					.getAnnotation(RelationClass.class);
+			if (relationClass == null) {
+				continue;
+			}
+			String reason = "coluna de juno de " + entity.getSimpleName()
+					+ "." + field.getName();
+			if (field.getType().isAssignableFrom(List.class)) {
+				if (!(field.getGenericType() instanceof ParameterizedType)) {
+					continue;
+				}
+				Class<?> child = (Class<?>) ((ParameterizedType) field
+						.getGenericType()).getActualTypeArguments()[0];
+				if (relationClass.relationType() == RelationType.ManyToMany) {
+					// O ndice nico da tabela de juno inicia pela entidade.
+					joins.add(new String[] { relationClass.joinTable(),
+							"_id" + entity.getSimpleName(), reason });
+					joins.add(new String[] { relationClass.joinTable(),
+							"_id" + child.getSimpleName(), reason });
+				} else if (relationClass.joinColumn().length() > 0) {
+					joins.add(new String[] { child.getSimpleName(),
+							relationClass.joinColumn(), reason });
+				}
+			} else if (relationClass.relationType() == RelationType.ManyToOne
+					&& relationClass.joinColumn().length() > 0) {
+				// OneToMany e OneToOne so carregadas pela chave primria.
+				joins.add(new String[] { field.getType().getSimpleName(),
+						relationClass.joinColumn(), reason });
+			}
+		}
+		return joins;
+	}
+
+	private static Set<String> getTables(SQLiteDatabase database) {
+		Set<String> tables = new HashSet<String>();
+		Cursor cursor = database.rawQuery(
+				"SELECT name FROM sqlite_master WHERE type = 'table'", null);
+		try {
+			while (cursor.moveToNext()) {
+				tables.add(cursor.getString(0).toUpperCase(Locale.US));
+			}
+		} finally {
+			cursor.close();
+		}
+		return tables;
+	}
+
+	private static long count(SQLiteDatabase database, String table) {
+		Cursor cursor = database.rawQuery("SELECT COUNT(*) FROM " + table,
+				null);
+		try {
+			return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+		} finally {
+			cursor.close();
+		}
+	}
+
+	/**
+	 * Indica se a coluna  a primeira coluna de algum ndice da tabela.
+	 */
+	private static boolean isIndexed(SQLiteDatabase database, String table,
+			String column) {
+		List<String> indexes = new ArrayList<String>();
+		Cursor cursor = database.rawQuery("PRAGMA index_list(" + table + ")",
+				null);
+		try {
+			int nameIndex = cursor.getColumnIndex("name");
+			while (cursor.moveToNext()) {
+				indexes.add(cursor.getString(nameIndex));
+			}
+		} finally {
+			cursor.close();
+		}
+		for (String index : indexes) {
+			cursor = database.rawQuery("PRAGMA index_info(" + index + ")",
+					null);
+			try {
+				int seqIndex = cursor.getColumnIndex("seqno");
+				int nameIndex = cursor.getColumnIndex("name");
+				while (cursor.moveToNext()) {
+					if (cursor.getInt(seqIndex) == 0
+							&& column.equalsIgnoreCase(cursor
+									.getString(nameIndex))) {
+						return true;
+					}
+				}
+			} finally {
+				cursor.close();
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,173 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Relatrio do diagnstico de consultas: o plano de execuo de cada formato
+ * de consulta executado, as varreduras completas em tabelas acima do limite
+ * de registros e os ndices sugeridos.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidQueryReport {
+
+	/**
+	 * Plano de execuo de um formato de consulta. O formato  o sql com os
+	 * valores literais substitudos por ?.
+	 */
+	public static class QueryPlan {
+		private final String shape;
+		private final String sql;
+		private final List<String> steps;
+		private final List<String> fullScans;
+		private final long executions;
+
+		QueryPlan(String shape, String sql, List<String> steps,
+				List<String> fullScans, long executions) {
+			this.shape = shape;
+			this.sql = sql;
+			this.steps = Collections.unmodifiableList(steps);
+			this.fullScans = Collections.unmodifiableList(fullScans);
+			this.executions = executions;
+		}
+
+		public String getShape() {
+			return shape;
+		}
+
+		/**
+		 * Primeiro sql executado com este formato, utilizado no EXPLAIN QUERY
+		 * PLAN.
+		 */
+		public String getSql() {
+			return sql;
+		}
+
+		/**
+		 * Linhas retornadas pelo EXPLAIN QUERY PLAN.
+		 */
+		public List<String> getSteps() {
+			return steps;
+		}
+
+		/**
+		 * Tabelas lidas por completo e que possuem ao menos o limite de
+		 * registros configurado.
+		 */
+		public List<String> getFullScans() {
+			return fullScans;
+		}
+
+		public boolean hasFullScan() {
+			return !fullScans.isEmpty();
+		}
+
+		public long getExecutions() {
+			return executions;
+		}
+	}
+
+	/**
+	 * ndice sugerido para uma coluna.
+	 */
+	public static class IndexSuggestion {
+		private final String table;
+		private final String column;
+		private final String reason;
+
+		IndexSuggestion(String table, String column, String reason) {
+			this.table = table;
+			this.column = column;
+			this.reason = reason;
+		}
+
+		public String getTable() {
+			return table;
+		}
+
+		public String getColumn() {
+			return column;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		/**
+		 * Comando de criao do ndice sugerido.
+		 */
+		public String toSql() {
+			return "CREATE INDEX IF NOT EXISTS index_" + table + "_" + column
+					+ " ON " + table + " (" + column + ")";
+		}
+
+		@Override
+		public String toString() {
+			return toSql() + "; -- " + reason;
+		}
+	}
+
+	private final int rowThreshold;
+
+	private final List<QueryPlan> plans;
+
+	private final List<IndexSuggestion> suggestions;
+
+	JpdroidQueryReport(int rowThreshold, List<QueryPlan> plans,
+			List<IndexSuggestion> suggestions) {
+		this.rowThreshold = rowThreshold;
+		this.plans = Collections.unmodifiableList(plans);
+		this.suggestions = Collections.unmodifiableList(suggestions);
+	}
+
+	public int getRowThreshold() {
+		return rowThreshold;
+	}
+
+	public List<QueryPlan> getPlans() {
+		return plans;
+	}
+
+	/**
+	 * Retorna apenas os planos com varredura completa.
+	 *
+	 * @return List<QueryPlan>
+	 */
+	public List<QueryPlan> getFullScans() {
+		List<QueryPlan> fullScans = new ArrayList<QueryPlan>();
+		for (QueryPlan plan : plans) {
+			if (plan.hasFullScan()) {
+				fullScans.add(plan);
+			}
+		}
+		return fullScans;
+	}
+
+	public List<IndexSuggestion> getSuggestions() {
+		return suggestions;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		report.append("Consultas analisadas: ").append(plans.size())
+				.append(" (limite de varredura: ").append(rowThreshold)
+				.append(" registros)\n");
+		for (QueryPlan plan : plans) {
+			report.append(plan.hasFullScan() ? "[SCAN] " : "[OK] ")
+					.append(plan.getShape()).append(" (")
+					.append(plan.getExecutions()).append("x)\n");
+			for (String step : plan.getSteps()) {
+				report.append("    ").append(step).append('\n');
+			}
+		}
+		report.append("ndices sugeridos: ").append(suggestions.size())
+				.append('\n');
+		for (IndexSuggestion suggestion : suggestions) {
+			report.append("    ").append(suggestion).append('\n');
+		}
+		return report.toString();
+	}
+}
@@ -0,0 +1,302 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import android.database.Cursor;
+import android.graphics.BitmapFactory;
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ViewColumn;
+import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
+
+/**
+ * Preenche as colunas de uma entidade a partir da linha atual do cursor. <br>
+ * Os campos e a forma de atribuio de cada tipo so definidos uma nica vez
+ * por entidade, e o ndice de cada coluna  obtido uma nica vez por cursor.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidRowMapper<T> {
+
+	private static final HashMap<Class<?>, Binding[]> bindings = new HashMap<Class<?>, Binding[]>();
+
+	private final Binding[] entityBindings;
+
+	private final int[] columnIndexes;
+
+	private final Jpdroid jpdroid;
+
+	/**
+	 * Campo da entidade, coluna de origem e forma de atribuio do valor.
+	 */
+	private static class Binding {
+		final Field field;
+		final String columnName;
+		final Setter setter;
+
+		Binding(Field field, String columnName, Setter setter) {
+			this.field = field;
+			this.columnName = columnName;
+			this.setter = setter;
+		}
+	}
+
+	private static abstract class Setter {
+		abstract void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception;
+	}
+
+	private static final Setter STRING = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.getString(index));
+		}
+	};
+
+	private static final Setter DATE = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target,
+					JpdroidDateUtil.convert(cursor.getString(index),
+							field.getType()));
+		}
+	};
+
+	private static final Setter DATE_MILLIS = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : JpdroidDateUtil
+					.convert(cursor.getLong(index), field.getType()));
+		}
+	};
+
+	private static final Setter BOOLEAN = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : Boolean
+					.valueOf(cursor.getInt(index) != 0));
+		}
+	};
+
+	private static final Setter PRIMITIVE_BOOLEAN = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setBoolean(target, cursor.getInt(index) != 0);
+		}
+	};
+
+	/**
+	 * Tipos atribudos atravs do conversor registrado em
+	 * JpdroidTypeConverters.
+	 */
+	private static final Setter CONVERTER = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target,
+					JpdroidTypeConverters.read(cursor, index, field.getType()));
+		}
+	};
+
+	private static final Setter DOUBLE = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : cursor.getDouble(index));
+		}
+	};
+
+	private static final Setter PRIMITIVE_DOUBLE = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setDouble(target, cursor.getDouble(index));
+		}
+	};
+
+	private static final Setter FLOAT = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : cursor.getFloat(index));
+		}
+	};
+
+	private static final Setter PRIMITIVE_FLOAT = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setFloat(target, cursor.getFloat(index));
+		}
+	};
+
+	private static final Setter INTEGER = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : cursor.getInt(index));
+		}
+	};
+
+	private static final Setter PRIMITIVE_INT = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setInt(target, cursor.getInt(index));
+		}
+	};
+
+	private static final Setter LONG = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : cursor.getLong(index));
+		}
+	};
+
+	private static final Setter PRIMITIVE_LONG = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setLong(target, cursor.getLong(index));
+		}
+	};
+
+	private static final Setter SHORT = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.set(target, cursor.isNull(index) ? null : cursor.getShort(index));
+		}
+	};
+
+	private static final Setter PRIMITIVE_SHORT = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			field.setShort(target, cursor.getShort(index));
+		}
+	};
+
+	private static final Setter BLOB = new Setter() {
+		@Override
+		void set(Field field, Object target, Cursor cursor, int index,
+				Jpdroid jpdroid) throws Exception {
+			byte[] blob = cursor.getBlob(index);
+			if (blob == null) {
+				return;
+			}
+			boolean bytes = field.getType() == byte[].class;
+			if (JpdroidBlobStore.isReference(blob)) {
+				field.set(target, bytes ? jpdroid.getBlobStore()
+						.readBytes(blob) : jpdroid.getBlobStore().readBitmap(
+						blob));
+			} else if (bytes) {
+				field.set(target, blob);
+			} else {
+				field.set(target,
+						BitmapFactory.decodeByteArray(blob, 0, blob.length));
+			}
+		}
+	};
+
+	/**
+	 * Resolve os ndices das colunas da entidade no cursor informado.
+	 *
+	 * @param entity
+	 * @param cursor
+	 * @param jpdroid
+	 */
+	public JpdroidRowMapper(Class<T> entity, Cursor cursor, Jpdroid jpdroid) {
+		this.entityBindings = getBindings(entity);
+		this.jpdroid = jpdroid;
+		this.columnIndexes = new int[entityBindings.length];
+		for (int i = 0; i < entityBindings.length; i++) {
+			columnIndexes[i] = cursor
+					.getColumnIndex(entityBindings[i].columnName);
+		}
+	}
+
+	/**
+	 * Atribui os valores da linha atual do cursor s colunas da entidade.
+	 *
+	 * @param cursor
+	 * @param target
+	 * @throws Exception
+	 */
+	public void map(Cursor cursor, T target) throws Exception {
+		for (int i = 0; i < entityBindings.length; i++) {
+			if (columnIndexes[i] >= 0) {
+				Binding binding = entityBindings[i];
+				binding.setter.set(binding.field, target, cursor,
+						columnIndexes[i], jpdroid);
+			}
+		}
+	}
+
+	private static Binding[] getBindings(Class<?> entity) {
+		synchronized (bindings) {
+			Binding[] entityBindings = bindings.get(entity);
+			if (entityBindings == null) {
+				List<Binding> list = new ArrayList<Binding>();
+				for (Field field : entity.getDeclaredFields()) {
+					Column column = field.getAnnotation(Column.class);
+					if (column != null) {
+						Setter setter = JpdroidDateUtil.isEpochMillis(field) ? DATE_MILLIS
+								: getSetter(field.getType());
+						if (setter != null) {
+							field.setAccessible(true);
+							list.add(new Binding(field, "".equals(column
+									.name()) ? field.getName() : column.name(),
+									setter));
+						}
+					} else if (field.getAnnotation(ViewColumn.class) != null) {
+						// Coluna retornada pela subconsulta da consulta
+						// principal.
+						field.setAccessible(true);
+						list.add(new Binding(field, field.getName(), STRING));
+					}
+				}
+				entityBindings = list.toArray(new Binding[list.size()]);
+				bindings.put(entity, entityBindings);
+			}
+			return entityBindings;
+		}
+	}
+
+	private static Setter getSetter(Class<?> type) {
+		String name = type.getSimpleName();
+		if ("String".equalsIgnoreCase(name)) {
+			return STRING;
+		} else if (("java.util.Date".equals(type.getName()))
+				|| ("java.sql.Date".equals(type.getName()))
+				|| ("Calendar".equals(name))) {
+			return DATE;
+		} else if ("Boolean".equalsIgnoreCase(name)) {
+			return type.isPrimitive() ? PRIMITIVE_BOOLEAN : BOOLEAN;
+		} else if ("Double".equalsIgnoreCase(name)) {
+			return type.isPrimitive() ? PRIMITIVE_DOUBLE : DOUBLE;
+		} else if ("Float".equalsIgnoreCase(name)) {
+			return type.isPrimitive() ? PRIMITIVE_FLOAT : FLOAT;
+		} else if (("Integer".equals(name)) || ("int".equals(name))) {
+			return type.isPrimitive() ? PRIMITIVE_INT : INTEGER;
+		} else if ("Long".equalsIgnoreCase(name)) {
+			return type.isPrimitive() ? PRIMITIVE_LONG : LONG;
+		} else if ("Short".equalsIgnoreCase(name)) {
+			return type.isPrimitive() ? PRIMITIVE_SHORT : SHORT;
+		} else if (("Byte[]".equalsIgnoreCase(name))
+				|| ("Bitmap".equalsIgnoreCase(name))) {
+			return BLOB;
+		} else if (JpdroidTypeConverters.get(type) != null) {
+			return CONVERTER;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,444 @@
+package br.com.rafael.jpdroid.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.annotations.Column;
+import br.com.rafael.jpdroid.annotations.ForeignKey;
+import br.com.rafael.jpdroid.annotations.PrimaryKey;
+import br.com.rafael.jpdroid.annotations.RelationClass;
+import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
+import br.com.rafael.jpdroid.enums.RelationType;
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.IJpdroidCursor;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+import br.com.rafael.jpdroid.interfaces.IJpdroidStatement;
+
+/**
+ * Criao das tabelas das entidades atravs de um IJpdroidDatabase. <br>
+ * Utilizada pelo JpdroidDbHelper no Android e, com o JpdroidJdbcDatabase,
+ * para criar o banco de dados fora do Android. <br>
+ * Ex: <br>
+ * JpdroidSchema schema = new JpdroidSchema(); <br>
+ * schema.addClass(Pessoa.class); <br>
+ * schema.createTables(JpdroidJdbcDatabase.open("pedidos.db"));
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidSchema {
+
+	/**
+	 * Tabela com a impresso digital do modelo das entidades utilizado na
+	 * criao das tabelas.
+	 */
+	public static final String METADATA_TABLE = "jpdroid_metadata";
+
+	public static final String FINGERPRINT = "fingerprint";
+
+	public static final String STAMP = "stamp";
+
+	private final List<Class<?>> entidades = new ArrayList<Class<?>>();
+
+	private boolean validated = false;
+
+	private String fingerprint;
+
+	private boolean dropTable = false;
+
+	public boolean isDropTable() {
+		return dropTable;
+	}
+
+	/**
+	 * Indica se as tabelas existentes devem ser excludas antes da criao.
+	 * 
+	 * @param dropTable
+	 */
+	public void setDropTable(boolean dropTable) {
+		this.dropTable = dropTable;
+	}
+
+	/**
+	 * Adiciona a entidade. A validao  realizada apenas quando as tabelas
+	 * precisarem ser criadas.
+	 * 
+	 * @param entity
+	 */
+	public void addClass(Class<?> entity) {
+		if (!entidades.contains(entity)) {
+			entidades.add(entity);
+			validated = false;
+			fingerprint = null;
+		}
+	}
+
+	public List<Class<?>> getEntidades() {
+		return entidades;
+	}
+
+	/**
+	 * Valida as entidades adicionadas.
+	 * 
+	 * @throws JpdroidException
+	 */
+	public void validate() throws JpdroidException {
+		if (!validated) {
+			JpdroidEntityValidation validation = new JpdroidEntityValidation();
+			for (Class<?> entity : entidades) {
+				validation.addClass(entity);
+			}
+			validated = true;
+		}
+	}
+
+	public static String getSqlType(Field field) throws JpdroidException {
+		if (JpdroidDateUtil.isEpochMillis(field)) {
+			return "INTEGER";
+		}
+		return JpdroidTypeConverters.getSqlType(field.getType());
+	}
+
+	/**
+	 * Cria as tabelas de todas as entidades adicionadas em uma nica
+	 * transao e grava a impresso digital do modelo.
+	 * 
+	 * @param db
+	 * @throws Exception
+	 */
+	public void createTables(IJpdroidDatabase db) throws Exception {
+		validate();
+		db.beginTransaction();
+		try {
+			for (Class<?> entity : entidades) {
+				createTable(db, entity);
+			}
+			writeMetadata(db, FINGERPRINT, getFingerprint());
+			db.setTransactionSuccessful();
+		} finally {
+			db.endTransaction();
+		}
+	}
+
+	/**
+	 * Verifica, ao abrir o banco de dados, se as tabelas correspondem s
+	 * entidades. <br>
+	 * Quando o stamp (identificao da verso da aplicao)  o mesmo gravado
+	 * no banco, nenhuma verificao  realizada. Caso contrrio  comparada a
+	 * impresso digital do modelo e, somente se for diferente, as entidades
+	 * so validadas e as tabelas inexistentes so criadas.
+	 * 
+	 * @param db
+	 * @param stamp
+	 *            - null quando no disponvel.
+	 * @return boolean - Indica se as tabelas foram verificadas.
+	 * @throws Exception
+	 */
+	public boolean bootstrap(IJpdroidDatabase db, String stamp)
+			throws Exception {
+		Map<String, String> metadata = readMetadata(db);
+		if (stamp != null && stamp.equals(metadata.get(STAMP))) {
+			return false;
+		}
+		boolean created = false;
+		if (!getFingerprint().equals(metadata.get(FINGERPRINT))) {
+			createTables(db);
+			created = true;
+		}
+		if (stamp != null) {
+			writeMetadata(db, STAMP, stamp);
+		}
+		return created;
+	}
+
+	/**
+	 * Retorna o hash (SHA-1) do modelo das entidades: nome das classes,
+	 * atributos, tipos das colunas e anotaes com seus parmetros. As
+	 * entidades e atributos so ordenados pelo nome, para que o resultado
+	 * independa da ordem de adio e da ordem dos atributos na mquina
+	 * virtual.
+	 * 
+	 * @return String
+	 * @throws JpdroidException
+	 */
+	public String getFingerprint() throws JpdroidException {
+		if (fingerprint != null) {
+			return fingerprint;
+		}
+		List<String> model = new ArrayList<String>();
+		for (Class<?> entity : entidades) {
+			StringBuilder description = new StringBuilder(entity.getName());
+			describe(description, entity.getAnnotations());
+			List<String> fields = new ArrayList<String>();
+			for (Field field : entity.getDeclaredFields()) {
+				Annotation[] annotations = field.getAnnotations();
+				if (annotations.length == 0) {
+					continue;
+				}
+				StringBuilder column = new StringBuilder(field.getName())
+						.append(':').append(field.getType().getName());
+				if (field.getAnnotation(Column.class) != null) {
+					column.append(':').append(getSqlType(field));
+				}
+				describe(column, annotations);
+				fields.add(column.toString());
+			}
+			Collections.sort(fields);
+			for (String field : fields) {
+				description.append('|').append(field);
+			}
+			model.add(description.toString());
+		}
+		Collections.sort(model);
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (String description : model) {
+				digest.update(description.getBytes("UTF-8"));
+				digest.update((byte) '\n');
+			}
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hex.append(String.format("%02x", b & 0xff));
+			}
+			fingerprint = hex.toString();
+		} catch (Exception e) {
+			throw new JpdroidException(e.getMessage());
+		}
+		return fingerprint;
+	}
+
+	private static void describe(StringBuilder description,
+			Annotation[] annotations) throws JpdroidException {
+		List<String> list = new ArrayList<String>();
+		for (Annotation annotation : annotations) {
+			StringBuilder text = new StringBuilder("@").append(annotation
+					.annotationType().getSimpleName());
+			Method[] methods = annotation.annotationType().getDeclaredMethods();
+			Arrays.sort(methods, new Comparator<Method>() {
+				@Override
+				public int compare(Method m1, Method m2) {
+					return m1.getName().compareTo(m2.getName());
+				}
+			});
+			for (Method method : methods) {
+				Object value;
+				try {
+					value = method.invoke(annotation);
+				} catch (Exception e) {
+					throw new JpdroidException(e.getMessage());
+				}
+				if (value instanceof Class) {
+					value = ((Class<?>) value).getName();
+				} else if (value instanceof Object[]) {
+					value = Arrays.toString((Object[]) value);
+				}
+				text.append(' ').append(method.getName()).append('=')
+						.append(value);
+			}
+			list.add(text.toString());
+		}
+		Collections.sort(list);
+		for (String text : list) {
+			description.append(text);
+		}
+	}
+
+	private static Map<String, String> readMetadata(IJpdroidDatabase db) {
+		Map<String, String> metadata = new HashMap<String, String>();
+		try {
+			IJpdroidCursor cursor = db.rawQuery("SELECT key, value FROM "
+					+ METADATA_TABLE, null);
+			try {
+				while (cursor.moveToNext()) {
+					metadata.put(cursor.getString(0), cursor.getString(1));
+				}
+			} finally {
+				cursor.close();
+			}
+		} catch (Exception e) {
+			// Banco criado por verses anteriores, sem a tabela.
+		}
+		return metadata;
+	}
+
+	private static void writeMetadata(IJpdroidDatabase db, String key,
+			String value) throws Exception {
+		db.execSQL("CREATE TABLE IF NOT EXISTS " + METADATA_TABLE
+				+ " (key TEXT PRIMARY KEY, value TEXT)");
+		IJpdroidStatement statement = db.compileStatement("INSERT OR REPLACE INTO "
+				+ METADATA_TABLE + " (key, value) VALUES (?, ?)");
+		try {
+			statement.bindString(1, key);
+			statement.bindString(2, value);
+			statement.execute();
+		} finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Cria a tabela da entidade, as tabelas de juno ManyToMany, o ndice
+	 * das colunas unique e a tabela de pesquisa textual. Em tabelas
+	 * existentes os valores booleanos gravados como texto ('true' e 'false')
+	 * so convertidos para 1 e 0.
+	 * 
+	 * @param db
+	 * @param entity
+	 * @throws Exception
+	 */
+	public void createTable(IJpdroidDatabase db, Class<?> entity)
+			throws Exception {
+
+		String tableName;
+		String columnName;
+		String columnType;
+		int count, pos = 0;
+
+		StringBuilder createTable = new StringBuilder();
+		StringBuilder createPrimaryKey = new StringBuilder();
+		StringBuilder createColuns = new StringBuilder();
+		StringBuilder createForeinKey = new StringBuilder();
+		StringBuilder createUnique = new StringBuilder();
+		List<String> booleanColumns = new ArrayList<String>();
+		tableName = entity.getSimpleName();
+
+		if (isDropTable()) {
+			db.execSQL(" DROP TABLE IF EXISTS " + tableName + "; ");
+		}
+		createTable.append(" CREATE TABLE IF NOT EXISTS ");
+
+		createTable.append(tableName + "(");
+
+		Field[] fields = entity.getDeclaredFields();
+		Collections.reverse(Arrays.asList(fields));
+		count = fields.length;
+		for (Field field : fields) {
+			pos++;
+			PrimaryKey annotationPrimaryKey = field
+					.getAnnotation(PrimaryKey.class);
+			Column annotationColumn = field.getAnnotation(Column.class);
+			ForeignKey annotationForeingKey = field
+					.getAnnotation(ForeignKey.class);
+			RelationClass annotationRelationClass = field.getAnnotation(RelationClass.class);
+
+			if (annotationColumn != null) {
+
+				if ("".equals(annotationColumn.name())) {
+					columnName = field.getName();
+				} else {
+					columnName = annotationColumn.name();
+				}
+
+				columnType = getSqlType(field);
+
+				if (annotationPrimaryKey != null) {
+					createPrimaryKey.append(columnName + " " + columnType);
+					createPrimaryKey.append(" PRIMARY KEY ");
+					if (annotationPrimaryKey.autoGenerate()) {
+						createPrimaryKey.append(" AUTOINCREMENT ");
+					}
+					createPrimaryKey.append(" NOT NULL ");
+
+				} else {
+
+					createColuns.append(",");
+					createColuns.append(columnName + " " + columnType);
+					if (field.getType() == boolean.class
+							|| field.getType() == Boolean.class) {
+						booleanColumns.add(columnName);
+					}
+					if (!annotationColumn.nullable()) {
+						createColuns.append(" NOT NULL ");
+					}
+					if (annotationColumn.unique()) {
+						if (createUnique.length() > 0) {
+							createUnique.append(",");
+						}
+						createUnique.append(columnName);
+					}
+					if (annotationForeingKey != null) {
+						createForeinKey.append(",");
+						createForeinKey.append(" FOREIGN KEY("
+								+ columnName
+								+ ") REFERENCES "
+								+ annotationForeingKey.joinEntity()
+										.getSimpleName() + "("
+								+ annotationForeingKey.joinPrimaryKey() + ") ");
+						if (annotationForeingKey.deleteCascade()) {
+							createForeinKey.append(" ON DELETE CASCADE ");
+						}
+					}
+					
+				}
+			}else if(annotationRelationClass != null && annotationRelationClass.relationType().equals(RelationType.ManyToMany)){
+				Class<? extends Object> ob = field.getType();
+
+				field.setAccessible(true);
+				
+				if (ob.isAssignableFrom(List.class)) {
+
+					ParameterizedType fieldGenericType = (ParameterizedType) field
+							.getGenericType();
+					Class<?> fieldTypeParameterType = (Class<?>) fieldGenericType
+							.getActualTypeArguments()[0];
+				
+
+					StringBuilder createRelationTable = new StringBuilder();
+					createRelationTable.append(" CREATE TABLE IF NOT EXISTS "+annotationRelationClass.joinTable());
+					createRelationTable.append("( _id"+entity.getSimpleName()+ " INTEGER,");
+					createRelationTable.append(" _id"+fieldTypeParameterType.getSimpleName()+ " INTEGER,");
+					createRelationTable.append(" FOREIGN KEY(_id"+entity.getSimpleName()+") REFERENCES "+entity.getSimpleName()+"(_id) ON DELETE CASCADE,");
+					createRelationTable.append(" FOREIGN KEY(_id"+fieldTypeParameterType.getSimpleName()+") REFERENCES "+fieldTypeParameterType.getSimpleName()+"(_id) ON DELETE CASCADE);");
+					
+					if (isDropTable()) {
+						db.execSQL(" DROP TABLE IF EXISTS " + annotationRelationClass.joinTable() + "; ");
+					}
+					db.execSQL(createRelationTable.toString());
+
+					// Remove vnculos duplicados antes de criar o ndice nico.
+					String relationColumns = "_id" + entity.getSimpleName() + ", _id" + fieldTypeParameterType.getSimpleName();
+					db.execSQL("DELETE FROM " + annotationRelationClass.joinTable() + " WHERE rowid NOT IN (SELECT min(rowid) FROM "
+							+ annotationRelationClass.joinTable() + " GROUP BY " + relationColumns + ");");
+					db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_" + annotationRelationClass.joinTable() + " ON "
+							+ annotationRelationClass.joinTable() + "(" + relationColumns + ");");
+				}
+				else
+				{
+					throw new JpdroidException("O relacionamento ManyToMany exige que o atributo seja do tipo List<>");
+				}
+			}
+
+			if (pos == count) {
+				createTable.append(createPrimaryKey);
+				createTable.append(createColuns);
+				createTable.append(createForeinKey);
+				createTable.append("); ");
+			}
+		}
+
+		db.execSQL(createTable.toString());
+
+		// Verses anteriores gravavam os valores booleanos como texto.
+		for (String column : booleanColumns) {
+			db.execSQL("UPDATE " + tableName + " SET " + column + " = CASE "
+					+ column + " WHEN 'true' THEN 1 WHEN 'false' THEN 0 ELSE "
+					+ column + " END WHERE " + column + " IN ('true', 'false');");
+		}
+
+		if (createUnique.length() > 0) {
+			db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_" + tableName
+					+ "_unique ON " + tableName + "(" + createUnique.toString() + ");");
+		}
+
+		JpdroidFullText.create(db, entity, isDropTable());
+	}
+}
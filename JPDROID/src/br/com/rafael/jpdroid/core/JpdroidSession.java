@@ -0,0 +1,226 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.ITransaction;
+
+/**
+ * Unidade de trabalho do Jpdroid. Enquanto a sesso estiver aberta, cada
+ * registro (entidade, _id)  representado por uma nica instncia, e o
+ * carregamento das classes relacionadas reutiliza as instncias j carregadas
+ * ao invs de consultar o banco novamente. <br>
+ * <br>
+ * Ex: <br>
+ * JpdroidSession session = jpdroid.openSession(); <br>
+ * session.begin(); <br>
+ * Pedido pedido = session.find(Pedido.class, id, true); <br>
+ * session.persist(pedido); <br>
+ * session.commit(); <br>
+ * session.close();
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidSession implements ITransaction {
+
+	private Jpdroid jpdroid;
+
+	private JpdroidTransaction transaction;
+
+	private HashMap<Class<?>, HashMap<Long, Object>> identityMap = new HashMap<Class<?>, HashMap<Long, Object>>();
+
+	/**
+	 * Instncias que j tiveram as classes relacionadas preenchidas.
+	 */
+	private IdentityHashMap<Object, Boolean> filled = new IdentityHashMap<Object, Boolean>();
+
+	private boolean open = true;
+
+	private boolean active = false;
+
+	JpdroidSession(Jpdroid jpdroid) {
+		this.jpdroid = jpdroid;
+	}
+
+	/**
+	 * Retorna a instncia do registro, consultando o banco apenas se o
+	 * registro ainda no foi carregado nesta sesso.
+	 *
+	 * @param entity
+	 * @param id
+	 * @param fillRelationClass
+	 * @return
+	 */
+	public <T> T find(Class<T> entity, long id, boolean fillRelationClass) {
+		Object cached = get(entity, id, fillRelationClass);
+		if (cached != null) {
+			return entity.cast(cached);
+		}
+		List<T> objetos = jpdroid.retrieve(entity, "_id = " + id,
+				fillRelationClass);
+		if (objetos.size() > 0) {
+			return objetos.get(0);
+		}
+		return null;
+	}
+
+	public <T> T find(Class<T> entity, long id) {
+		return find(entity, id, false);
+	}
+
+	public <T> List<T> retrieve(Class<T> entity, String restrictions,
+			boolean fillRelationClass) {
+		return jpdroid.retrieve(entity, restrictions, fillRelationClass);
+	}
+
+	public void persist(Object entity) throws JpdroidException {
+		jpdroid.persist(entity);
+	}
+
+	public void delete(Object entity) {
+		jpdroid.delete(entity);
+	}
+
+	/**
+	 * Retorna a instncia carregada na sesso ou null.
+	 *
+	 * @param entity
+	 * @param id
+	 * @param fillRelationClass
+	 *            - Indica se a instncia deve possuir as classes relacionadas
+	 *            preenchidas.
+	 * @return
+	 */
+	Object get(Class<?> entity, long id, boolean fillRelationClass) {
+		HashMap<Long, Object> instances = identityMap.get(entity);
+		if (instances == null) {
+			return null;
+		}
+		Object instance = instances.get(id);
+		if (instance != null && fillRelationClass && !isFilled(instance)) {
+			return null;
+		}
+		return instance;
+	}
+
+	Object get(Class<?> entity, long id) {
+		HashMap<Long, Object> instances = identityMap.get(entity);
+		return instances == null ? null : instances.get(id);
+	}
+
+	void put(Class<?> entity, long id, Object instance) {
+		HashMap<Long, Object> instances = identityMap.get(entity);
+		if (instances == null) {
+			instances = new HashMap<Long, Object>();
+			identityMap.put(entity, instances);
+		}
+		instances.put(id, instance);
+	}
+
+	void setFilled(Object instance) {
+		filled.put(instance, Boolean.TRUE);
+	}
+
+	boolean isFilled(Object instance) {
+		return filled.containsKey(instance);
+	}
+
+	/**
+	 * Remove da sesso as instncias da tabela informada.
+	 *
+	 * @param tableName
+	 */
+	void evict(String tableName) {
+		Iterator<Map.Entry<Class<?>, HashMap<Long, Object>>> it = identityMap
+				.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Class<?>, HashMap<Long, Object>> entry = it.next();
+			if (entry.getKey().getSimpleName().equalsIgnoreCase(tableName)) {
+				for (Object instance : entry.getValue().values()) {
+					filled.remove(instance);
+				}
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Quantidade de instncias mantidas pela sesso.
+	 *
+	 * @return
+	 */
+	public int size() {
+		int size = 0;
+		for (HashMap<Long, Object> instances : identityMap.values()) {
+			size += instances.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Remove todas as instncias da sesso.
+	 */
+	public void clear() {
+		identityMap.clear();
+		filled.clear();
+	}
+
+	public boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * Inicia a transao na conexo aberta pelo Jpdroid.
+	 */
+	@Override
+	public void begin() {
+		transaction = jpdroid.getTransaction();
+		if (transaction == null) {
+			throw new IllegalStateException(
+					"O banco de dados no est aberto.");
+		}
+		transaction.begin();
+		active = true;
+	}
+
+	/**
+	 * Efetiva a transao e limpa a sesso.
+	 */
+	@Override
+	public void commit() {
+		if (active) {
+			transaction.commit();
+			transaction.end();
+			active = false;
+		}
+		clear();
+	}
+
+	/**
+	 * Finaliza a transao, desfazendo as alteraes no efetivadas, e limpa
+	 * a sesso.
+	 */
+	@Override
+	public void end() {
+		if (active) {
+			transaction.end();
+			active = false;
+		}
+		clear();
+	}
+
+	/**
+	 * Finaliza a sesso.
+	 */
+	public void close() {
+		if (open) {
+			end();
+			open = false;
+			jpdroid.closeSession(this);
+		}
+	}
+}
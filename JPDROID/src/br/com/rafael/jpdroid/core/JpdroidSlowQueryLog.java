@@ -0,0 +1,80 @@
+package br.com.rafael.jpdroid.core;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import android.util.Log;
+import br.com.rafael.jpdroid.interfaces.IJpdroidListener;
+
+/**
+ * Registra no log as operaes com durao igual ou superior ao limite
+ * configurado, mantendo em memria as ltimas ocorrncias. <br>
+ * Ex: jpdroid.addListener(new JpdroidSlowQueryLog(100));
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidSlowQueryLog implements IJpdroidListener {
+
+	public static final String TAG = "JpdroidSlowQuery";
+
+	public static final int DEFAULT_MAX_ENTRIES = 100;
+
+	private final long thresholdNanos;
+
+	private final int maxEntries;
+
+	private final LinkedList<JpdroidEvent> entries = new LinkedList<JpdroidEvent>();
+
+	/**
+	 * @param thresholdMillis
+	 *            - Durao mnima, em milissegundos, das operaes
+	 *            registradas.
+	 */
+	public JpdroidSlowQueryLog(long thresholdMillis) {
+		this(thresholdMillis, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param thresholdMillis
+	 *            - Durao mnima, em milissegundos, das operaes
+	 *            registradas.
+	 * @param maxEntries
+	 *            - Quantidade de ocorrncias mantidas em memria.
+	 */
+	public JpdroidSlowQueryLog(long thresholdMillis, int maxEntries) {
+		this.thresholdNanos = thresholdMillis * 1000000;
+		this.maxEntries = maxEntries;
+	}
+
+	@Override
+	public void onEvent(JpdroidEvent event) {
+		if (event.getDurationNanos() < thresholdNanos) {
+			return;
+		}
+		Log.w(TAG, event.toString());
+		synchronized (entries) {
+			entries.add(event);
+			if (entries.size() > maxEntries) {
+				entries.removeFirst();
+			}
+		}
+	}
+
+	/**
+	 * Retorna as ltimas operaes lentas, da mais antiga para a mais recente.
+	 *
+	 * @return List<JpdroidEvent>
+	 */
+	public List<JpdroidEvent> getEntries() {
+		synchronized (entries) {
+			return new ArrayList<JpdroidEvent>(entries);
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+}
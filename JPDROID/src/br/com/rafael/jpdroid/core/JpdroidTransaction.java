@@ -1,6 +1,9 @@
 package br.com.rafael.jpdroid.core;
 
+import java.util.ArrayList;
+
 import android.database.sqlite.SQLiteDatabase;
+import br.com.rafael.jpdroid.enums.EventType;
 import br.com.rafael.jpdroid.interfaces.ITransaction;
 
 /**
@@ -12,25 +15,64 @@ public class JpdroidTransaction implements ITransaction {
 
 	private SQLiteDatabase database;
 
+	private Jpdroid jpdroid;
+
+	/**
+	 * Incio e indicao de sucesso de cada transao aberta, para os eventos
+	 * enviados aos listeners.
+	 */
+	private final ArrayList<long[]> frames = new ArrayList<long[]>();
+
+	/**
+	 * Indica se alguma transao aninhada foi desfeita, o que desfaz tambm a
+	 * transao mais externa.
+	 */
+	private boolean rolledBack;
+
 	public JpdroidTransaction(SQLiteDatabase db) {
 		database = db;
+	}
 
+	JpdroidTransaction(SQLiteDatabase db, Jpdroid jpdroid) {
+		this(db);
+		this.jpdroid = jpdroid;
 	}
 
 	@Override
 	public void begin() {
+		long start = System.nanoTime();
 		database.beginTransaction();
+		if (jpdroid != null) {
+			frames.add(new long[] { System.nanoTime(), 0 });
+			jpdroid.fire(EventType.BEGIN_TRANSACTION, null, null, start, -1,
+					-1, null);
+		}
 	}
 
 	@Override
 	public void commit() {
 		database.setTransactionSuccessful();
+		if (!frames.isEmpty()) {
+			frames.get(frames.size() - 1)[1] = 1;
+		}
 	}
 
 	@Override
 	public void end() {
 		if (database.inTransaction()) {
 			database.endTransaction();
+			if (!frames.isEmpty()) {
+				long[] frame = frames.remove(frames.size() - 1);
+				// A durao inclui todas as operaes da transao.
+				jpdroid.fire(frame[1] == 1 ? EventType.COMMIT
+						: EventType.ROLLBACK, null, null, frame[0], -1, -1,
+						null);
+				rolledBack |= frame[1] != 1;
+				if (frames.isEmpty()) {
+					jpdroid.transactionEnded(!rolledBack);
+					rolledBack = false;
+				}
+			}
 		}
 	}
 
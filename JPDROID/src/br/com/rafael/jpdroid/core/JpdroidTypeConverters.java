@@ -0,0 +1,534 @@
+package br.com.rafael.jpdroid.core;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.UUID;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import br.com.rafael.jpdroid.converters.JpdroidDateUtil;
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.IJpdroidStatement;
+import br.com.rafael.jpdroid.interfaces.ITypeConverter;
+import br.com.rafael.jpdroid.storage.JpdroidAndroidDatabase;
+
+/**
+ * Registro dos conversores entre os tipos dos atributos e as colunas do banco
+ * de dados. <br>
+ * Nmeros so gravados com o tipo nativo (INTEGER ou REAL) e valores booleanos
+ * como 0 ou 1. Tipos no suportados podem ser adicionados atravs do mtodo
+ * register(). <br>
+ * <br>
+ * Ex: JpdroidTypeConverters.register(Moeda.class, new MoedaConverter());
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidTypeConverters {
+
+	private static final HashMap<Class<?>, ITypeConverter<?>> converters = new HashMap<Class<?>, ITypeConverter<?>>();
+
+	private static final ITypeConverter<String> STRING = new ITypeConverter<String>() {
+		@Override
+		public String getSqlType() {
+			return "TEXT";
+		}
+
+		@Override
+		public String read(Cursor cursor, int index) {
+			return cursor.getString(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, String value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, String value) {
+			statement.bindString(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Long> LONG = new ITypeConverter<Long>() {
+		@Override
+		public String getSqlType() {
+			return "INTEGER";
+		}
+
+		@Override
+		public Long read(Cursor cursor, int index) {
+			return cursor.getLong(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Long value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Long value) {
+			statement.bindLong(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Integer> INTEGER = new ITypeConverter<Integer>() {
+		@Override
+		public String getSqlType() {
+			return "INTEGER";
+		}
+
+		@Override
+		public Integer read(Cursor cursor, int index) {
+			return cursor.getInt(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Integer value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Integer value) {
+			statement.bindLong(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Short> SHORT = new ITypeConverter<Short>() {
+		@Override
+		public String getSqlType() {
+			return "INTEGER";
+		}
+
+		@Override
+		public Short read(Cursor cursor, int index) {
+			return cursor.getShort(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Short value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Short value) {
+			statement.bindLong(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Double> DOUBLE = new ITypeConverter<Double>() {
+		@Override
+		public String getSqlType() {
+			return "REAL";
+		}
+
+		@Override
+		public Double read(Cursor cursor, int index) {
+			return cursor.getDouble(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Double value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Double value) {
+			statement.bindDouble(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Float> FLOAT = new ITypeConverter<Float>() {
+		@Override
+		public String getSqlType() {
+			return "REAL";
+		}
+
+		@Override
+		public Float read(Cursor cursor, int index) {
+			return cursor.getFloat(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Float value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Float value) {
+			statement.bindDouble(index, value);
+		}
+	};
+
+	/**
+	 * Gravado como 0 ou 1. Os valores "true" e "false" gravados pelas verses
+	 * anteriores so convertidos na criao das tabelas.
+	 */
+	private static final ITypeConverter<Boolean> BOOLEAN = new ITypeConverter<Boolean>() {
+		@Override
+		public String getSqlType() {
+			return "INTEGER";
+		}
+
+		@Override
+		public Boolean read(Cursor cursor, int index) {
+			return Boolean.valueOf(cursor.getInt(index) != 0);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Boolean value) {
+			values.put(columnName, value.booleanValue() ? 1 : 0);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Boolean value) {
+			statement.bindLong(index, value.booleanValue() ? 1 : 0);
+		}
+	};
+
+	private static final ITypeConverter<byte[]> BYTES = new ITypeConverter<byte[]>() {
+		@Override
+		public String getSqlType() {
+			return "BLOB";
+		}
+
+		@Override
+		public byte[] read(Cursor cursor, int index) {
+			return cursor.getBlob(index);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, byte[] value) {
+			values.put(columnName, value);
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, byte[] value) {
+			statement.bindBlob(index, value);
+		}
+	};
+
+	private static final ITypeConverter<Bitmap> BITMAP = new ITypeConverter<Bitmap>() {
+		@Override
+		public String getSqlType() {
+			return "BLOB";
+		}
+
+		@Override
+		public Bitmap read(Cursor cursor, int index) {
+			byte[] blob = cursor.getBlob(index);
+			return BitmapFactory.decodeByteArray(blob, 0, blob.length);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, Bitmap value) {
+			values.put(columnName, compress(value));
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, Bitmap value) {
+			statement.bindBlob(index, compress(value));
+		}
+	};
+
+	private static final ITypeConverter<BigDecimal> BIG_DECIMAL = new ITypeConverter<BigDecimal>() {
+		@Override
+		public String getSqlType() {
+			return "TEXT";
+		}
+
+		@Override
+		public BigDecimal read(Cursor cursor, int index) {
+			return new BigDecimal(cursor.getString(index));
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName,
+				BigDecimal value) {
+			values.put(columnName, value.toPlainString());
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, BigDecimal value) {
+			statement.bindString(index, value.toPlainString());
+		}
+	};
+
+	private static final ITypeConverter<UUID> UUID_CONVERTER = new ITypeConverter<UUID>() {
+		@Override
+		public String getSqlType() {
+			return "TEXT";
+		}
+
+		@Override
+		public UUID read(Cursor cursor, int index) {
+			return UUID.fromString(cursor.getString(index));
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, UUID value) {
+			values.put(columnName, value.toString());
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, UUID value) {
+			statement.bindString(index, value.toString());
+		}
+	};
+
+	/**
+	 * Datas gravadas como texto no formato yyyy-MM-dd HH:mm:ss.
+	 */
+	private static class DateConverter<T> implements ITypeConverter<T> {
+		private final Class<T> type;
+
+		DateConverter(Class<T> type) {
+			this.type = type;
+		}
+
+		@Override
+		public String getSqlType() {
+			return "TEXT";
+		}
+
+		@Override
+		public T read(Cursor cursor, int index) {
+			return JpdroidDateUtil.convert(cursor.getString(index), type);
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, T value) {
+			values.put(columnName, format(value));
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, T value) {
+			statement.bindString(index, format(value));
+		}
+	}
+
+	/**
+	 * Enums gravados pelo nome da constante.
+	 */
+	private static class EnumConverter<E extends Enum<E>> implements
+			ITypeConverter<E> {
+		private final Class<E> type;
+
+		EnumConverter(Class<E> type) {
+			this.type = type;
+		}
+
+		@Override
+		public String getSqlType() {
+			return "TEXT";
+		}
+
+		@Override
+		public E read(Cursor cursor, int index) {
+			return Enum.valueOf(type, cursor.getString(index));
+		}
+
+		@Override
+		public void put(ContentValues values, String columnName, E value) {
+			values.put(columnName, value.name());
+		}
+
+		@Override
+		public void bind(SQLiteStatement statement, int index, E value) {
+			statement.bindString(index, value.name());
+		}
+	}
+
+	static {
+		register(String.class, STRING);
+		register(long.class, LONG);
+		register(Long.class, LONG);
+		register(int.class, INTEGER);
+		register(Integer.class, INTEGER);
+		register(short.class, SHORT);
+		register(Short.class, SHORT);
+		register(double.class, DOUBLE);
+		register(Double.class, DOUBLE);
+		register(float.class, FLOAT);
+		register(Float.class, FLOAT);
+		register(boolean.class, BOOLEAN);
+		register(Boolean.class, BOOLEAN);
+		register(byte[].class, BYTES);
+		register(Bitmap.class, BITMAP);
+		register(BigDecimal.class, BIG_DECIMAL);
+		register(UUID.class, UUID_CONVERTER);
+		register(Date.class, new DateConverter<Date>(Date.class));
+		register(java.sql.Date.class, new DateConverter<java.sql.Date>(
+				java.sql.Date.class));
+		register(Calendar.class, new DateConverter<Calendar>(Calendar.class));
+	}
+
+	/**
+	 * Registra o conversor para o tipo informado, substituindo o conversor
+	 * existente.
+	 *
+	 * @param type
+	 * @param converter
+	 */
+	public static <T> void register(Class<T> type,
+			ITypeConverter<? super T> converter) {
+		synchronized (converters) {
+			converters.put(type, converter);
+		}
+	}
+
+	/**
+	 * Retorna o conversor do tipo ou null quando o tipo no for suportado.
+	 *
+	 * @param type
+	 * @return ITypeConverter
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static ITypeConverter<Object> get(Class<?> type) {
+		synchronized (converters) {
+			ITypeConverter<?> converter = converters.get(type);
+			if (converter == null) {
+				if (type.isEnum()) {
+					converter = new EnumConverter(type);
+					converters.put(type, converter);
+				} else if (type.getSuperclass() != null
+						&& type.getSuperclass().isEnum()) {
+					converter = get(type.getSuperclass());
+				} else if (Calendar.class.isAssignableFrom(type)) {
+					converter = converters.get(Calendar.class);
+				} else if (Date.class.isAssignableFrom(type)) {
+					converter = converters.get(Date.class);
+				}
+			}
+			return (ITypeConverter<Object>) converter;
+		}
+	}
+
+	/**
+	 * Retorna o tipo da coluna do banco de dados.
+	 *
+	 * @param type
+	 * @return String
+	 * @throws JpdroidException
+	 */
+	public static String getSqlType(Class<?> type) throws JpdroidException {
+		ITypeConverter<Object> converter = get(type);
+		if (converter == null) {
+			throw new JpdroidException("O tipo " + type
+					+ " no suportado por este banco de dados.");
+		}
+		return converter.getSqlType();
+	}
+
+	private static ITypeConverter<Object> getRequired(Class<?> type) {
+		ITypeConverter<Object> converter = get(type);
+		if (converter == null) {
+			throw new IllegalArgumentException("O tipo " + type
+					+ " no suportado por este banco de dados.");
+		}
+		return converter;
+	}
+
+	/**
+	 * L o valor da coluna, retornando null quando a coluna for nula.
+	 *
+	 * @param cursor
+	 * @param index
+	 * @param type
+	 * @return Object
+	 */
+	public static Object read(Cursor cursor, int index, Class<?> type) {
+		if (cursor.isNull(index)) {
+			return null;
+		}
+		return getRequired(type).read(cursor, index);
+	}
+
+	public static void put(ContentValues values, String columnName,
+			Object value) {
+		if (value == null) {
+			values.putNull(columnName);
+		} else {
+			getRequired(value.getClass()).put(values, columnName, value);
+		}
+	}
+
+	public static void bind(SQLiteStatement statement, int index, Object value) {
+		if (value == null) {
+			statement.bindNull(index);
+		} else {
+			getRequired(value.getClass()).bind(statement, index, value);
+		}
+	}
+
+	/**
+	 * Vincula o valor ao comando de qualquer IJpdroidDatabase. No Android so
+	 * utilizados os conversores registrados; nos demais bancos os valores so
+	 * gravados como no Jpdroid: nmeros, booleanos como 0/1, bytes como blob e
+	 * os demais tipos como texto.
+	 *
+	 * @param statement
+	 * @param index
+	 * @param value
+	 * @throws Exception
+	 */
+	public static void bind(IJpdroidStatement statement, int index,
+			Object value) throws Exception {
+		if (value == null) {
+			statement.bindNull(index);
+		} else if (statement instanceof JpdroidAndroidDatabase.AndroidStatement) {
+			bind(((JpdroidAndroidDatabase.AndroidStatement) statement)
+					.getStatement(), index, value);
+		} else if (value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte) {
+			statement.bindLong(index, ((Number) value).longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			statement.bindDouble(index, ((Number) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			statement.bindLong(index, ((Boolean) value).booleanValue() ? 1 : 0);
+		} else if (value instanceof byte[]) {
+			statement.bindBlob(index, (byte[]) value);
+		} else {
+			statement.bindString(index, toArgument(value));
+		}
+	}
+
+	/**
+	 * Converte o valor para o texto utilizado como parmetro de clausulas
+	 * where.
+	 *
+	 * @param value
+	 * @return String
+	 */
+	public static String toArgument(Object value) {
+		if (value instanceof Boolean) {
+			return ((Boolean) value).booleanValue() ? "1" : "0";
+		}
+		if (value instanceof Enum) {
+			return ((Enum<?>) value).name();
+		}
+		if (value instanceof Date || value instanceof Calendar) {
+			return format(value);
+		}
+		return String.valueOf(value);
+	}
+
+	static boolean toBoolean(String value) {
+		return "1".equals(value) || "true".equalsIgnoreCase(value);
+	}
+
+	private static String format(Object date) {
+		return JpdroidDateUtil.format(date);
+	}
+
+	private static byte[] compress(Bitmap bitmap) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		bitmap.compress(Bitmap.CompressFormat.PNG, 100, baos);
+		return baos.toByteArray();
+	}
+}
@@ -6,6 +6,7 @@ import java.util.Calendar;
 
 import android.os.Environment;
 import android.util.Log;
+import br.com.rafael.jpdroid.enums.EventType;
 import br.com.rafael.jpdroid.exceptions.JpdroidException;
 
 /**
@@ -30,9 +31,21 @@ public class JpdroidWriteFile {
 
 	protected static void writeFile(String str, String fileName)
 			throws Exception {
+		writeFile(getExternalFile(fileName), str);
+	}
+
+	/**
+	 * Retorna o arquivo com o nome informado no carto de memria.
+	 * 
+	 * @param fileName
+	 * @return File
+	 * @throws JpdroidException
+	 */
+	protected static File getExternalFile(String fileName)
+			throws JpdroidException {
 		if (isSDPresent()) {
-			File dir = Environment.getExternalStorageDirectory();
-			writeFile(dir, str, fileName);
+			return new File(Environment.getExternalStorageDirectory(),
+					fileName);
 		} else {
 			Log.e("JpdroidException",
 					"Nenhum carto de memria foi localizado!");
@@ -41,6 +54,19 @@ public class JpdroidWriteFile {
 		}
 	}
 
+	/**
+	 * Envia o evento da exportao aos listeners do Jpdroid.
+	 * 
+	 * @param file
+	 * @param start
+	 *            - Incio da exportao (System.nanoTime()).
+	 * @param error
+	 */
+	protected static void exported(File file, long start, Exception error) {
+		Jpdroid.getInstance().fire(EventType.EXPORT, file.getName(), null,
+				start, -1, -1, error == null ? null : error.getMessage());
+	}
+
 	private static boolean isSDPresent() {
 		return Environment.getExternalStorageState().equals(
 				android.os.Environment.MEDIA_MOUNTED);
@@ -0,0 +1,16 @@
+package br.com.rafael.jpdroid.enums;
+
+public enum EventType {
+
+	QUERY,
+	INSERT,
+	UPDATE,
+	DELETE,
+	BEGIN_TRANSACTION,
+	COMMIT,
+	ROLLBACK,
+	IMPORT,
+	EXPORT,
+	CACHE_HIT,
+	CACHE_MISS
+}
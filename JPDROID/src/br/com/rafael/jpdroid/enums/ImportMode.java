@@ -0,0 +1,14 @@
+package br.com.rafael.jpdroid.enums;
+
+public enum ImportMode {
+
+	/**
+	 * Todos os registros so inseridos.
+	 */
+	INSERT,
+	/**
+	 * Registros existentes so atualizados pelas colunas unique (ou pela chave
+	 * primria) e os demais so inseridos.
+	 */
+	UPSERT
+}
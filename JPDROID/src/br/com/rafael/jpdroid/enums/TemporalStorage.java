@@ -0,0 +1,13 @@
+package br.com.rafael.jpdroid.enums;
+
+public enum TemporalStorage {
+
+	/**
+	 * Texto no formato yyyy-MM-dd HH:mm:ss.
+	 */
+	TEXT,
+	/**
+	 * Milissegundos desde 01/01/1970 (UTC) em coluna INTEGER.
+	 */
+	EPOCH_MILLIS
+}
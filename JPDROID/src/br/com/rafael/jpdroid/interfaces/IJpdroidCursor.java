@@ -0,0 +1,31 @@
+package br.com.rafael.jpdroid.interfaces;
+
+/**
+ * Resultado de uma consulta, percorrido em uma nica direo. As colunas so
+ * numeradas a partir de 0.
+ */
+public interface IJpdroidCursor {
+
+	boolean moveToNext() throws Exception;
+
+	int getColumnCount() throws Exception;
+
+	String getColumnName(int index) throws Exception;
+
+	/**
+	 * @return ndice da coluna, ou -1 quando no existir.
+	 */
+	int getColumnIndex(String name) throws Exception;
+
+	boolean isNull(int index) throws Exception;
+
+	String getString(int index) throws Exception;
+
+	long getLong(int index) throws Exception;
+
+	double getDouble(int index) throws Exception;
+
+	byte[] getBlob(int index) throws Exception;
+
+	void close() throws Exception;
+}
@@ -0,0 +1,56 @@
+package br.com.rafael.jpdroid.interfaces;
+
+import java.util.Map;
+
+/**
+ * Conexo com o banco de dados SQLite utilizada pela criao das tabelas e
+ * pela importao de registros. <br>
+ * Implementada sobre o SQLiteDatabase do Android (JpdroidAndroidDatabase) e
+ * sobre JDBC (JpdroidJdbcDatabase), permitindo utilizar as mesmas entidades
+ * fora do Android.
+ */
+public interface IJpdroidDatabase {
+	/**
+	 * Executa um comando sql que no retorna registros.
+	 */
+	void execSQL(String sql) throws Exception;
+
+	/**
+	 * Executa a consulta, com os parmetros (?) informados em args.
+	 */
+	IJpdroidCursor rawQuery(String sql, String[] args) throws Exception;
+
+	/**
+	 * Compila o comando para ser executado vrias vezes.
+	 */
+	IJpdroidStatement compileStatement(String sql) throws Exception;
+
+	/**
+	 * Insere os valores na tabela, pelo nome da coluna.
+	 *
+	 * @return rowid do registro inserido.
+	 */
+	long insert(String table, Map<String, Object> values) throws Exception;
+
+	void beginTransaction() throws Exception;
+
+	/**
+	 * Indica que a transao atual deve ser efetivada ao ser finalizada.
+	 */
+	void setTransactionSuccessful() throws Exception;
+
+	/**
+	 * Finaliza a transao atual, efetivando as alteraes somente quando
+	 * setTransactionSuccessful() foi chamado.
+	 */
+	void endTransaction() throws Exception;
+
+	boolean inTransaction();
+
+	/**
+	 * Registra um erro que no interrompe a operao (Log no Android).
+	 */
+	void log(String tag, String message);
+
+	void close() throws Exception;
+}
@@ -0,0 +1,16 @@
+package br.com.rafael.jpdroid.interfaces;
+
+import br.com.rafael.jpdroid.core.JpdroidEvent;
+
+/**
+ * Recebe os eventos das operaes executadas pelo Jpdroid, registrado atravs
+ * de Jpdroid.addListener(). <br>
+ * O mtodo  chamado na mesma thread da operao e deve retornar
+ * rapidamente.
+ */
+public interface IJpdroidListener {
+	/**
+	 * Chamado ao final de cada operao.
+	 */
+	void onEvent(JpdroidEvent event);
+}
@@ -0,0 +1,33 @@
+package br.com.rafael.jpdroid.interfaces;
+
+/**
+ * Comando compilado. Os parmetros so numerados a partir de 1.
+ */
+public interface IJpdroidStatement {
+
+	void bindNull(int index) throws Exception;
+
+	void bindLong(int index, long value) throws Exception;
+
+	void bindDouble(int index, double value) throws Exception;
+
+	void bindString(int index, String value) throws Exception;
+
+	void bindBlob(int index, byte[] value) throws Exception;
+
+	void clearBindings() throws Exception;
+
+	void execute() throws Exception;
+
+	/**
+	 * @return rowid do registro inserido.
+	 */
+	long executeInsert() throws Exception;
+
+	/**
+	 * Retorna o valor da primeira coluna do primeiro registro.
+	 */
+	long simpleQueryForLong() throws Exception;
+
+	void close() throws Exception;
+}
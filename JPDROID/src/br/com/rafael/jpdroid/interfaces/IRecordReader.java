@@ -0,0 +1,20 @@
+package br.com.rafael.jpdroid.interfaces;
+
+import java.util.Map;
+
+/**
+ * Leitor de registros utilizado na importao de arquivos. Cada registro 
+ * lido somente quando solicitado, mantendo em memria apenas o registro atual.
+ */
+public interface IRecordReader {
+	/**
+	 * Retorna o prximo registro, com os valores pelo nome da coluna ou do
+	 * atributo, ou null quando no houver mais registros.
+	 */
+	Map<String, Object> nextRecord() throws Exception;
+
+	/**
+	 * Fecha o arquivo de origem.
+	 */
+	void close() throws Exception;
+}
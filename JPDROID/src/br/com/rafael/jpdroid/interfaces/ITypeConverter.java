@@ -0,0 +1,35 @@
+package br.com.rafael.jpdroid.interfaces;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Conversor entre o tipo de um atributo e a coluna do banco de dados.
+ * Conversores personalizados so registrados atravs do mtodo
+ * JpdroidTypeConverters.register().
+ * 
+ * @param <T>
+ *            - Tipo do atributo.
+ */
+public interface ITypeConverter<T> {
+	/**
+	 * Tipo da coluna: TEXT, INTEGER, REAL ou BLOB.
+	 */
+	String getSqlType();
+
+	/**
+	 * L o valor da coluna. A coluna nunca  nula.
+	 */
+	T read(Cursor cursor, int index);
+
+	/**
+	 * Adiciona o valor ao ContentValues. O valor nunca  nulo.
+	 */
+	void put(ContentValues values, String columnName, T value);
+
+	/**
+	 * Vincula o valor ao parmetro do comando compilado. O valor nunca  nulo.
+	 */
+	void bind(SQLiteStatement statement, int index, T value);
+}
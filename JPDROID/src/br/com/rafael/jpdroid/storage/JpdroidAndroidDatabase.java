@@ -0,0 +1,227 @@
+package br.com.rafael.jpdroid.storage;
+
+import java.util.Map;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+import br.com.rafael.jpdroid.interfaces.IJpdroidCursor;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+import br.com.rafael.jpdroid.interfaces.IJpdroidStatement;
+
+/**
+ * IJpdroidDatabase sobre o SQLiteDatabase do Android.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidAndroidDatabase implements IJpdroidDatabase {
+
+	private final SQLiteDatabase database;
+
+	public JpdroidAndroidDatabase(SQLiteDatabase database) {
+		this.database = database;
+	}
+
+	public SQLiteDatabase getDatabase() {
+		return database;
+	}
+
+	@Override
+	public void execSQL(String sql) {
+		database.execSQL(sql);
+	}
+
+	@Override
+	public IJpdroidCursor rawQuery(String sql, String[] args) {
+		return new AndroidCursor(database.rawQuery(sql, args));
+	}
+
+	@Override
+	public IJpdroidStatement compileStatement(String sql) {
+		return new AndroidStatement(database.compileStatement(sql));
+	}
+
+	@Override
+	public long insert(String table, Map<String, Object> values) {
+		ContentValues contentValues = new ContentValues();
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			Object value = entry.getValue();
+			if (value == null) {
+				contentValues.putNull(entry.getKey());
+			} else if (value instanceof Long || value instanceof Integer
+					|| value instanceof Short || value instanceof Byte) {
+				contentValues.put(entry.getKey(),
+						((Number) value).longValue());
+			} else if (value instanceof Number) {
+				contentValues.put(entry.getKey(),
+						((Number) value).doubleValue());
+			} else if (value instanceof Boolean) {
+				contentValues.put(entry.getKey(),
+						((Boolean) value).booleanValue() ? 1 : 0);
+			} else if (value instanceof byte[]) {
+				contentValues.put(entry.getKey(), (byte[]) value);
+			} else {
+				contentValues.put(entry.getKey(), value.toString());
+			}
+		}
+		return database.insert(table, null, contentValues);
+	}
+
+	@Override
+	public void beginTransaction() {
+		database.beginTransaction();
+	}
+
+	@Override
+	public void setTransactionSuccessful() {
+		database.setTransactionSuccessful();
+	}
+
+	@Override
+	public void endTransaction() {
+		database.endTransaction();
+	}
+
+	@Override
+	public boolean inTransaction() {
+		return database.inTransaction();
+	}
+
+	@Override
+	public void log(String tag, String message) {
+		Log.e(tag, message);
+	}
+
+	@Override
+	public void close() {
+		database.close();
+	}
+
+	/**
+	 * Comando compilado do Android. Os conversores de tipo registrados
+	 * utilizam o SQLiteStatement diretamente.
+	 */
+	public static class AndroidStatement implements IJpdroidStatement {
+
+		private final SQLiteStatement statement;
+
+		public AndroidStatement(SQLiteStatement statement) {
+			this.statement = statement;
+		}
+
+		public SQLiteStatement getStatement() {
+			return statement;
+		}
+
+		@Override
+		public void bindNull(int index) {
+			statement.bindNull(index);
+		}
+
+		@Override
+		public void bindLong(int index, long value) {
+			statement.bindLong(index, value);
+		}
+
+		@Override
+		public void bindDouble(int index, double value) {
+			statement.bindDouble(index, value);
+		}
+
+		@Override
+		public void bindString(int index, String value) {
+			statement.bindString(index, value);
+		}
+
+		@Override
+		public void bindBlob(int index, byte[] value) {
+			statement.bindBlob(index, value);
+		}
+
+		@Override
+		public void clearBindings() {
+			statement.clearBindings();
+		}
+
+		@Override
+		public void execute() {
+			statement.execute();
+		}
+
+		@Override
+		public long executeInsert() {
+			return statement.executeInsert();
+		}
+
+		@Override
+		public long simpleQueryForLong() {
+			return statement.simpleQueryForLong();
+		}
+
+		@Override
+		public void close() {
+			statement.close();
+		}
+	}
+
+	private static class AndroidCursor implements IJpdroidCursor {
+
+		private final Cursor cursor;
+
+		AndroidCursor(Cursor cursor) {
+			this.cursor = cursor;
+		}
+
+		@Override
+		public boolean moveToNext() {
+			return cursor.moveToNext();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return cursor.getColumnCount();
+		}
+
+		@Override
+		public String getColumnName(int index) {
+			return cursor.getColumnName(index);
+		}
+
+		@Override
+		public int getColumnIndex(String name) {
+			return cursor.getColumnIndex(name);
+		}
+
+		@Override
+		public boolean isNull(int index) {
+			return cursor.isNull(index);
+		}
+
+		@Override
+		public String getString(int index) {
+			return cursor.getString(index);
+		}
+
+		@Override
+		public long getLong(int index) {
+			return cursor.getLong(index);
+		}
+
+		@Override
+		public double getDouble(int index) {
+			return cursor.getDouble(index);
+		}
+
+		@Override
+		public byte[] getBlob(int index) {
+			return cursor.getBlob(index);
+		}
+
+		@Override
+		public void close() {
+			cursor.close();
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package br.com.rafael.jpdroid.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.rafael.jpdroid.converters.JpdroidCsvReader;
+import br.com.rafael.jpdroid.converters.JpdroidJsonReader;
+import br.com.rafael.jpdroid.converters.JpdroidXmlReader;
+import br.com.rafael.jpdroid.core.JpdroidImportResult;
+import br.com.rafael.jpdroid.core.JpdroidImporter;
+import br.com.rafael.jpdroid.core.JpdroidSchema;
+import br.com.rafael.jpdroid.enums.ImportMode;
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+
+/**
+ * Gera, fora do Android, o arquivo do banco de dados j criado e populado,
+ * para ser distribudo na pasta Assets e copiado pelo Jpdroid na primeira
+ * execuo (setPrebuiltDatabase). <br>
+ * As tabelas so criadas a partir das entidades, os scripts e arquivos so
+ * importados na ordem em que foram adicionados e, ao final, o banco 
+ * analisado (ANALYZE) e compactado (VACUUM). A verso gravada em
+ * user_version deve ser a mesma informada em setDatabaseVersion(). <br>
+ * Ex: <br>
+ * JpdroidDatabaseBuilder builder = new JpdroidDatabaseBuilder(12); <br>
+ * builder.addEntity(Estado.class); <br>
+ * builder.addEntity(Cidade.class); <br>
+ * builder.addScript(new File("import.sql"), "UTF-8"); <br>
+ * builder.build(new File("assets/JpdroidDB.db"));
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidDatabaseBuilder {
+
+	/**
+	 * Etapa de carga executada sobre o banco em construo.
+	 */
+	private static abstract class Step {
+		abstract void run(IJpdroidDatabase db) throws Exception;
+	}
+
+	private final JpdroidSchema schema = new JpdroidSchema();
+
+	private final List<Step> steps = new ArrayList<Step>();
+
+	private final int version;
+
+	private String locale = "en_US";
+
+	private int batchSize = 500;
+
+	/**
+	 * @param version
+	 *            - Verso do banco, a mesma informada ao Jpdroid.
+	 */
+	public JpdroidDatabaseBuilder(int version) {
+		this.version = version;
+	}
+
+	/**
+	 * Idioma gravado na tabela android_metadata.
+	 *
+	 * @param locale
+	 */
+	public void setLocale(String locale) {
+		this.locale = locale;
+	}
+
+	/**
+	 * Quantidade de registros efetivados por transao na importao de
+	 * arquivos.
+	 *
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	public void addEntity(Class<?> entity) {
+		schema.addClass(entity);
+	}
+
+	/**
+	 * Adiciona um script sql, no mesmo formato do importSqlScript(). Os
+	 * comandos UPSERT so executados como INSERT OR REPLACE, j que o banco 
+	 * criado vazio.
+	 *
+	 * @param file
+	 * @param charset
+	 */
+	public void addScript(final File file, final String charset) {
+		steps.add(new Step() {
+			@Override
+			void run(IJpdroidDatabase db) throws Exception {
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(new FileInputStream(file),
+								charset));
+				try {
+					executeScript(db, reader);
+				} finally {
+					reader.close();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Adiciona os registros do leitor  tabela da entidade. O leitor 
+	 * fechado aps a importao.
+	 *
+	 * @param entity
+	 * @param reader
+	 * @param mode
+	 */
+	public void addRecords(final Class<?> entity, final IRecordReader reader,
+			final ImportMode mode) {
+		steps.add(new Step() {
+			@Override
+			void run(IJpdroidDatabase db) throws Exception {
+				JpdroidImportResult result;
+				try {
+					result = new JpdroidImporter(db, entity, mode).run(reader,
+							batchSize);
+				} finally {
+					reader.close();
+				}
+				if (result.hasErrors()) {
+					throw new JpdroidException("Falha na importao de "
+							+ entity.getSimpleName() + ": " + result);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Adiciona os registros de um arquivo JSON, CSV ou XML, de acordo com a
+	 * extenso, no mesmo formato da exportao.
+	 *
+	 * @param entity
+	 * @param file
+	 * @param mode
+	 * @throws Exception
+	 */
+	public void addRecords(Class<?> entity, File file, ImportMode mode)
+			throws Exception {
+		String name = file.getName().toLowerCase();
+		InputStream in = new FileInputStream(file);
+		IRecordReader reader;
+		if (name.endsWith(".json")) {
+			reader = new JpdroidJsonReader(new InputStreamReader(in, "UTF-8"));
+		} else if (name.endsWith(".csv")) {
+			reader = new JpdroidCsvReader(new InputStreamReader(in, "UTF-8"));
+		} else if (name.endsWith(".xml")) {
+			reader = new JpdroidXmlReader(in, entity.getSimpleName());
+		} else {
+			in.close();
+			throw new JpdroidException("Formato de arquivo no suportado: "
+					+ file.getName());
+		}
+		addRecords(entity, reader, mode);
+	}
+
+	/**
+	 * Gera o banco de dados em um arquivo temporrio e o renomeia para o
+	 * arquivo informado apenas ao final, substituindo a verso anterior.
+	 *
+	 * @param file
+	 * @throws Exception
+	 */
+	public void build(File file) throws Exception {
+		File tmp = new File(file.getPath() + ".tmp");
+		if (tmp.exists() && !tmp.delete()) {
+			throw new JpdroidException("No foi possvel excluir "
+					+ tmp.getPath());
+		}
+		boolean built = false;
+		JpdroidJdbcDatabase db = JpdroidJdbcDatabase.open(tmp.getPath());
+		try {
+			db.execSQL("CREATE TABLE android_metadata (locale TEXT)");
+			db.execSQL("INSERT INTO android_metadata VALUES ('" + locale
+					+ "')");
+
+			schema.createTables(db);
+
+			for (Step step : steps) {
+				step.run(db);
+			}
+
+			db.execSQL("PRAGMA user_version = " + version);
+			db.execSQL("ANALYZE");
+			db.execSQL("VACUUM");
+			built = true;
+		} finally {
+			db.close();
+			if (!built) {
+				tmp.delete();
+			}
+		}
+		if (file.exists() && !file.delete()) {
+			throw new JpdroidException("No foi possvel substituir "
+					+ file.getPath());
+		}
+		if (!tmp.renameTo(file)) {
+			throw new JpdroidException("No foi possvel renomear "
+					+ tmp.getPath());
+		}
+	}
+
+	private static void executeScript(IJpdroidDatabase db,
+			BufferedReader reader) throws Exception {
+		StringBuilder script = new StringBuilder();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			script.append(line);
+		}
+		db.beginTransaction();
+		try {
+			for (String sql : script.toString().split(";")) {
+				sql = sql.trim();
+				if (sql.length() == 0) {
+					continue;
+				}
+				if (sql.startsWith("UPSERT")) {
+					sql = "INSERT OR REPLACE INTO"
+							+ sql.substring("UPSERT".length()).replace('#',
+									' ');
+				}
+				db.execSQL(sql);
+			}
+			db.setTransactionSuccessful();
+		} finally {
+			db.endTransaction();
+		}
+	}
+
+	/**
+	 * Gera o banco de dados pela linha de comando. <br>
+	 * Uso: JpdroidDatabaseBuilder arquivo.db verso entidades [arquivos...]
+	 * <br>
+	 * As entidades so informadas pelo nome completo da classe, separadas
+	 * por vrgula. Os arquivos .sql so executados como script e os demais
+	 * devem ser informados como Entidade=arquivo (.json, .csv ou .xml).
+	 *
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err
+					.println("Uso: JpdroidDatabaseBuilder arquivo.db verso entidades [script.sql | Entidade=arquivo ...]");
+			System.exit(1);
+		}
+		JpdroidDatabaseBuilder builder = new JpdroidDatabaseBuilder(
+				Integer.parseInt(args[1]));
+		List<Class<?>> entities = new ArrayList<Class<?>>();
+		for (String name : args[2].split(",")) {
+			Class<?> entity = Class.forName(name.trim());
+			entities.add(entity);
+			builder.addEntity(entity);
+		}
+		for (int i = 3; i < args.length; i++) {
+			int separator = args[i].indexOf('=');
+			if (separator < 0) {
+				builder.addScript(new File(args[i]), "UTF-8");
+				continue;
+			}
+			String entityName = args[i].substring(0, separator);
+			Class<?> target = null;
+			for (Class<?> entity : entities) {
+				if (entity.getSimpleName().equals(entityName)
+						|| entity.getName().equals(entityName)) {
+					target = entity;
+				}
+			}
+			if (target == null) {
+				throw new JpdroidException("Entidade no informada: "
+						+ entityName);
+			}
+			builder.addRecords(target, new File(args[i]
+					.substring(separator + 1)), ImportMode.UPSERT);
+		}
+		builder.build(new File(args[0]));
+	}
+}
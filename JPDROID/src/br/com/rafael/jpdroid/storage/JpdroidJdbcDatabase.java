@@ -0,0 +1,349 @@
+package br.com.rafael.jpdroid.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Map;
+
+import br.com.rafael.jpdroid.interfaces.IJpdroidCursor;
+import br.com.rafael.jpdroid.interfaces.IJpdroidDatabase;
+import br.com.rafael.jpdroid.interfaces.IJpdroidStatement;
+
+/**
+ * IJpdroidDatabase sobre uma conexo JDBC com o SQLite (sqlite-jdbc),
+ * permitindo criar as tabelas e importar registros das entidades fora do
+ * Android, como na gerao de bancos de dados em servidor. <br>
+ * As transaes podem ser aninhadas, como no Android: as alteraes so
+ * efetivadas ao finalizar a transao externa, desde que todas as
+ * transaes tenham chamado setTransactionSuccessful(). <br>
+ * Ex: IJpdroidDatabase db = JpdroidJdbcDatabase.open("pedidos.db");
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidJdbcDatabase implements IJpdroidDatabase {
+
+	public static final String DRIVER = "org.sqlite.JDBC";
+
+	private final Connection connection;
+
+	/**
+	 * Indicao de sucesso de cada transao aberta.
+	 */
+	private final ArrayList<Boolean> transactions = new ArrayList<Boolean>();
+
+	private boolean failed;
+
+	public JpdroidJdbcDatabase(Connection connection) {
+		this.connection = connection;
+	}
+
+	/**
+	 * Abre (ou cria) o arquivo do banco de dados atravs do sqlite-jdbc, com
+	 * as chaves estrangeiras habilitadas.
+	 *
+	 * @param path
+	 *            - Caminho do arquivo.
+	 * @return JpdroidJdbcDatabase
+	 * @throws Exception
+	 */
+	public static JpdroidJdbcDatabase open(String path) throws Exception {
+		Class.forName(DRIVER);
+		JpdroidJdbcDatabase database = new JpdroidJdbcDatabase(
+				DriverManager.getConnection("jdbc:sqlite:" + path));
+		database.execSQL("PRAGMA foreign_keys = ON;");
+		return database;
+	}
+
+	public Connection getConnection() {
+		return connection;
+	}
+
+	@Override
+	public void execSQL(String sql) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		} finally {
+			statement.close();
+		}
+	}
+
+	@Override
+	public IJpdroidCursor rawQuery(String sql, String[] args)
+			throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(sql);
+		try {
+			if (args != null) {
+				for (int i = 0; i < args.length; i++) {
+					statement.setString(i + 1, args[i]);
+				}
+			}
+			return new JdbcCursor(statement, statement.executeQuery());
+		} catch (SQLException e) {
+			statement.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public IJpdroidStatement compileStatement(String sql) throws SQLException {
+		return new JdbcStatement(connection, connection.prepareStatement(sql));
+	}
+
+	@Override
+	public long insert(String table, Map<String, Object> values)
+			throws SQLException {
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+				.append(" (");
+		StringBuilder params = new StringBuilder();
+		for (String column : values.keySet()) {
+			if (params.length() > 0) {
+				sql.append(", ");
+				params.append(", ");
+			}
+			sql.append(column);
+			params.append('?');
+		}
+		sql.append(") VALUES (").append(params).append(')');
+		JdbcStatement statement = new JdbcStatement(connection,
+				connection.prepareStatement(sql.toString()));
+		try {
+			int index = 1;
+			for (Object value : values.values()) {
+				if (value == null) {
+					statement.bindNull(index);
+				} else if (value instanceof Long || value instanceof Integer
+						|| value instanceof Short || value instanceof Byte) {
+					statement.bindLong(index, ((Number) value).longValue());
+				} else if (value instanceof Number) {
+					statement.bindDouble(index, ((Number) value).doubleValue());
+				} else if (value instanceof Boolean) {
+					statement.bindLong(index,
+							((Boolean) value).booleanValue() ? 1 : 0);
+				} else if (value instanceof byte[]) {
+					statement.bindBlob(index, (byte[]) value);
+				} else {
+					statement.bindString(index, value.toString());
+				}
+				index++;
+			}
+			return statement.executeInsert();
+		} finally {
+			statement.close();
+		}
+	}
+
+	@Override
+	public void beginTransaction() throws SQLException {
+		if (transactions.isEmpty()) {
+			connection.setAutoCommit(false);
+			failed = false;
+		}
+		transactions.add(Boolean.FALSE);
+	}
+
+	@Override
+	public void setTransactionSuccessful() {
+		if (transactions.isEmpty()) {
+			throw new IllegalStateException("Nenhuma transao aberta.");
+		}
+		transactions.set(transactions.size() - 1, Boolean.TRUE);
+	}
+
+	@Override
+	public void endTransaction() throws SQLException {
+		if (transactions.isEmpty()) {
+			throw new IllegalStateException("Nenhuma transao aberta.");
+		}
+		if (!transactions.remove(transactions.size() - 1).booleanValue()) {
+			failed = true;
+		}
+		if (transactions.isEmpty()) {
+			try {
+				if (failed) {
+					connection.rollback();
+				} else {
+					connection.commit();
+				}
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		}
+	}
+
+	@Override
+	public boolean inTransaction() {
+		return !transactions.isEmpty();
+	}
+
+	@Override
+	public void log(String tag, String message) {
+		System.err.println(tag + ": " + message);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		connection.close();
+	}
+
+	private static class JdbcStatement implements IJpdroidStatement {
+
+		private final Connection connection;
+
+		private final PreparedStatement statement;
+
+		JdbcStatement(Connection connection, PreparedStatement statement) {
+			this.connection = connection;
+			this.statement = statement;
+		}
+
+		@Override
+		public void bindNull(int index) throws SQLException {
+			statement.setNull(index, Types.NULL);
+		}
+
+		@Override
+		public void bindLong(int index, long value) throws SQLException {
+			statement.setLong(index, value);
+		}
+
+		@Override
+		public void bindDouble(int index, double value) throws SQLException {
+			statement.setDouble(index, value);
+		}
+
+		@Override
+		public void bindString(int index, String value) throws SQLException {
+			statement.setString(index, value);
+		}
+
+		@Override
+		public void bindBlob(int index, byte[] value) throws SQLException {
+			statement.setBytes(index, value);
+		}
+
+		@Override
+		public void clearBindings() throws SQLException {
+			statement.clearParameters();
+		}
+
+		@Override
+		public void execute() throws SQLException {
+			statement.execute();
+		}
+
+		@Override
+		public long executeInsert() throws SQLException {
+			if (statement.executeUpdate() == 0) {
+				return -1;
+			}
+			Statement rowid = connection.createStatement();
+			try {
+				ResultSet resultSet = rowid
+						.executeQuery("SELECT last_insert_rowid()");
+				return resultSet.next() ? resultSet.getLong(1) : -1;
+			} finally {
+				rowid.close();
+			}
+		}
+
+		@Override
+		public long simpleQueryForLong() throws SQLException {
+			ResultSet resultSet = statement.executeQuery();
+			try {
+				if (!resultSet.next()) {
+					throw new SQLException("A consulta no retornou registros.");
+				}
+				return resultSet.getLong(1);
+			} finally {
+				resultSet.close();
+			}
+		}
+
+		@Override
+		public void close() throws SQLException {
+			statement.close();
+		}
+	}
+
+	private static class JdbcCursor implements IJpdroidCursor {
+
+		private final Statement statement;
+
+		private final ResultSet resultSet;
+
+		private final ResultSetMetaData metaData;
+
+		JdbcCursor(Statement statement, ResultSet resultSet)
+				throws SQLException {
+			this.statement = statement;
+			this.resultSet = resultSet;
+			this.metaData = resultSet.getMetaData();
+		}
+
+		@Override
+		public boolean moveToNext() throws SQLException {
+			return resultSet.next();
+		}
+
+		@Override
+		public int getColumnCount() throws SQLException {
+			return metaData.getColumnCount();
+		}
+
+		@Override
+		public String getColumnName(int index) throws SQLException {
+			return metaData.getColumnLabel(index + 1);
+		}
+
+		@Override
+		public int getColumnIndex(String name) throws SQLException {
+			for (int i = 0; i < metaData.getColumnCount(); i++) {
+				if (name.equalsIgnoreCase(metaData.getColumnLabel(i + 1))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean isNull(int index) throws SQLException {
+			return resultSet.getObject(index + 1) == null;
+		}
+
+		@Override
+		public String getString(int index) throws SQLException {
+			return resultSet.getString(index + 1);
+		}
+
+		@Override
+		public long getLong(int index) throws SQLException {
+			return resultSet.getLong(index + 1);
+		}
+
+		@Override
+		public double getDouble(int index) throws SQLException {
+			return resultSet.getDouble(index + 1);
+		}
+
+		@Override
+		public byte[] getBlob(int index) throws SQLException {
+			return resultSet.getBytes(index + 1);
+		}
+
+		@Override
+		public void close() throws SQLException {
+			try {
+				resultSet.close();
+			} finally {
+				statement.close();
+			}
+		}
+	}
+}
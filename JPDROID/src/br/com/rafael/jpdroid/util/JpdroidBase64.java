@@ -0,0 +1,92 @@
+package br.com.rafael.jpdroid.util;
+
+import java.io.ByteArrayOutputStream;
+
+import android.graphics.Bitmap;
+
+/**
+ * Codificao Base64 utilizada na exportao de campos binrios, j que
+ * android.util.Base64 no est disponvel em todas as verses suportadas.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidBase64 {
+
+	private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.toCharArray();
+
+	public static String encode(byte[] data) {
+		StringBuilder sb = new StringBuilder((data.length + 2) / 3 * 4);
+		for (int i = 0; i < data.length; i += 3) {
+			int b = (data[i] & 0xff) << 16;
+			if (i + 1 < data.length) {
+				b |= (data[i + 1] & 0xff) << 8;
+			}
+			if (i + 2 < data.length) {
+				b |= data[i + 2] & 0xff;
+			}
+			sb.append(ALPHABET[(b >> 18) & 0x3f]).append(ALPHABET[(b >> 12) & 0x3f]);
+			sb.append(i + 1 < data.length ? ALPHABET[(b >> 6) & 0x3f] : '=');
+			sb.append(i + 2 < data.length ? ALPHABET[b & 0x3f] : '=');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Decodifica o texto, ignorando quebras de linha e espaos.
+	 *
+	 * @param text
+	 * @return byte[]
+	 */
+	public static byte[] decode(String text) {
+		byte[] data = new byte[text.length() * 3 / 4];
+		int length = 0;
+		int buffer = 0;
+		int bits = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			int value;
+			if (c >= 'A' && c <= 'Z') {
+				value = c - 'A';
+			} else if (c >= 'a' && c <= 'z') {
+				value = c - 'a' + 26;
+			} else if (c >= '0' && c <= '9') {
+				value = c - '0' + 52;
+			} else if (c == '+') {
+				value = 62;
+			} else if (c == '/') {
+				value = 63;
+			} else if (c == '=') {
+				break;
+			} else if (Character.isWhitespace(c)) {
+				continue;
+			} else {
+				throw new IllegalArgumentException("Caractere invlido: " + c);
+			}
+			buffer = (buffer << 6) | value;
+			bits += 6;
+			if (bits >= 8) {
+				bits -= 8;
+				data[length++] = (byte) (buffer >> bits);
+			}
+		}
+		if (length == data.length) {
+			return data;
+		}
+		byte[] result = new byte[length];
+		System.arraycopy(data, 0, result, 0, length);
+		return result;
+	}
+
+	/**
+	 * Codifica a imagem no formato PNG.
+	 *
+	 * @param bitmap
+	 * @return String
+	 */
+	public static String encode(Bitmap bitmap) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		bitmap.compress(Bitmap.CompressFormat.PNG, 100, baos);
+		return encode(baos.toByteArray());
+	}
+}
@@ -1,10 +1,13 @@
 package br.com.rafael.jpdroid.util;
 
+import java.util.List;
+
 import org.json.JSONArray;
 
 import android.database.Cursor;
 import android.database.MatrixCursor;
 import br.com.rafael.jpdroid.converters.JpdroidCsvConverter;
+import br.com.rafael.jpdroid.converters.JpdroidEntityListCursor;
 import br.com.rafael.jpdroid.converters.JpdroidJsonConverter;
 import br.com.rafael.jpdroid.converters.JpdroidXmlConverter;
 import br.com.rafael.jpdroid.converters.JpdroidMatrixCursorConverter;
@@ -54,6 +57,17 @@ public static String toCsv(Cursor cursor) throws Exception {
 	public static MatrixCursor toMatrixCursor(Object entity, boolean onlyColumn){
 		return JpdroidMatrixCursorConverter.toMatrixCursor(entity,onlyColumn);
 	}
+	
+	/**
+	 * Retorna um cursor sobre a lista, sem copiar os dados das entidades.
+	 */
+	public static <T> Cursor toCursor(List<T> entities, Class<T> entity){
+		return new JpdroidEntityListCursor<T>(entities, entity);
+	}
+	
+	public static <T> Cursor toCursor(List<T> entities, Class<T> entity, boolean onlyColumn){
+		return new JpdroidEntityListCursor<T>(entities, entity, onlyColumn);
+	}
 
 
 }
@@ -1,6 +1,8 @@
 package br.com.rafael.jpdroid.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import br.com.rafael.jpdroid.converters.JpdroidCsvConverter;
@@ -10,7 +12,9 @@ import android.database.Cursor;
 
 /**
  * Classe responsvel por exportar arquivos no formato CSV para o carto de
- * memria.
+ * memria. <br>
+ * O contedo  escrito diretamente no arquivo,  medida que os registros so
+ * lidos. Aceita tambm o iterador retornado por Jpdroid.iterate().
  * 
  * @author Rafael Centenaro
  */
@@ -21,34 +25,29 @@ public class JpdroidCsvFile extends JpdroidWriteFile {
 	}
 
 	public static void export(Cursor cursor,Map<String, StringFormat> formatString, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidCsvConverter.toCsv(cursor,formatString).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidCsvConverter.write(cursor, formatString, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
 	public static void export(Cursor cursor, File file) {
-		String card_string;
-		try {
-
-			card_string = JpdroidConverter.toCsv(cursor).toString();
-			writeFile(file, card_string);
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		export(cursor, null, file);
 	}
 
 	public static void export(Cursor cursor, String fileName) {
-		String card_string;
 		try {
 
-			card_string = JpdroidConverter.toCsv(cursor).toString();
-			writeFile(card_string, fileName);
+			export(cursor, null, getExternalFile(fileName));
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -60,23 +59,26 @@ public class JpdroidCsvFile extends JpdroidWriteFile {
 	}
 
 	public static void export(Object entity, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidConverter.toCsv(entity).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidCsvConverter.write(entity, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
 
 	public static void export(Object entity, String fileName) {
-		String card_string;
 		try {
 
-			card_string = JpdroidConverter.toCsv(entity).toString();
-			writeFile(card_string, fileName);
+			export(entity, getExternalFile(fileName));
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -1,12 +1,18 @@
 package br.com.rafael.jpdroid.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 
+import br.com.rafael.jpdroid.converters.JpdroidJsonConverter;
 import br.com.rafael.jpdroid.core.JpdroidWriteFile;
 import android.database.Cursor;
 
 /**
  * Classe responsvel por exportar arquivos no formato JSON para o carto de memria.
+ * <br>
+ * O contedo  escrito diretamente no arquivo,  medida que os registros so lidos.
+ * Aceita tambm o iterador retornado por Jpdroid.iterate().
  * 
  * @author Rafael Centenaro
  */
@@ -16,22 +22,24 @@ public class JpdroidJsonFile extends JpdroidWriteFile {
 		export(cursor, "JsonFile" + getDateNow() + ".JSON");
 	}
 	public static void export(Cursor cursor, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidConverter.toJson(cursor).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidJsonConverter.write(cursor, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
 	public static void export(Cursor cursor, String fileName) {
-		String card_string;
 		try {
-			card_string = JpdroidConverter.toJson(cursor).toString();
-
-			writeFile(card_string, fileName);
+			export(cursor, getExternalFile(fileName));
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -43,23 +51,25 @@ public class JpdroidJsonFile extends JpdroidWriteFile {
 	}
 
 	public static void export(Object entity, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidConverter.toJson(entity).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidJsonConverter.write(entity, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
 	
 	public static void export(Object entity, String fileName) {
-		String card_string;
 		try {
-			card_string = JpdroidConverter.toJson(entity).toString();
-
-			writeFile(card_string, fileName);
+			export(entity, getExternalFile(fileName));
 			
 		} catch (Exception e) {
 			e.printStackTrace();
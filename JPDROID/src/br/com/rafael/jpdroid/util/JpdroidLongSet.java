@@ -0,0 +1,139 @@
+package br.com.rafael.jpdroid.util;
+
+/**
+ * Conjunto de valores long sem converso para objetos Long, utilizado para
+ * manipular chaves de registros.
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidLongSet {
+
+	private long[] keys;
+
+	private boolean[] used;
+
+	private int size;
+
+	public JpdroidLongSet() {
+		this(16);
+	}
+
+	public JpdroidLongSet(int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		used = new boolean[capacity];
+	}
+
+	/**
+	 * Adiciona o valor ao conjunto.
+	 *
+	 * @param key
+	 * @return true caso o valor ainda no exista no conjunto.
+	 */
+	public boolean add(long key) {
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		int i = indexOf(key);
+		if (used[i]) {
+			return false;
+		}
+		keys[i] = key;
+		used[i] = true;
+		size++;
+		return true;
+	}
+
+	public boolean contains(long key) {
+		return used[indexOf(key)];
+	}
+
+	/**
+	 * Remove o valor do conjunto.
+	 *
+	 * @param key
+	 * @return true caso o valor exista no conjunto.
+	 */
+	public boolean remove(long key) {
+		int i = indexOf(key);
+		if (!used[i]) {
+			return false;
+		}
+		used[i] = false;
+		size--;
+		// Reposiciona os valores seguintes para manter a sequncia de busca.
+		int mask = keys.length - 1;
+		int j = (i + 1) & mask;
+		while (used[j]) {
+			long moved = keys[j];
+			used[j] = false;
+			int k = indexOf(moved);
+			keys[k] = moved;
+			used[k] = true;
+			j = (j + 1) & mask;
+		}
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		for (int i = 0; i < used.length; i++) {
+			used[i] = false;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Retorna os valores do conjunto, sem ordem definida.
+	 *
+	 * @return long[]
+	 */
+	public long[] toArray() {
+		long[] values = new long[size];
+		int pos = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (used[i]) {
+				values[pos++] = keys[i];
+			}
+		}
+		return values;
+	}
+
+	private int indexOf(long key) {
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (used[i] && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		boolean[] oldUsed = used;
+		keys = new long[capacity];
+		used = new boolean[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int j = indexOf(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				used[j] = true;
+			}
+		}
+	}
+}
@@ -2,11 +2,17 @@ package br.com.rafael.jpdroid.util;
 
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 
+import br.com.rafael.jpdroid.converters.JpdroidXmlConverter;
 import br.com.rafael.jpdroid.core.JpdroidWriteFile;
 import android.database.Cursor;
 /**
  * Classe responsvel por exportar arquivos no formato XML para o carto de memria.
+ * <br>
+ * O contedo  escrito diretamente no arquivo,  medida que os registros so lidos.
+ * Aceita tambm o iterador retornado por Jpdroid.iterate().
  * 
  * @author Rafael Centenaro
  *
@@ -18,13 +24,18 @@ public class JpdroidXmlFile extends JpdroidWriteFile {
 	}
 	
 	public static void export(Cursor cursor, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidConverter.toXml(cursor).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidXmlConverter.write(cursor, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
@@ -33,7 +44,7 @@ public class JpdroidXmlFile extends JpdroidWriteFile {
 
 		try {
 
-			writeFile(JpdroidConverter.toXml(entity), fileName);
+			export(entity, getExternalFile(fileName));
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -45,13 +56,18 @@ public class JpdroidXmlFile extends JpdroidWriteFile {
 	}
 	
 	public static void export(Object entity, File file) {
-		String card_string;
+		long start = System.nanoTime();
 		try {
-
-			card_string = JpdroidConverter.toXml(entity).toString();
-			writeFile(file, card_string);
+			OutputStream out = new FileOutputStream(file);
+			try {
+				JpdroidXmlConverter.write(entity, out);
+			} finally {
+				out.close();
+			}
+			exported(file, start, null);
 
 		} catch (Exception e) {
+			exported(file, start, e);
 			e.printStackTrace();
 		}
 	}
@@ -60,7 +76,7 @@ public class JpdroidXmlFile extends JpdroidWriteFile {
 
 		try {
 
-			writeFile(JpdroidConverter.toXml(cursor), fileName);
+			export(cursor, getExternalFile(fileName));
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -0,0 +1,147 @@
+package android.content;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shim do android.content.ContentValues para os benchmarks na JVM. Assim
+ * como no Android, os valores so mantidos em um mapa pelo nome da coluna.
+ *
+ * @author Rafael Centenaro
+ */
+public final class ContentValues {
+
+	private final LinkedHashMap<String, Object> values;
+
+	public ContentValues() {
+		values = new LinkedHashMap<String, Object>(8);
+	}
+
+	public ContentValues(int size) {
+		values = new LinkedHashMap<String, Object>(size * 2);
+	}
+
+	public ContentValues(ContentValues from) {
+		values = new LinkedHashMap<String, Object>(from.values);
+	}
+
+	public void put(String key, String value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Byte value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Short value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Integer value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Long value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Float value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Double value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, Boolean value) {
+		values.put(key, value);
+	}
+
+	public void put(String key, byte[] value) {
+		values.put(key, value);
+	}
+
+	public void putAll(ContentValues other) {
+		values.putAll(other.values);
+	}
+
+	public void putNull(String key) {
+		values.put(key, null);
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public void remove(String key) {
+		values.remove(key);
+	}
+
+	public void clear() {
+		values.clear();
+	}
+
+	public boolean containsKey(String key) {
+		return values.containsKey(key);
+	}
+
+	public Object get(String key) {
+		return values.get(key);
+	}
+
+	public String getAsString(String key) {
+		Object value = values.get(key);
+		return value == null ? null : value.toString();
+	}
+
+	public Long getAsLong(String key) {
+		Object value = values.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		return value == null ? null : Long.valueOf(value.toString());
+	}
+
+	public Integer getAsInteger(String key) {
+		Object value = values.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).intValue();
+		}
+		return value == null ? null : Integer.valueOf(value.toString());
+	}
+
+	public Double getAsDouble(String key) {
+		Object value = values.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		return value == null ? null : Double.valueOf(value.toString());
+	}
+
+	public Boolean getAsBoolean(String key) {
+		Object value = values.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).intValue() != 0;
+		}
+		return value == null ? null : Boolean.valueOf(value.toString());
+	}
+
+	public byte[] getAsByteArray(String key) {
+		Object value = values.get(key);
+		return value instanceof byte[] ? (byte[]) value : null;
+	}
+
+	public Set<Map.Entry<String, Object>> valueSet() {
+		return values.entrySet();
+	}
+
+	public Set<String> keySet() {
+		return values.keySet();
+	}
+
+	@Override
+	public String toString() {
+		return values.toString();
+	}
+}
@@ -0,0 +1,58 @@
+package android.content;
+
+import java.io.File;
+
+import android.content.pm.ApplicationInfo;
+import android.content.res.AssetManager;
+
+/**
+ * Shim do android.content.Context para os benchmarks na JVM. Os bancos de
+ * dados e os arquivos da aplicao so gravados no diretrio informado.
+ *
+ * @author Rafael Centenaro
+ */
+public class Context {
+
+	private final File dataDir;
+
+	public Context(File dataDir) {
+		this.dataDir = dataDir;
+	}
+
+	public String getPackageName() {
+		return "br.com.rafael.jpdroid.benchmark";
+	}
+
+	/**
+	 * @return null, no existe apk instalado.
+	 */
+	public ApplicationInfo getApplicationInfo() {
+		return null;
+	}
+
+	public AssetManager getAssets() {
+		throw new UnsupportedOperationException(
+				"Assets no disponveis fora do Android.");
+	}
+
+	public File getFilesDir() {
+		return mkdirs(new File(dataDir, "files"));
+	}
+
+	public File getDatabasePath(String name) {
+		return new File(mkdirs(new File(dataDir, "databases")), name);
+	}
+
+	public boolean deleteDatabase(String name) {
+		File file = getDatabasePath(name);
+		new File(file.getPath() + "-journal").delete();
+		return file.delete();
+	}
+
+	private static File mkdirs(File dir) {
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
+		return dir;
+	}
+}
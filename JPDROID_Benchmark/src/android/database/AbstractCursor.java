@@ -0,0 +1,161 @@
+package android.database;
+
+/**
+ * Shim do android.database.AbstractCursor para os benchmarks na JVM:
+ * navegao pela posio (mPos) e busca das colunas pelo nome.
+ *
+ * @author Rafael Centenaro
+ */
+public abstract class AbstractCursor implements Cursor {
+
+	protected int mPos = -1;
+
+	protected boolean mClosed;
+
+	@Override
+	public abstract int getCount();
+
+	@Override
+	public abstract String[] getColumnNames();
+
+	@Override
+	public int getColumnCount() {
+		return getColumnNames().length;
+	}
+
+	@Override
+	public final int getPosition() {
+		return mPos;
+	}
+
+	/**
+	 * Chamado antes da mudana de posio; retorna false quando a nova
+	 * posio no pode ser carregada.
+	 */
+	public boolean onMove(int oldPosition, int newPosition) {
+		return true;
+	}
+
+	@Override
+	public final boolean moveToPosition(int position) {
+		int count = getCount();
+		if (position >= count) {
+			mPos = count;
+			return false;
+		}
+		if (position < 0) {
+			mPos = -1;
+			return false;
+		}
+		if (position == mPos) {
+			return true;
+		}
+		if (!onMove(mPos, position)) {
+			mPos = -1;
+			return false;
+		}
+		mPos = position;
+		return true;
+	}
+
+	@Override
+	public final boolean move(int offset) {
+		return moveToPosition(mPos + offset);
+	}
+
+	@Override
+	public final boolean moveToFirst() {
+		return moveToPosition(0);
+	}
+
+	@Override
+	public final boolean moveToLast() {
+		return moveToPosition(getCount() - 1);
+	}
+
+	@Override
+	public final boolean moveToNext() {
+		return moveToPosition(mPos + 1);
+	}
+
+	@Override
+	public final boolean moveToPrevious() {
+		return moveToPosition(mPos - 1);
+	}
+
+	@Override
+	public final boolean isFirst() {
+		return mPos == 0 && getCount() != 0;
+	}
+
+	@Override
+	public final boolean isLast() {
+		int count = getCount();
+		return mPos == count - 1 && count != 0;
+	}
+
+	@Override
+	public final boolean isBeforeFirst() {
+		return getCount() == 0 || mPos == -1;
+	}
+
+	@Override
+	public final boolean isAfterLast() {
+		return getCount() == 0 || mPos == getCount();
+	}
+
+	/**
+	 * Como no Android, o prefixo da tabela ("tabela.coluna")  ignorado e a
+	 * comparao no diferencia maisculas de minsculas.
+	 */
+	@Override
+	public int getColumnIndex(String columnName) {
+		int periodIndex = columnName.lastIndexOf('.');
+		if (periodIndex != -1) {
+			columnName = columnName.substring(periodIndex + 1);
+		}
+		String[] columnNames = getColumnNames();
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equalsIgnoreCase(columnName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getColumnIndexOrThrow(String columnName) {
+		int index = getColumnIndex(columnName);
+		if (index < 0) {
+			throw new IllegalArgumentException("column '" + columnName
+					+ "' does not exist");
+		}
+		return index;
+	}
+
+	@Override
+	public String getColumnName(int columnIndex) {
+		return getColumnNames()[columnIndex];
+	}
+
+	@Override
+	public byte[] getBlob(int column) {
+		throw new UnsupportedOperationException("getBlob is not supported");
+	}
+
+	@Override
+	public void close() {
+		mClosed = true;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return mClosed;
+	}
+
+	protected void checkPosition() {
+		if (mPos == -1 || getCount() == mPos) {
+			throw new CursorIndexOutOfBoundsException(mPos, getCount());
+		}
+	}
+}
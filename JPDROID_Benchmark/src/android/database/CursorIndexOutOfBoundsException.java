@@ -0,0 +1,20 @@
+package android.database;
+
+/**
+ * Shim do android.database.CursorIndexOutOfBoundsException para os
+ * benchmarks na JVM.
+ *
+ * @author Rafael Centenaro
+ */
+public class CursorIndexOutOfBoundsException extends IndexOutOfBoundsException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CursorIndexOutOfBoundsException(int index, int size) {
+		super("Index " + index + " requested, with a size of " + size);
+	}
+
+	public CursorIndexOutOfBoundsException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,163 @@
+package android.database;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * Shim do android.database.CursorWindow para os benchmarks na JVM. As linhas
+ * so mantidas em memria com o tipo de armazenamento do SQLite de cada valor
+ * (Long, Double, String, byte[] ou null) e convertidas na leitura como no
+ * Android.
+ *
+ * @author Rafael Centenaro
+ */
+public class CursorWindow {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final ArrayList<Object[]> rows = new ArrayList<Object[]>();
+
+	public CursorWindow(String name) {
+	}
+
+	/**
+	 * Adiciona uma linha  janela (exclusivo do shim).
+	 *
+	 * @param row
+	 */
+	public void addRow(Object[] row) {
+		rows.add(row);
+	}
+
+	public int getStartPosition() {
+		return 0;
+	}
+
+	public int getNumRows() {
+		return rows.size();
+	}
+
+	public void clear() {
+		rows.clear();
+	}
+
+	public void close() {
+		clear();
+	}
+
+	private Object get(int row, int column) {
+		return rows.get(row)[column];
+	}
+
+	public boolean isNull(int row, int column) {
+		return get(row, column) == null;
+	}
+
+	/**
+	 * @return true para BLOB ou NULL, como no Android.
+	 */
+	public boolean isBlob(int row, int column) {
+		Object value = get(row, column);
+		return value == null || value instanceof byte[];
+	}
+
+	public boolean isLong(int row, int column) {
+		return get(row, column) instanceof Long;
+	}
+
+	public boolean isFloat(int row, int column) {
+		return get(row, column) instanceof Double;
+	}
+
+	/**
+	 * @return true para TEXT ou NULL, como no Android.
+	 */
+	public boolean isString(int row, int column) {
+		Object value = get(row, column);
+		return value == null || value instanceof String;
+	}
+
+	public byte[] getBlob(int row, int column) {
+		Object value = get(row, column);
+		if (value == null || value instanceof byte[]) {
+			return (byte[]) value;
+		}
+		if (value instanceof String) {
+			return ((String) value).getBytes(UTF_8);
+		}
+		throw new SQLException("Unable to convert " + typeName(value)
+				+ " to blob");
+	}
+
+	public String getString(int row, int column) {
+		Object value = get(row, column);
+		if (value instanceof byte[]) {
+			throw new SQLException("Unable to convert BLOB to string");
+		}
+		return value == null ? null : value.toString();
+	}
+
+	public long getLong(int row, int column) {
+		Object value = get(row, column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof String) {
+			return parseLong((String) value);
+		}
+		throw new SQLException("Unable to convert BLOB to long");
+	}
+
+	public double getDouble(int row, int column) {
+		Object value = get(row, column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		if (value instanceof String) {
+			return parseDouble((String) value);
+		}
+		throw new SQLException("Unable to convert BLOB to double");
+	}
+
+	public int getInt(int row, int column) {
+		return (int) getLong(row, column);
+	}
+
+	public short getShort(int row, int column) {
+		return (short) getLong(row, column);
+	}
+
+	public float getFloat(int row, int column) {
+		return (float) getDouble(row, column);
+	}
+
+	/**
+	 * Texto convertido como pelo strtoll do Android: valores invlidos
+	 * resultam em 0.
+	 */
+	private static long parseLong(String value) {
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return (long) parseDouble(value);
+		}
+	}
+
+	private static double parseDouble(String value) {
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static String typeName(Object value) {
+		return value instanceof Long ? "INTEGER" : "FLOAT";
+	}
+}
@@ -0,0 +1,138 @@
+package android.database;
+
+import java.util.ArrayList;
+
+/**
+ * Shim do android.database.MatrixCursor para os benchmarks na JVM.
+ *
+ * @author Rafael Centenaro
+ */
+public class MatrixCursor extends AbstractCursor {
+
+	private final String[] columnNames;
+
+	private final ArrayList<Object[]> rows;
+
+	public MatrixCursor(String[] columnNames, int initialCapacity) {
+		this.columnNames = columnNames;
+		this.rows = new ArrayList<Object[]>(Math.max(initialCapacity, 1));
+	}
+
+	public MatrixCursor(String[] columnNames) {
+		this(columnNames, 16);
+	}
+
+	public void addRow(Object[] columnValues) {
+		if (columnValues.length != columnNames.length) {
+			throw new IllegalArgumentException("columnNames.length = "
+					+ columnNames.length + ", columnValues.length = "
+					+ columnValues.length);
+		}
+		Object[] row = new Object[columnNames.length];
+		System.arraycopy(columnValues, 0, row, 0, row.length);
+		rows.add(row);
+	}
+
+	public void addRow(Iterable<?> columnValues) {
+		ArrayList<Object> row = new ArrayList<Object>(columnNames.length);
+		for (Object value : columnValues) {
+			row.add(value);
+		}
+		addRow(row.toArray());
+	}
+
+	private Object get(int column) {
+		if (column < 0 || column >= columnNames.length) {
+			throw new CursorIndexOutOfBoundsException("Requested column: "
+					+ column + ", # of columns: " + columnNames.length);
+		}
+		checkPosition();
+		return rows.get(mPos)[column];
+	}
+
+	@Override
+	public int getCount() {
+		return rows.size();
+	}
+
+	@Override
+	public String[] getColumnNames() {
+		return columnNames;
+	}
+
+	@Override
+	public String getString(int column) {
+		Object value = get(column);
+		return value == null ? null : value.toString();
+	}
+
+	@Override
+	public short getShort(int column) {
+		Object value = get(column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).shortValue();
+		}
+		return Short.parseShort(value.toString());
+	}
+
+	@Override
+	public int getInt(int column) {
+		Object value = get(column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).intValue();
+		}
+		return Integer.parseInt(value.toString());
+	}
+
+	@Override
+	public long getLong(int column) {
+		Object value = get(column);
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		return Long.parseLong(value.toString());
+	}
+
+	@Override
+	public float getFloat(int column) {
+		Object value = get(column);
+		if (value == null) {
+			return 0.0f;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).floatValue();
+		}
+		return Float.parseFloat(value.toString());
+	}
+
+	@Override
+	public double getDouble(int column) {
+		Object value = get(column);
+		if (value == null) {
+			return 0.0d;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		return Double.parseDouble(value.toString());
+	}
+
+	@Override
+	public byte[] getBlob(int column) {
+		return (byte[]) get(column);
+	}
+
+	@Override
+	public boolean isNull(int column) {
+		return get(column) == null;
+	}
+}
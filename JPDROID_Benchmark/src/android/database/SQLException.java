@@ -0,0 +1,22 @@
+package android.database;
+
+/**
+ * Shim do android.database.SQLException para os benchmarks na JVM.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SQLException() {
+	}
+
+	public SQLException(String error) {
+		super(error);
+	}
+
+	public SQLException(String error, Throwable cause) {
+		super(error, cause);
+	}
+}
@@ -0,0 +1,94 @@
+package android.database.sqlite;
+
+import android.database.AbstractCursor;
+import android.database.CursorWindow;
+
+/**
+ * Shim do android.database.sqlite.SQLiteCursor para os benchmarks na JVM. O
+ * resultado completo da consulta  carregado na CursorWindow, que converte
+ * os valores na leitura como no Android.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLiteCursor extends AbstractCursor {
+
+	private final String[] columns;
+
+	private CursorWindow window;
+
+	public SQLiteCursor(String[] columns, CursorWindow window) {
+		this.columns = columns;
+		this.window = window;
+	}
+
+	public CursorWindow getWindow() {
+		return window;
+	}
+
+	@Override
+	public int getCount() {
+		return window == null ? 0 : window.getNumRows();
+	}
+
+	@Override
+	public String[] getColumnNames() {
+		return columns;
+	}
+
+	@Override
+	public byte[] getBlob(int column) {
+		checkPosition();
+		return window.getBlob(mPos, column);
+	}
+
+	@Override
+	public String getString(int column) {
+		checkPosition();
+		return window.getString(mPos, column);
+	}
+
+	@Override
+	public short getShort(int column) {
+		checkPosition();
+		return window.getShort(mPos, column);
+	}
+
+	@Override
+	public int getInt(int column) {
+		checkPosition();
+		return window.getInt(mPos, column);
+	}
+
+	@Override
+	public long getLong(int column) {
+		checkPosition();
+		return window.getLong(mPos, column);
+	}
+
+	@Override
+	public float getFloat(int column) {
+		checkPosition();
+		return window.getFloat(mPos, column);
+	}
+
+	@Override
+	public double getDouble(int column) {
+		checkPosition();
+		return window.getDouble(mPos, column);
+	}
+
+	@Override
+	public boolean isNull(int column) {
+		checkPosition();
+		return window.isNull(mPos, column);
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		if (window != null) {
+			window.close();
+			window = null;
+		}
+	}
+}
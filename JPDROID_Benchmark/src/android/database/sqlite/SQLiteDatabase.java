@@ -0,0 +1,449 @@
+package android.database.sqlite;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Map;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.CursorWindow;
+import android.util.Log;
+
+/**
+ * Shim do android.database.sqlite.SQLiteDatabase para os benchmarks na JVM,
+ * sobre uma conexo do sqlite-jdbc. <br>
+ * As transaes podem ser aninhadas, como no Android: as alteraes so
+ * efetivadas ao finalizar a transao externa, desde que todas as
+ * transaes tenham chamado setTransactionSuccessful(). As consultas so
+ * carregadas por completo na CursorWindow do cursor retornado.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLiteDatabase {
+
+	public static final String DRIVER = "org.sqlite.JDBC";
+
+	/**
+	 * No utilizado pelo shim; mantido para compatibilidade das assinaturas.
+	 */
+	public interface CursorFactory {
+	}
+
+	private final String path;
+
+	private final Connection connection;
+
+	/**
+	 * Indicao de sucesso de cada transao aberta.
+	 */
+	private final ArrayList<Boolean> transactions = new ArrayList<Boolean>();
+
+	private boolean failed;
+
+	private PreparedStatement lastInsertRowId;
+
+	private SQLiteDatabase(String path, Connection connection) {
+		this.path = path;
+		this.connection = connection;
+	}
+
+	public static SQLiteDatabase openOrCreateDatabase(String path,
+			CursorFactory factory) {
+		try {
+			Class.forName(DRIVER);
+			return new SQLiteDatabase(path,
+					DriverManager.getConnection("jdbc:sqlite:" + path));
+		} catch (Exception e) {
+			throw new SQLiteException("No foi possvel abrir o banco "
+					+ path + ": " + e.getMessage(), e);
+		}
+	}
+
+	public static SQLiteDatabase openOrCreateDatabase(File file,
+			CursorFactory factory) {
+		return openOrCreateDatabase(file.getPath(), factory);
+	}
+
+	/**
+	 * Banco de dados em memria.
+	 */
+	public static SQLiteDatabase create(CursorFactory factory) {
+		return openOrCreateDatabase(":memory:", factory);
+	}
+
+	static SQLiteException wrap(SQLException e) {
+		return new SQLiteException(e.getMessage(), e);
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public boolean isOpen() {
+		try {
+			return !connection.isClosed();
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	public boolean isReadOnly() {
+		return false;
+	}
+
+	public int getVersion() {
+		try {
+			Statement statement = connection.createStatement();
+			try {
+				ResultSet resultSet = statement
+						.executeQuery("PRAGMA user_version");
+				return resultSet.next() ? resultSet.getInt(1) : 0;
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public void setVersion(int version) {
+		execSQL("PRAGMA user_version = " + version);
+	}
+
+	public void execSQL(String sql) {
+		if (sql.trim().length() == 0) {
+			return;
+		}
+		try {
+			Statement statement = connection.createStatement();
+			try {
+				statement.execute(sql);
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public void execSQL(String sql, Object[] bindArgs) {
+		try {
+			PreparedStatement statement = connection.prepareStatement(sql);
+			try {
+				if (bindArgs != null) {
+					for (int i = 0; i < bindArgs.length; i++) {
+						bind(statement, i + 1, bindArgs[i]);
+					}
+				}
+				statement.execute();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public Cursor rawQuery(String sql, String[] selectionArgs) {
+		try {
+			PreparedStatement statement = connection.prepareStatement(sql);
+			try {
+				if (selectionArgs != null) {
+					for (int i = 0; i < selectionArgs.length; i++) {
+						statement.setString(i + 1, selectionArgs[i]);
+					}
+				}
+				return fill(statement.executeQuery());
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public Cursor query(String table, String[] columns, String selection,
+			String[] selectionArgs, String groupBy, String having,
+			String orderBy) {
+		return query(table, columns, selection, selectionArgs, groupBy,
+				having, orderBy, null);
+	}
+
+	public Cursor query(String table, String[] columns, String selection,
+			String[] selectionArgs, String groupBy, String having,
+			String orderBy, String limit) {
+		StringBuilder sql = new StringBuilder("SELECT ");
+		if (columns == null || columns.length == 0) {
+			sql.append('*');
+		} else {
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					sql.append(", ");
+				}
+				sql.append(columns[i]);
+			}
+		}
+		sql.append(" FROM ").append(table);
+		appendClause(sql, " WHERE ", selection);
+		appendClause(sql, " GROUP BY ", groupBy);
+		appendClause(sql, " HAVING ", having);
+		appendClause(sql, " ORDER BY ", orderBy);
+		appendClause(sql, " LIMIT ", limit);
+		return rawQuery(sql.toString(), selectionArgs);
+	}
+
+	/**
+	 * Como no Android, os erros so registrados no log e o retorno  -1.
+	 */
+	public long insert(String table, String nullColumnHack,
+			ContentValues values) {
+		try {
+			return insertOrThrow(table, nullColumnHack, values);
+		} catch (android.database.SQLException e) {
+			Log.e("SQLiteDatabase", "Error inserting " + values + ": "
+					+ e.getMessage());
+			return -1;
+		}
+	}
+
+	public long insertOrThrow(String table, String nullColumnHack,
+			ContentValues values) {
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+				.append('(');
+		int size = values == null ? 0 : values.size();
+		if (size == 0) {
+			sql.append(nullColumnHack).append(") VALUES (NULL)");
+		} else {
+			int i = 0;
+			for (String column : values.keySet()) {
+				sql.append(i++ > 0 ? "," : "").append(column);
+			}
+			sql.append(") VALUES (");
+			for (i = 0; i < size; i++) {
+				sql.append(i > 0 ? ",?" : "?");
+			}
+			sql.append(')');
+		}
+		try {
+			PreparedStatement statement = connection.prepareStatement(sql
+					.toString());
+			try {
+				bindValues(statement, values, 1);
+				if (statement.executeUpdate() == 0) {
+					return -1;
+				}
+				return lastInsertRowId();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public int update(String table, ContentValues values, String whereClause,
+			String[] whereArgs) {
+		if (values == null || values.size() == 0) {
+			throw new IllegalArgumentException("Empty values");
+		}
+		StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(
+				" SET ");
+		int i = 0;
+		for (String column : values.keySet()) {
+			sql.append(i++ > 0 ? "," : "").append(column).append("=?");
+		}
+		appendClause(sql, " WHERE ", whereClause);
+		try {
+			PreparedStatement statement = connection.prepareStatement(sql
+					.toString());
+			try {
+				int index = bindValues(statement, values, 1);
+				bindArgs(statement, whereArgs, index);
+				return statement.executeUpdate();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public int delete(String table, String whereClause, String[] whereArgs) {
+		StringBuilder sql = new StringBuilder("DELETE FROM ").append(table);
+		appendClause(sql, " WHERE ", whereClause);
+		try {
+			PreparedStatement statement = connection.prepareStatement(sql
+					.toString());
+			try {
+				bindArgs(statement, whereArgs, 1);
+				return statement.executeUpdate();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public SQLiteStatement compileStatement(String sql) {
+		try {
+			return new SQLiteStatement(this, connection.prepareStatement(sql));
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public void beginTransaction() {
+		try {
+			if (transactions.isEmpty()) {
+				connection.setAutoCommit(false);
+				failed = false;
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+		transactions.add(Boolean.FALSE);
+	}
+
+	public void setTransactionSuccessful() {
+		if (transactions.isEmpty()) {
+			throw new IllegalStateException("no transaction pending");
+		}
+		transactions.set(transactions.size() - 1, Boolean.TRUE);
+	}
+
+	public void endTransaction() {
+		if (transactions.isEmpty()) {
+			throw new IllegalStateException("no transaction pending");
+		}
+		if (!transactions.remove(transactions.size() - 1).booleanValue()) {
+			failed = true;
+		}
+		if (!transactions.isEmpty()) {
+			return;
+		}
+		try {
+			try {
+				if (failed) {
+					connection.rollback();
+				} else {
+					connection.commit();
+				}
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	public boolean inTransaction() {
+		return !transactions.isEmpty();
+	}
+
+	public void close() {
+		try {
+			if (lastInsertRowId != null) {
+				lastInsertRowId.close();
+			}
+			connection.close();
+		} catch (SQLException e) {
+			throw wrap(e);
+		}
+	}
+
+	long lastInsertRowId() throws SQLException {
+		if (lastInsertRowId == null) {
+			lastInsertRowId = connection
+					.prepareStatement("SELECT last_insert_rowid()");
+		}
+		ResultSet resultSet = lastInsertRowId.executeQuery();
+		try {
+			return resultSet.next() ? resultSet.getLong(1) : -1;
+		} finally {
+			resultSet.close();
+		}
+	}
+
+	/**
+	 * Carrega o resultado completo na CursorWindow, com o tipo de
+	 * armazenamento de cada valor.
+	 */
+	private static Cursor fill(ResultSet resultSet) throws SQLException {
+		try {
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			int count = metaData.getColumnCount();
+			String[] columns = new String[count];
+			for (int i = 0; i < count; i++) {
+				columns[i] = metaData.getColumnLabel(i + 1);
+			}
+			CursorWindow window = new CursorWindow(null);
+			while (resultSet.next()) {
+				Object[] row = new Object[count];
+				for (int i = 0; i < count; i++) {
+					Object value = resultSet.getObject(i + 1);
+					if (value instanceof Integer) {
+						value = Long.valueOf(((Integer) value).longValue());
+					}
+					row[i] = value;
+				}
+				window.addRow(row);
+			}
+			return new SQLiteCursor(columns, window);
+		} finally {
+			resultSet.close();
+		}
+	}
+
+	private static void appendClause(StringBuilder sql, String name,
+			String clause) {
+		if (clause != null && clause.length() > 0) {
+			sql.append(name).append(clause);
+		}
+	}
+
+	private static int bindValues(PreparedStatement statement,
+			ContentValues values, int index) throws SQLException {
+		if (values != null) {
+			for (Map.Entry<String, Object> entry : values.valueSet()) {
+				bind(statement, index++, entry.getValue());
+			}
+		}
+		return index;
+	}
+
+	private static void bindArgs(PreparedStatement statement, String[] args,
+			int index) throws SQLException {
+		if (args != null) {
+			for (String arg : args) {
+				statement.setString(index++, arg);
+			}
+		}
+	}
+
+	private static void bind(PreparedStatement statement, int index,
+			Object value) throws SQLException {
+		if (value == null) {
+			statement.setNull(index, Types.NULL);
+		} else if (value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte) {
+			statement.setLong(index, ((Number) value).longValue());
+		} else if (value instanceof Number) {
+			statement.setDouble(index, ((Number) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			statement.setLong(index, ((Boolean) value).booleanValue() ? 1 : 0);
+		} else if (value instanceof byte[]) {
+			statement.setBytes(index, (byte[]) value);
+		} else {
+			statement.setString(index, value.toString());
+		}
+	}
+}
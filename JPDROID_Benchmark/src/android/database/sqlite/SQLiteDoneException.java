@@ -0,0 +1,19 @@
+package android.database.sqlite;
+
+/**
+ * Shim do android.database.sqlite.SQLiteDoneException: a consulta de
+ * SQLiteStatement.simpleQueryFor*() no retornou registros.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLiteDoneException extends SQLiteException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SQLiteDoneException() {
+	}
+
+	public SQLiteDoneException(String error) {
+		super(error);
+	}
+}
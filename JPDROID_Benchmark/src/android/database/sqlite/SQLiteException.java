@@ -0,0 +1,24 @@
+package android.database.sqlite;
+
+import android.database.SQLException;
+
+/**
+ * Shim do android.database.sqlite.SQLiteException para os benchmarks na JVM.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLiteException extends SQLException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SQLiteException() {
+	}
+
+	public SQLiteException(String error) {
+		super(error);
+	}
+
+	public SQLiteException(String error, Throwable cause) {
+		super(error, cause);
+	}
+}
@@ -0,0 +1,96 @@
+package android.database.sqlite;
+
+import android.content.Context;
+
+/**
+ * Shim do android.database.sqlite.SQLiteOpenHelper para os benchmarks na
+ * JVM: abre o banco no diretrio do Context e executa onCreate/onUpgrade
+ * conforme o user_version, como no Android.
+ *
+ * @author Rafael Centenaro
+ */
+public abstract class SQLiteOpenHelper {
+
+	private final Context context;
+
+	private final String name;
+
+	private final SQLiteDatabase.CursorFactory factory;
+
+	private final int newVersion;
+
+	private SQLiteDatabase database;
+
+	public SQLiteOpenHelper(Context context, String name,
+			SQLiteDatabase.CursorFactory factory, int version) {
+		if (version < 1) {
+			throw new IllegalArgumentException("Version must be >= 1, was "
+					+ version);
+		}
+		this.context = context;
+		this.name = name;
+		this.factory = factory;
+		this.newVersion = version;
+	}
+
+	public String getDatabaseName() {
+		return name;
+	}
+
+	public synchronized SQLiteDatabase getWritableDatabase() {
+		if (database != null && database.isOpen()) {
+			return database;
+		}
+		SQLiteDatabase db = name == null ? SQLiteDatabase.create(factory)
+				: SQLiteDatabase.openOrCreateDatabase(
+						context.getDatabasePath(name), factory);
+		onConfigure(db);
+		int version = db.getVersion();
+		if (version != newVersion) {
+			db.beginTransaction();
+			try {
+				if (version == 0) {
+					onCreate(db);
+				} else if (version > newVersion) {
+					onDowngrade(db, version, newVersion);
+				} else {
+					onUpgrade(db, version, newVersion);
+				}
+				db.setVersion(newVersion);
+				db.setTransactionSuccessful();
+			} finally {
+				db.endTransaction();
+			}
+		}
+		onOpen(db);
+		database = db;
+		return db;
+	}
+
+	public synchronized SQLiteDatabase getReadableDatabase() {
+		return getWritableDatabase();
+	}
+
+	public synchronized void close() {
+		if (database != null && database.isOpen()) {
+			database.close();
+		}
+		database = null;
+	}
+
+	public void onConfigure(SQLiteDatabase db) {
+	}
+
+	public abstract void onCreate(SQLiteDatabase db);
+
+	public abstract void onUpgrade(SQLiteDatabase db, int oldVersion,
+			int newVersion);
+
+	public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		throw new SQLiteException("Can't downgrade database from version "
+				+ oldVersion + " to " + newVersion);
+	}
+
+	public void onOpen(SQLiteDatabase db) {
+	}
+}
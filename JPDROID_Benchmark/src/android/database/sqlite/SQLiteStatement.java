@@ -0,0 +1,151 @@
+package android.database.sqlite;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Shim do android.database.sqlite.SQLiteStatement para os benchmarks na JVM,
+ * sobre um PreparedStatement do sqlite-jdbc.
+ *
+ * @author Rafael Centenaro
+ */
+public class SQLiteStatement {
+
+	private final SQLiteDatabase database;
+
+	private final PreparedStatement statement;
+
+	SQLiteStatement(SQLiteDatabase database, PreparedStatement statement) {
+		this.database = database;
+		this.statement = statement;
+	}
+
+	public void bindNull(int index) {
+		try {
+			statement.setNull(index, Types.NULL);
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void bindLong(int index, long value) {
+		try {
+			statement.setLong(index, value);
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void bindDouble(int index, double value) {
+		try {
+			statement.setDouble(index, value);
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void bindString(int index, String value) {
+		if (value == null) {
+			throw new IllegalArgumentException("the bind value at index "
+					+ index + " is null");
+		}
+		try {
+			statement.setString(index, value);
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void bindBlob(int index, byte[] value) {
+		if (value == null) {
+			throw new IllegalArgumentException("the bind value at index "
+					+ index + " is null");
+		}
+		try {
+			statement.setBytes(index, value);
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void clearBindings() {
+		try {
+			statement.clearParameters();
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void execute() {
+		try {
+			statement.execute();
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public int executeUpdateDelete() {
+		try {
+			return statement.executeUpdate();
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	/**
+	 * @return rowid do registro includo ou -1 quando nenhum registro foi
+	 *         includo.
+	 */
+	public long executeInsert() {
+		try {
+			if (statement.executeUpdate() == 0) {
+				return -1;
+			}
+			return database.lastInsertRowId();
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public long simpleQueryForLong() {
+		try {
+			ResultSet resultSet = statement.executeQuery();
+			try {
+				if (!resultSet.next()) {
+					throw new SQLiteDoneException();
+				}
+				return resultSet.getLong(1);
+			} finally {
+				resultSet.close();
+			}
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public String simpleQueryForString() {
+		try {
+			ResultSet resultSet = statement.executeQuery();
+			try {
+				if (!resultSet.next()) {
+					throw new SQLiteDoneException();
+				}
+				return resultSet.getString(1);
+			} finally {
+				resultSet.close();
+			}
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+
+	public void close() {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			throw SQLiteDatabase.wrap(e);
+		}
+	}
+}
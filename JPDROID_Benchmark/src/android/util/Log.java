@@ -0,0 +1,64 @@
+package android.util;
+
+/**
+ * Shim do android.util.Log para os benchmarks na JVM: avisos e erros so
+ * escritos na sada de erro, as demais mensagens so descartadas.
+ *
+ * @author Rafael Centenaro
+ */
+public final class Log {
+
+	public static final int VERBOSE = 2;
+
+	public static final int DEBUG = 3;
+
+	public static final int INFO = 4;
+
+	public static final int WARN = 5;
+
+	public static final int ERROR = 6;
+
+	private Log() {
+	}
+
+	public static int v(String tag, String msg) {
+		return 0;
+	}
+
+	public static int d(String tag, String msg) {
+		return 0;
+	}
+
+	public static int i(String tag, String msg) {
+		return 0;
+	}
+
+	public static int w(String tag, String msg) {
+		return println(WARN, tag, msg);
+	}
+
+	public static int w(String tag, String msg, Throwable tr) {
+		return println(WARN, tag, msg + '\n' + tr);
+	}
+
+	public static int e(String tag, String msg) {
+		return println(ERROR, tag, msg);
+	}
+
+	public static int e(String tag, String msg, Throwable tr) {
+		return println(ERROR, tag, msg + '\n' + tr);
+	}
+
+	public static boolean isLoggable(String tag, int level) {
+		return level >= WARN;
+	}
+
+	public static int println(int priority, String tag, String msg) {
+		if (priority < WARN) {
+			return 0;
+		}
+		String line = (priority == WARN ? "W/" : "E/") + tag + ": " + msg;
+		System.err.println(line);
+		return line.length();
+	}
+}
@@ -0,0 +1,34 @@
+package android.util;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+import org.xmlpull.v1.XmlSerializer;
+
+/**
+ * Shim do android.util.Xml para os benchmarks na JVM, sobre o
+ * XmlPullParserFactory do kxml2 (a mesma implementao do Android).
+ *
+ * @author Rafael Centenaro
+ */
+public final class Xml {
+
+	private Xml() {
+	}
+
+	public static XmlPullParser newPullParser() {
+		try {
+			return XmlPullParserFactory.newInstance().newPullParser();
+		} catch (XmlPullParserException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public static XmlSerializer newSerializer() {
+		try {
+			return XmlPullParserFactory.newInstance().newSerializer();
+		} catch (XmlPullParserException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,362 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import android.content.Context;
+import br.com.rafael.jpdroid.converters.JpdroidCsvReader;
+import br.com.rafael.jpdroid.converters.JpdroidCsvWriter;
+import br.com.rafael.jpdroid.converters.JpdroidJsonReader;
+import br.com.rafael.jpdroid.converters.JpdroidJsonWriter;
+import br.com.rafael.jpdroid.converters.JpdroidXmlReader;
+import br.com.rafael.jpdroid.converters.JpdroidXmlWriter;
+import br.com.rafael.jpdroid.core.Jpdroid;
+import br.com.rafael.jpdroid.core.JpdroidSchema;
+import br.com.rafael.jpdroid.exceptions.JpdroidException;
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+import br.com.rafael.jpdroid.storage.JpdroidJdbcDatabase;
+import br.com.rafael.pedidojpdroid.entity.Cidade;
+import br.com.rafael.pedidojpdroid.entity.Contato;
+import br.com.rafael.pedidojpdroid.entity.Endereco;
+import br.com.rafael.pedidojpdroid.entity.Estado;
+import br.com.rafael.pedidojpdroid.entity.ItensPedido;
+import br.com.rafael.pedidojpdroid.entity.Pedido;
+import br.com.rafael.pedidojpdroid.entity.Pessoa;
+import br.com.rafael.pedidojpdroid.entity.Produto;
+
+/**
+ * Dados dos benchmarks, gerados a partir das entidades do PEDIDOJPDROID. Os
+ * valores so determinsticos, para que as execues sejam comparveis.
+ *
+ * @author Rafael Centenaro
+ */
+public final class JpdroidBenchmarkData {
+
+	public static final Class<?>[] ENTITIES = { Estado.class, Cidade.class,
+			Pessoa.class, Endereco.class, Contato.class, Produto.class,
+			Pedido.class, ItensPedido.class };
+
+	private static final String[] UNIDADES = { "UN", "KG", "CX", "LT" };
+
+	private JpdroidBenchmarkData() {
+	}
+
+	public static JpdroidSchema schema() throws JpdroidException {
+		JpdroidSchema schema = new JpdroidSchema();
+		for (Class<?> entity : ENTITIES) {
+			schema.addClass(entity);
+		}
+		return schema;
+	}
+
+	/**
+	 * Abre um banco de dados em memria, sem tabelas.
+	 *
+	 * @return JpdroidJdbcDatabase
+	 * @throws Exception
+	 */
+	public static JpdroidJdbcDatabase openEmpty() throws Exception {
+		return JpdroidJdbcDatabase.open(":memory:");
+	}
+
+	/**
+	 * Abre um banco de dados em memria com as tabelas das entidades.
+	 *
+	 * @return JpdroidJdbcDatabase
+	 * @throws Exception
+	 */
+	public static JpdroidJdbcDatabase open() throws Exception {
+		JpdroidJdbcDatabase db = openEmpty();
+		schema().createTables(db);
+		return db;
+	}
+
+	/**
+	 * Abre o Jpdroid em um diretrio temporrio, com as entidades do
+	 * PEDIDOJPDROID. O SQLiteDatabase  o shim sobre o sqlite-jdbc (pacote
+	 * android.database.sqlite deste projeto).
+	 *
+	 * @return Jpdroid
+	 * @throws Exception
+	 */
+	public static Jpdroid openJpdroid() throws Exception {
+		File dir = File.createTempFile("jpdroid", "");
+		dir.delete();
+		dir.mkdirs();
+		Jpdroid jpdroid = Jpdroid.getInstance();
+		jpdroid.setContext(new Context(dir));
+		for (Class<?> entity : ENTITIES) {
+			jpdroid.addEntity(entity);
+		}
+		jpdroid.open();
+		if (!jpdroid.isOpen()) {
+			throw new IllegalStateException("No foi possvel abrir o banco.");
+		}
+		return jpdroid;
+	}
+
+	/**
+	 * Fecha o Jpdroid e remove o diretrio temporrio.
+	 *
+	 * @param jpdroid
+	 */
+	public static void closeJpdroid(Jpdroid jpdroid) {
+		jpdroid.close();
+		delete(jpdroid.getContext().getFilesDir().getParentFile());
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Grava, atravs do Jpdroid, um estado, uma cidade, os clientes (com um
+	 * endereo cada), os produtos e os pedidos com os itens.
+	 *
+	 * @param jpdroid
+	 * @param clientes
+	 * @param produtos
+	 * @param pedidos
+	 * @param itens
+	 *            - Quantidade de itens de cada pedido.
+	 * @throws Exception
+	 */
+	public static void seed(Jpdroid jpdroid, int clientes, int produtos,
+			int pedidos, int itens) throws Exception {
+		Estado estado = new Estado();
+		estado.setNome("Minas Gerais");
+		estado.setSigla("MG");
+		jpdroid.persist(estado);
+		Cidade cidade = new Cidade();
+		cidade.setNome("Belo Horizonte");
+		cidade.setId_estado(jpdroid.retrieve(Estado.class).get(0).get_id());
+		jpdroid.persist(cidade);
+
+		long idCidade = jpdroid.retrieve(Cidade.class).get(0).get_id();
+		List<Pessoa> pessoas = pessoas(clientes, false);
+		for (int i = 0; i < pessoas.size(); i++) {
+			Pessoa pessoa = pessoas.get(i);
+			Endereco endereco = new Endereco();
+			endereco.setRua("Rua " + pessoa.getNome());
+			endereco.setBairro("Centro");
+			endereco.setNumero(i + 1);
+			endereco.setId_Cidade(idCidade);
+			endereco.setPrincipal(true);
+			List<Endereco> enderecos = new ArrayList<Endereco>(1);
+			enderecos.add(endereco);
+			pessoa.setEndereco(enderecos);
+		}
+		jpdroid.persist(pessoas);
+		jpdroid.persist(produtos(produtos, false));
+
+		jpdroid.persist(pedidos(pedidos, itens,
+				jpdroid.retrieve(Pessoa.class, true),
+				jpdroid.retrieve(Produto.class), false));
+	}
+
+	public static List<Produto> produtos(int count) {
+		return produtos(count, true);
+	}
+
+	/**
+	 * @param count
+	 * @param ids
+	 *            - Indica se as chaves primrias so atribudas (1 a count);
+	 *            sem as chaves os registros so includos pelo Jpdroid.
+	 * @return List<Produto>
+	 */
+	public static List<Produto> produtos(int count, boolean ids) {
+		List<Produto> produtos = new ArrayList<Produto>(count);
+		for (int i = 1; i <= count; i++) {
+			Produto produto = new Produto();
+			if (ids) {
+				produto.set_id(i);
+			}
+			produto.setNome("Produto " + i);
+			produto.setUnidadeMedida(UNIDADES[i % UNIDADES.length]);
+			produto.setQuantidade(i % 100);
+			produto.setPreco(1 + (i % 1000) / 10.0);
+			produtos.add(produto);
+		}
+		return produtos;
+	}
+
+	public static List<Pessoa> pessoas(int count) {
+		return pessoas(count, true);
+	}
+
+	public static List<Pessoa> pessoas(int count, boolean ids) {
+		List<Pessoa> pessoas = new ArrayList<Pessoa>(count);
+		for (int i = 1; i <= count; i++) {
+			Pessoa pessoa = new Pessoa();
+			if (ids) {
+				pessoa.set_id(i);
+			}
+			pessoa.setNome("Cliente " + i);
+			pessoas.add(pessoa);
+		}
+		return pessoas;
+	}
+
+	public static List<Pedido> pedidos(int count, int itens,
+			List<Pessoa> clientes, List<Produto> produtos) {
+		return pedidos(count, itens, clientes, produtos, true);
+	}
+
+	/**
+	 * Pedidos com o cliente e os itens preenchidos, como retornados pelo
+	 * Jpdroid com as classes relacionadas. O endereo de entrega  o
+	 * primeiro endereo do cliente, quando houver.
+	 *
+	 * @param count
+	 * @param itens
+	 *            - Quantidade de itens de cada pedido.
+	 * @param clientes
+	 * @param produtos
+	 * @param ids
+	 *            - Indica se as chaves primrias dos pedidos e itens so
+	 *            atribudas; sem as chaves os registros so includos pelo
+	 *            Jpdroid.
+	 * @return List<Pedido>
+	 */
+	public static List<Pedido> pedidos(int count, int itens,
+			List<Pessoa> clientes, List<Produto> produtos, boolean ids) {
+		List<Pedido> pedidos = new ArrayList<Pedido>(count);
+		long idItem = 1;
+		for (int i = 1; i <= count; i++) {
+			Pessoa cliente = clientes.get(i % clientes.size());
+			Pedido pedido = new Pedido();
+			if (ids) {
+				pedido.set_id(i);
+			}
+			pedido.setData(new Date(1262304000000L + i * 3600000L));
+			pedido.setIdCliente(cliente.get_id());
+			pedido.setCliente(cliente);
+			if (cliente.getEndereco() != null
+					&& !cliente.getEndereco().isEmpty()) {
+				pedido.setIdEnderecoEntrega(cliente.getEndereco().get(0)
+						.get_id());
+			}
+			List<ItensPedido> itensPedido = new ArrayList<ItensPedido>(itens);
+			double total = 0;
+			for (int j = 0; j < itens; j++) {
+				Produto produto = produtos.get((i * itens + j)
+						% produtos.size());
+				ItensPedido item = new ItensPedido();
+				if (ids) {
+					item.set_id(idItem++);
+					item.setIdPedido(i);
+				}
+				item.setIdProduto(produto.get_id());
+				item.setNomeProduto(produto.getNome());
+				item.setQtdProduto(1 + j % 5);
+				item.setValorUnitario(produto.getPreco());
+				total += item.getQtdProduto() * item.getValorUnitario();
+				itensPedido.add(item);
+			}
+			pedido.setItensPedido(itensPedido);
+			pedido.setValorTotal(total);
+			pedidos.add(pedido);
+		}
+		return pedidos;
+	}
+
+	/**
+	 * Script de produtos para o Jpdroid.importSqlScript, com comandos INSERT
+	 * ou UPSERT (os espaos dos textos preenchidos com '#').
+	 *
+	 * @param command
+	 *            - INSERT ou UPSERT.
+	 * @param produtos
+	 * @return byte[]
+	 */
+	public static byte[] toSqlScript(String command, List<Produto> produtos) {
+		boolean upsert = "UPSERT".equals(command);
+		StringBuilder script = new StringBuilder();
+		for (Produto produto : produtos) {
+			script.append(upsert ? "UPSERT Produto " : "INSERT INTO Produto ")
+					.append("(_id,nome,unidadeMedida,quantidade,preco) VALUES(")
+					.append(produto.get_id()).append(",'")
+					.append(upsert ? produto.getNome().replace(' ', '#')
+							: produto.getNome()).append("','")
+					.append(produto.getUnidadeMedida()).append("',")
+					.append(produto.getQuantidade()).append(',')
+					.append(produto.getPreco()).append(");\n");
+		}
+		return script.toString().getBytes();
+	}
+
+	public static byte[] toJson(List<?> entities) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JpdroidJsonWriter writer = new JpdroidJsonWriter(
+				new OutputStreamWriter(out, "UTF-8"));
+		writer.entities(entities.iterator());
+		writer.close();
+		return out.toByteArray();
+	}
+
+	public static byte[] toCsv(List<?> entities) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter(out, "UTF-8");
+		new JpdroidCsvWriter(writer).entities(entities.iterator());
+		writer.close();
+		return out.toByteArray();
+	}
+
+	public static byte[] toXml(List<?> entities) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JpdroidXmlWriter writer = new JpdroidXmlWriter(out);
+		writer.startDocument();
+		writer.entities(entities.iterator());
+		writer.endDocument();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Retorna o leitor do formato informado (json, csv ou xml).
+	 *
+	 * @param format
+	 * @param data
+	 * @param recordTag
+	 *            - Nome do elemento de cada registro no XML.
+	 * @return IRecordReader
+	 * @throws Exception
+	 */
+	public static IRecordReader reader(String format, byte[] data,
+			String recordTag) throws Exception {
+		ByteArrayInputStream in = new ByteArrayInputStream(data);
+		if ("json".equals(format)) {
+			return new JpdroidJsonReader(new InputStreamReader(in, "UTF-8"));
+		} else if ("csv".equals(format)) {
+			return new JpdroidCsvReader(new InputStreamReader(in, "UTF-8"));
+		} else if ("xml".equals(format)) {
+			return new JpdroidXmlReader(in, recordTag);
+		}
+		throw new IllegalArgumentException("Formato no suportado: " + format);
+	}
+
+	public static byte[] export(String format, List<?> entities)
+			throws Exception {
+		if ("json".equals(format)) {
+			return toJson(entities);
+		} else if ("csv".equals(format)) {
+			return toCsv(entities);
+		} else if ("xml".equals(format)) {
+			return toXml(entities);
+		}
+		throw new IllegalArgumentException("Formato no suportado: " + format);
+	}
+}
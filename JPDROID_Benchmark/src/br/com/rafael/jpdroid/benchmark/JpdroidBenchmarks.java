@@ -0,0 +1,25 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com o GCProfiler, que reporta a taxa de alocao
+ * (gc.alloc.rate e gc.alloc.rate.norm) de cada operao. <br>
+ * Aceita as mesmas opes da linha de comando do JMH. Ex: <br>
+ * java -jar target/benchmarks.jar JpdroidRetrieveBenchmark -p fillRelationClass=false
+ *
+ * @author Rafael Centenaro
+ */
+public class JpdroidBenchmarks {
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
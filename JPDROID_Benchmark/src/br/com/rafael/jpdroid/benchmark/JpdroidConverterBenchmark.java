@@ -0,0 +1,95 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+import br.com.rafael.pedidojpdroid.entity.Pedido;
+import br.com.rafael.pedidojpdroid.entity.Pessoa;
+import br.com.rafael.pedidojpdroid.entity.Produto;
+
+/**
+ * Converso de entidades para JSON, CSV e XML e leitura dos registros
+ * exportados. <br>
+ * Os pedidos so exportados com o cliente e os itens (classes relacionadas);
+ * o CSV contm apenas as colunas dos pedidos.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidConverterBenchmark {
+
+	@Param({ "json", "csv", "xml" })
+	public String format;
+
+	@Param({ "100" })
+	public int pedidos;
+
+	@Param({ "10" })
+	public int itens;
+
+	@Param({ "1000" })
+	public int produtos;
+
+	private List<Pedido> pedidoList;
+
+	private List<Produto> produtoList;
+
+	private byte[] produtoData;
+
+	@Setup
+	public void setup() throws Exception {
+		produtoList = JpdroidBenchmarkData.produtos(produtos);
+		List<Pessoa> clientes = JpdroidBenchmarkData.pessoas(Math.max(1,
+				pedidos / 10));
+		pedidoList = JpdroidBenchmarkData.pedidos(pedidos, itens, clientes,
+				produtoList);
+		produtoData = JpdroidBenchmarkData.export(format, produtoList);
+	}
+
+	@Benchmark
+	public byte[] exportPedidos() throws Exception {
+		return JpdroidBenchmarkData.export(format, pedidoList);
+	}
+
+	@Benchmark
+	public byte[] exportProdutos() throws Exception {
+		return JpdroidBenchmarkData.export(format, produtoList);
+	}
+
+	@Benchmark
+	public int readProdutos(Blackhole blackhole) throws Exception {
+		IRecordReader reader = JpdroidBenchmarkData.reader(format,
+				produtoData, Produto.class.getSimpleName());
+		int count = 0;
+		try {
+			Map<String, Object> record;
+			while ((record = reader.nextRecord()) != null) {
+				blackhole.consume(record);
+				count++;
+			}
+		} finally {
+			reader.close();
+		}
+		return count;
+	}
+}
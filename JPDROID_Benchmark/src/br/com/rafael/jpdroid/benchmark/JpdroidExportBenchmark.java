@@ -0,0 +1,65 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.core.Jpdroid;
+
+/**
+ * Jpdroid.exportDbScript do banco com clientes, produtos e pedidos.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidExportBenchmark {
+
+	@Param({ "100" })
+	public int pedidos;
+
+	@Param({ "10" })
+	public int itens;
+
+	private Jpdroid jpdroid;
+
+	private File script;
+
+	@Setup
+	public void open() throws Exception {
+		jpdroid = JpdroidBenchmarkData.openJpdroid();
+		JpdroidBenchmarkData.seed(jpdroid, Math.max(1, pedidos / 10), 100,
+				pedidos, itens);
+		script = File.createTempFile("jpdroid", ".bkp");
+		if (exportDbScript() != 1) {
+			throw new IllegalStateException("Script no exportado.");
+		}
+	}
+
+	@TearDown
+	public void close() {
+		script.delete();
+		JpdroidBenchmarkData.closeJpdroid(jpdroid);
+	}
+
+	@Benchmark
+	public int exportDbScript() {
+		return jpdroid.exportDbScript(script);
+	}
+}
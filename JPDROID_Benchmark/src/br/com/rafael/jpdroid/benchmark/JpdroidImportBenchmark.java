@@ -0,0 +1,102 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.core.JpdroidImportResult;
+import br.com.rafael.jpdroid.core.JpdroidImporter;
+import br.com.rafael.jpdroid.enums.ImportMode;
+import br.com.rafael.jpdroid.interfaces.IRecordReader;
+import br.com.rafael.jpdroid.storage.JpdroidJdbcDatabase;
+import br.com.rafael.pedidojpdroid.entity.Produto;
+
+/**
+ * Importao de produtos (JpdroidImporter) a partir de arquivos JSON, CSV e
+ * XML gerados pelos conversores do Jpdroid. <br>
+ * INSERT grava os registros na tabela vazia; UPSERT atualiza os registros j
+ * existentes.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidImportBenchmark {
+
+	@Param({ "1000" })
+	public int records;
+
+	@Param({ "json", "csv", "xml" })
+	public String format;
+
+	@Param({ "INSERT", "UPSERT" })
+	public ImportMode mode;
+
+	@Param({ "500" })
+	public int batchSize;
+
+	private JpdroidJdbcDatabase db;
+
+	private byte[] data;
+
+	@Setup(Level.Trial)
+	public void open() throws Exception {
+		db = JpdroidBenchmarkData.open();
+		data = JpdroidBenchmarkData.export(format,
+				JpdroidBenchmarkData.produtos(records));
+		if (mode == ImportMode.UPSERT) {
+			check(importar(ImportMode.INSERT));
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void clear() throws Exception {
+		if (mode == ImportMode.INSERT) {
+			db.execSQL("DELETE FROM Produto");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void close() throws Exception {
+		db.close();
+	}
+
+	@Benchmark
+	public JpdroidImportResult importProdutos() throws Exception {
+		return importar(mode);
+	}
+
+	private JpdroidImportResult importar(ImportMode importMode)
+			throws Exception {
+		IRecordReader reader = JpdroidBenchmarkData.reader(format, data,
+				Produto.class.getSimpleName());
+		try {
+			return new JpdroidImporter(db, Produto.class, importMode).run(
+					reader, batchSize);
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void check(JpdroidImportResult result) {
+		if (result.hasErrors() || result.getInserted() != records) {
+			throw new IllegalStateException(result.toString());
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.core.Jpdroid;
+import br.com.rafael.pedidojpdroid.entity.Pedido;
+import br.com.rafael.pedidojpdroid.entity.Pessoa;
+import br.com.rafael.pedidojpdroid.entity.Produto;
+
+/**
+ * Jpdroid.persist de novos pedidos com os itens, gravados em uma nica
+ * transao. Os pedidos gravados so excludos ao final de cada iterao.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidPersistBenchmark {
+
+	@Param({ "1", "10" })
+	public int pedidos;
+
+	@Param({ "10", "100" })
+	public int itens;
+
+	private Jpdroid jpdroid;
+
+	private List<Pessoa> clientes;
+
+	private List<Produto> produtos;
+
+	private List<Pedido> pedidoList;
+
+	@Setup(Level.Trial)
+	public void open() throws Exception {
+		jpdroid = JpdroidBenchmarkData.openJpdroid();
+		JpdroidBenchmarkData.seed(jpdroid, 10, 100, 0, 0);
+		clientes = jpdroid.retrieve(Pessoa.class, true);
+		produtos = jpdroid.retrieve(Produto.class);
+	}
+
+	@Setup(Level.Invocation)
+	public void create() {
+		pedidoList = JpdroidBenchmarkData.pedidos(pedidos, itens, clientes,
+				produtos, false);
+	}
+
+	@TearDown(Level.Iteration)
+	public void clear() {
+		jpdroid.deleteAll(Pedido.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		JpdroidBenchmarkData.closeJpdroid(jpdroid);
+	}
+
+	@Benchmark
+	public void persistPedidos() throws Exception {
+		jpdroid.persist(pedidos == 1 ? pedidoList.get(0) : pedidoList);
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.core.Jpdroid;
+import br.com.rafael.pedidojpdroid.entity.Pedido;
+
+/**
+ * Jpdroid.retrieve dos pedidos com e sem as classes relacionadas (cliente,
+ * endereo de entrega e itens).
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidRetrieveBenchmark {
+
+	@Param({ "100" })
+	public int pedidos;
+
+	@Param({ "10" })
+	public int itens;
+
+	@Param({ "true", "false" })
+	public boolean fillRelationClass;
+
+	private Jpdroid jpdroid;
+
+	@Setup
+	public void open() throws Exception {
+		jpdroid = JpdroidBenchmarkData.openJpdroid();
+		JpdroidBenchmarkData.seed(jpdroid, Math.max(1, pedidos / 10), 100,
+				pedidos, itens);
+		List<Pedido> list = retrievePedidos();
+		if (list.size() != pedidos
+				|| (fillRelationClass && list.get(0).getItensPedido().size() != itens)) {
+			throw new IllegalStateException("Pedidos no gravados.");
+		}
+	}
+
+	@TearDown
+	public void close() {
+		JpdroidBenchmarkData.closeJpdroid(jpdroid);
+	}
+
+	@Benchmark
+	public List<Pedido> retrievePedidos() {
+		return jpdroid.retrieve(Pedido.class, fillRelationClass);
+	}
+}
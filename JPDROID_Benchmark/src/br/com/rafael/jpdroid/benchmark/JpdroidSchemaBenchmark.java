@@ -0,0 +1,76 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.storage.JpdroidJdbcDatabase;
+
+/**
+ * Abertura do banco de dados: criao das tabelas das entidades em um banco
+ * vazio e verificao (bootstrap) de um banco cujo modelo no foi alterado.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidSchemaBenchmark {
+
+	private JpdroidJdbcDatabase created;
+
+	private JpdroidJdbcDatabase empty;
+
+	@Setup(Level.Trial)
+	public void open() throws Exception {
+		created = JpdroidBenchmarkData.open();
+	}
+
+	@Setup(Level.Invocation)
+	public void openEmpty() throws Exception {
+		empty = JpdroidBenchmarkData.openEmpty();
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeEmpty() throws Exception {
+		empty.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void close() throws Exception {
+		created.close();
+	}
+
+	@Benchmark
+	public void createTables() throws Exception {
+		JpdroidBenchmarkData.schema().createTables(empty);
+	}
+
+	/**
+	 * Uma nova instncia do JpdroidSchema por abertura, incluindo o clculo
+	 * da impresso digital do modelo.
+	 */
+	@Benchmark
+	public boolean bootstrapUnchanged() throws Exception {
+		boolean created = JpdroidBenchmarkData.schema().bootstrap(this.created,
+				null);
+		if (created) {
+			throw new IllegalStateException("O modelo foi considerado alterado.");
+		}
+		return created;
+	}
+}
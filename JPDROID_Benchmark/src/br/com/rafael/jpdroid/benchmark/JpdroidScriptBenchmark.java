@@ -0,0 +1,83 @@
+package br.com.rafael.jpdroid.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.rafael.jpdroid.core.Jpdroid;
+import br.com.rafael.pedidojpdroid.entity.Produto;
+
+/**
+ * Jpdroid.importSqlScript de um script de produtos. <br>
+ * INSERT grava os registros na tabela vazia; UPSERT (Jpdroid.upsert)
+ * atualiza os registros j existentes.
+ *
+ * @author Rafael Centenaro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JpdroidScriptBenchmark {
+
+	@Param({ "1000" })
+	public int records;
+
+	@Param({ "INSERT", "UPSERT" })
+	public String command;
+
+	private Jpdroid jpdroid;
+
+	private File script;
+
+	@Setup(Level.Trial)
+	public void open() throws Exception {
+		jpdroid = JpdroidBenchmarkData.openJpdroid();
+		script = File.createTempFile("produtos", ".sql");
+		FileOutputStream out = new FileOutputStream(script);
+		try {
+			out.write(JpdroidBenchmarkData.toSqlScript(command,
+					JpdroidBenchmarkData.produtos(records)));
+		} finally {
+			out.close();
+		}
+		if (importSqlScript() != 1
+				|| jpdroid.retrieve(Produto.class).size() != records) {
+			throw new IllegalStateException("Script no importado.");
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void clear() {
+		if ("INSERT".equals(command)) {
+			jpdroid.deleteAll(Produto.class);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		script.delete();
+		JpdroidBenchmarkData.closeJpdroid(jpdroid);
+	}
+
+	@Benchmark
+	public int importSqlScript() {
+		return jpdroid.importSqlScript(script);
+	}
+}
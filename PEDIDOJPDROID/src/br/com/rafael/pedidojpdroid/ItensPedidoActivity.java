@@ -114,13 +114,12 @@ public class ItensPedidoActivity extends Activity {
 
 				int[] to = new int[] { R.id.tvIdProdutoListagem, R.id.tvNomeProdutoListagem };
 
-				String where = "";
+				Cursor matrixCursor;
 				if (filtro.trim().matches("^[0-9]*$") && filtro.trim().length() > 0) {
-					where = "_id = " + filtro;
+					matrixCursor = jpdroid.createQuery(Produto.class, "_id = " + filtro);
 				} else {
-					where = "nome like '%" + filtro + "%'";
+					matrixCursor = jpdroid.createSearchQuery(Produto.class, filtro);
 				}
-				Cursor matrixCursor = jpdroid.createQuery(Produto.class, where);
 
 				SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(v.getContext(), R.layout.activity_lista_produto,
 				    matrixCursor, columns, to, 0);
@@ -19,6 +19,7 @@ import android.widget.EditText;
 import android.widget.ListView;
 import android.widget.Toast;
 import br.com.rafael.jpdroid.core.Jpdroid;
+import br.com.rafael.jpdroid.core.JpdroidFullText;
 import br.com.rafael.pedidojpdroid.entity.Pedido;
 
 public class ListagemPedidoActivity extends Activity {
@@ -130,22 +131,45 @@ public class ListagemPedidoActivity extends Activity {
 		int[] to = new int[] { R.id.tvIdPedidoListagem, R.id.tvNomeCliente, R.id.tvValorTotal, R.id.tvdata };
 
 		String where = "0 = 0";
+		String[] args = null;
+		String match = JpdroidFullText.getMatchExpression(filtro);
 		if (filtro.trim().length() > 0) {
 			if (filtro.trim().matches("^[0-9]*$")) {
 				where = "PEDIDO._id = " + filtro;
-			} else {
-				where = "PESSOA.NOME like '%" + filtro + "%'";
+			} else if (match != null) {
+				where = "PEDIDO.IDCLIENTE IN (SELECT docid FROM Pessoa_fts WHERE Pessoa_fts MATCH ?)";
+				args = new String[] { match };
 			}
 		}
 		String sql = "SELECT PEDIDO._ID as _id, PESSOA.NOME AS nomeCliente, 'R$ '|| valorTotal as total,  strftime('%d/%m/%Y',data)  as dataGravacao  FROM PEDIDO INNER JOIN PESSOA ON (PEDIDO.IDCLIENTE = PESSOA._ID) WHERE "
 		    + where;
-		Cursor matrixCursor = jpdroid.rawQuery(sql, null);
+		Cursor matrixCursor = jpdroid.rawQuery(sql, args);
 
 		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_pedido, matrixCursor,
 		    columns, to, 0);
 
 		lvListaPedidos.setAdapter(dataAdapter);
 
+		fillTotal(filtro);
+	}
+
+	private void fillTotal(String filtro) {
+		String where = null;
+		String[] args = new String[0];
+		String match = JpdroidFullText.getMatchExpression(filtro);
+		if (filtro.trim().length() > 0) {
+			if (filtro.trim().matches("^[0-9]*$")) {
+				where = "_id = ?";
+				args = new String[] { filtro.trim() };
+			} else if (match != null) {
+				where = "idCliente IN (SELECT docid FROM Pessoa_fts WHERE Pessoa_fts MATCH ?)";
+				args = new String[] { match };
+			}
+		}
+		long quantidade = jpdroid.count(Pedido.class, where, args);
+		double total = jpdroid.sum(Pedido.class, "valorTotal", where, args);
+		setTitle(getString(R.string.title_activity_listagem_pedido) + " (" + quantidade + ") - R$ "
+		    + String.format("%.2f", total));
 	}
 
 	public void onbtLimparPesquisaPessoa(View v) {
@@ -123,13 +123,14 @@ public class ListagemPessoaActivity extends Activity {
 
 		int[] to = new int[] { R.id.tvIdPessoaListagem, R.id.tvNomePessoaListagem };
 
-		String where = "";
+		Cursor matrixCursor;
 		if(filtro.trim().matches("^[0-9]*$") && filtro.trim().length() > 0){
-			where = "_id = "+filtro;
+			matrixCursor = jpdroid.createQuery(Pessoa.class, "_id = "+filtro," _id asc ");
+		}else if(filtro.trim().length() > 0){
+			matrixCursor = jpdroid.createSearchQuery(Pessoa.class, filtro);
 		}else{
-			where = "nome like '%"+filtro+"%'";
+			matrixCursor = jpdroid.createQuery(Pessoa.class, ""," _id asc ");
 		}
-		Cursor matrixCursor = jpdroid.createQuery(Pessoa.class, where," _id asc ");
 
 		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_pessoa, matrixCursor,
 		    columns, to, 0);
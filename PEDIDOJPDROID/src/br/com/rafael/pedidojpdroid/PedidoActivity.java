@@ -192,13 +192,12 @@ public class PedidoActivity extends TabActivity {
 
 				int[] to = new int[] { R.id.tvIdPessoaListagem, R.id.tvNomePessoaListagem };
 
-				String where = "";
+				Cursor matrixCursor;
 				if (filtro.trim().matches("^[0-9]*$") && filtro.trim().length() > 0) {
-					where = "_id = " + filtro;
+					matrixCursor = jpdroid.createQuery(Pessoa.class, "_id = " + filtro);
 				} else {
-					where = "nome like '%" + filtro + "%'";
+					matrixCursor = jpdroid.createSearchQuery(Pessoa.class, filtro);
 				}
-				Cursor matrixCursor = jpdroid.createQuery(Pessoa.class, where);
 
 				SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(v.getContext(), R.layout.activity_lista_pessoa,
 				    matrixCursor, columns, to, 0);
@@ -8,7 +8,7 @@ import android.app.Activity;
 import android.app.TabActivity;
 import android.content.Intent;
 import android.content.res.Configuration;
-import android.database.MatrixCursor;
+import android.database.Cursor;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.net.Uri;
@@ -197,9 +197,9 @@ public class PessoaActivity extends TabActivity {
 
 		int[] to = new int[] { R.id.tvEnderecoListaEndereco, R.id.tvNumeroValor, R.id.tvBairroValor, R.id.tvCidadeValor };
 
-		MatrixCursor matrixCursor = JpdroidConverter.toMatrixCursor(endereco, false);
+		Cursor cursor = JpdroidConverter.toCursor(endereco, Endereco.class, false);
 
-		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_endereco, matrixCursor,
+		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_endereco, cursor,
 		    columns, to, 0);
 
 		lvEnderecos.setAdapter(dataAdapter);
@@ -211,9 +211,9 @@ public class PessoaActivity extends TabActivity {
 
 		int[] to = new int[] { R.id.tvTipoListaContatoValor, R.id.tvContatoListaContatoValor };
 
-		MatrixCursor matrixCursor = JpdroidConverter.toMatrixCursor(contato);
+		Cursor cursor = JpdroidConverter.toCursor(contato, Contato.class);
 
-		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_contato, matrixCursor,
+		SimpleCursorAdapter dataAdapter = new SimpleCursorAdapter(this, R.layout.activity_lista_contato, cursor,
 		    columns, to, 0);
 
 		lvContatos.setAdapter(dataAdapter);
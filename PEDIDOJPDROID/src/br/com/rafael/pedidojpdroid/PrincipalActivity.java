@@ -42,6 +42,9 @@ public class PrincipalActivity extends Activity {
 		dataBase.addEntity(Produto.class);
 		dataBase.addEntity(Pedido.class);
 		
+		dataBase.enableQueryCache(64);
+		// Gerado pelo JpdroidDatabaseBuilder (custom_rules.xml); sem o arquivo, o import.sql  executado.
+		dataBase.setPrebuiltDatabase("JpdroidDB.db");
 		dataBase.open();
 		
  		if(dataBase.isCreate()){
@@ -2,6 +2,7 @@ package br.com.rafael.pedidojpdroid.entity;
 
 import java.io.Serializable;
 
+import br.com.rafael.jpdroid.annotations.Cacheable;
 import br.com.rafael.jpdroid.annotations.Column;
 import br.com.rafael.jpdroid.annotations.Entity;
 import br.com.rafael.jpdroid.annotations.ForeignKey;
@@ -10,6 +11,7 @@ import br.com.rafael.jpdroid.annotations.RelationClass;
 import br.com.rafael.jpdroid.enums.RelationType;
 
 @Entity
+@Cacheable
 public class Cidade implements Serializable {
 
 	private static final long serialVersionUID = 1L;
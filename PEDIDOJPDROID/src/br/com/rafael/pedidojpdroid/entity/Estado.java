@@ -2,11 +2,13 @@ package br.com.rafael.pedidojpdroid.entity;
 
 import java.io.Serializable;
 
+import br.com.rafael.jpdroid.annotations.Cacheable;
 import br.com.rafael.jpdroid.annotations.Column;
 import br.com.rafael.jpdroid.annotations.Entity;
 import br.com.rafael.jpdroid.annotations.PrimaryKey;
 
 @Entity
+@Cacheable
 public class Estado implements Serializable {
 
 	private static final long serialVersionUID = 1L;
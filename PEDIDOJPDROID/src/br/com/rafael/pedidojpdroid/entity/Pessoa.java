@@ -6,6 +6,7 @@ import android.graphics.Bitmap;
 import br.com.rafael.jpdroid.annotations.Column;
 import br.com.rafael.jpdroid.annotations.Entity;
 import br.com.rafael.jpdroid.annotations.DefaultOrder;
+import br.com.rafael.jpdroid.annotations.FullTextSearch;
 import br.com.rafael.jpdroid.annotations.PrimaryKey;
 import br.com.rafael.jpdroid.annotations.RelationClass;
 import br.com.rafael.jpdroid.enums.Order;
@@ -20,6 +21,7 @@ public class Pessoa {
 	
 	@DefaultOrder(order=Order.asc)
 	@Column
+	@FullTextSearch
 	private String nome;
 	
 	@RelationClass(relationType=RelationType.ManyToOne,joinColumn="idPessoa")
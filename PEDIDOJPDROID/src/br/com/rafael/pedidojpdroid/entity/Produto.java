@@ -3,6 +3,8 @@ package br.com.rafael.pedidojpdroid.entity;
 import android.graphics.Bitmap;
 import br.com.rafael.jpdroid.annotations.Column;
 import br.com.rafael.jpdroid.annotations.Entity;
+import br.com.rafael.jpdroid.annotations.ExternalBlob;
+import br.com.rafael.jpdroid.annotations.FullTextSearch;
 import br.com.rafael.jpdroid.annotations.PrimaryKey;
 
 @Entity
@@ -14,6 +16,7 @@ public class Produto  {
 	private long _id;
 	
 	@Column
+	@FullTextSearch
 	private String nome;
 	
 	@Column
@@ -25,6 +28,7 @@ public class Produto  {
 	@Column
 	private double preco;
 	
+	@ExternalBlob
 	@Column
 	private Bitmap foto;
 